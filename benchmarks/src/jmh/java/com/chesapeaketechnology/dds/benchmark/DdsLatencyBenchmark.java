@@ -0,0 +1,33 @@
+package com.chesapeaketechnology.dds.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer-to-consumer latency through {@code dds:} routes, sampled so the report includes percentiles.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DdsLatencyBenchmark
+{
+    /**
+     * Send a single sample and wait for it to arrive.
+     *
+     * @param state    Routes to send through.
+     * @param counters Counters of samples that never arrived.
+     */
+    @Benchmark
+    public void sendAndReceive(DdsRouteState state, DdsLossCounters counters)
+    {
+        if (!state.awaitMessage(state.send()))
+        {
+            counters.lost++;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.chesapeaketechnology.dds.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Samples that never arrived, reported by JMH as a secondary result next to each benchmark's score.
+ * Best effort topics may drop samples, which would otherwise make a run look faster than it was.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class DdsLossCounters
+{
+    /**
+     * Samples not received within the timeout during the current iteration.
+     */
+    public long lost;
+
+    /**
+     * Start each iteration from zero, JMH reports the counter per iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset()
+    {
+        lost = 0;
+    }
+}
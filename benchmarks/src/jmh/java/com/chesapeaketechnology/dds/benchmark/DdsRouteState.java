@@ -0,0 +1,214 @@
+package com.chesapeaketechnology.dds.benchmark;
+
+import com.chesapeaketechnology.dds.DdsCamelComponent;
+import com.chesapeaketechnology.dds.DdsQoSConfigManager;
+import com.chesapeaketechnology.dds.DdsUriBuilder;
+import com.example.idl.messaging.Message;
+import org.apache.camel.CamelContext;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A producer-to-consumer route pair over a real DDS topic, parameterized by quality of service,
+ * consumer message reuse and payload size.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@State(Scope.Benchmark)
+public class DdsRouteState
+{
+    /**
+     * Domain the benchmarks run on, away from the example applications on domains {@code 0} and {@code 1}.
+     */
+    public static final int DOMAIN = 99;
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(5);
+
+    /**
+     * Quality of service of both routes.
+     */
+    @Param({DdsQoSConfigManager.CONFIG_LOW, DdsQoSConfigManager.CONFIG_HIGH})
+    public String qos;
+    /**
+     * Whether the consumer reuses a single message instance.
+     */
+    @Param({"false", "true"})
+    public boolean reuse;
+    /**
+     * Length of each message's text. Unbounded idl strings are limited to 255 characters.
+     */
+    @Param({"8", "64", "250"})
+    public int payloadSize;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong lastReceivedId = new AtomicLong(-1);
+    // Identifier of the first message of the current burst in the high bits, and how many of its samples arrived in the low bits
+    private final AtomicLong burst = new AtomicLong();
+    private CamelContext context;
+    private ProducerTemplate template;
+    private String uriOut;
+    private Message message;
+    private int nextId;
+
+    /**
+     * Start the routes and wait for the producer and consumer to discover each other.
+     *
+     * @throws Exception When the routes cannot be started.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        DdsUriBuilder in = DdsUriBuilder.create().domain(DOMAIN).content(Message.class).quality(qos);
+        if (reuse)
+        {
+            in.reuseMessageStructures();
+        }
+        String uriIn = in.getUri();
+        uriOut = DdsUriBuilder.create().domain(DOMAIN).content(Message.class).quality(qos).participant("producer").getUri();
+        context = new DefaultCamelContext();
+        context.addComponent(DdsCamelComponent.SCHEME, new DdsCamelComponent());
+        context.addRoutes(new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(uriIn).process(exchange ->
+                {
+                    int id = exchange.getIn().getBody(Message.class).getMessageId();
+                    lastReceivedId.set(id);
+                    received.incrementAndGet();
+                    countBurst(id);
+                });
+            }
+        });
+        context.start();
+        template = context.createProducerTemplate();
+        char[] text = new char[payloadSize];
+        Arrays.fill(text, 'x');
+        message = new Message();
+        message.setText(new String(text));
+        // Discovery is asynchronous, keep sending until the first sample makes it through
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.get() == 0 && System.nanoTime() - deadline < 0)
+        {
+            send();
+            Thread.sleep(10);
+        }
+        if (received.get() == 0)
+        {
+            throw new IllegalStateException("Producer and consumer did not discover each other");
+        }
+    }
+
+    /**
+     * Stop the routes.
+     *
+     * @throws Exception When the routes cannot be stopped.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception
+    {
+        context.stop();
+    }
+
+    /**
+     * Send the next message.
+     *
+     * @return Identifier of the sent message.
+     */
+    public int send()
+    {
+        int id = nextId++;
+        message.setMessageId(id);
+        template.sendBody(uriOut, message);
+        return id;
+    }
+
+    /**
+     * Start a burst from the next message sent. Only samples of the burst are counted by {@link #awaitBurst(int)},
+     * so samples of earlier bursts, or from discovery, that arrive late do not cut the wait short.
+     */
+    public void startBurst()
+    {
+        burst.set((long) nextId << Integer.SIZE);
+    }
+
+    /**
+     * Wait for the consumer to have received every sample sent since {@link #startBurst()}.
+     *
+     * @param count Number of samples in the burst.
+     * @return Number of samples of the burst that did not arrive within the timeout.
+     */
+    public long awaitBurst(int count)
+    {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (getBurstReceived() < count)
+        {
+            if (System.nanoTime() - deadline > 0)
+            {
+                // Best effort topics may drop samples, count them rather than waiting forever
+                return count - getBurstReceived();
+            }
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+        return 0;
+    }
+
+    /**
+     * Wait for the consumer to receive a specific message.
+     *
+     * @param id Identifier of the message.
+     * @return {@code true} when the message arrived within the timeout.
+     */
+    public boolean awaitMessage(int id)
+    {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (lastReceivedId.get() < id)
+        {
+            if (System.nanoTime() - deadline > 0)
+            {
+                return false;
+            }
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Count a received sample towards the current burst, unless it was sent before the burst started.
+     *
+     * @param id Identifier of the received message.
+     */
+    private void countBurst(int id)
+    {
+        long current;
+        do
+        {
+            current = burst.get();
+            if (id < (int) (current >>> Integer.SIZE))
+            {
+                return;
+            }
+        } while (!burst.compareAndSet(current, current + 1));
+    }
+
+    /**
+     * @return Number of samples of the current burst received so far.
+     */
+    private long getBurstReceived()
+    {
+        return (int) burst.get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.chesapeaketechnology.dds.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer-to-consumer throughput through {@code dds:} routes. Each operation is one sample sent and received,
+ * with samples sent in bursts so the producer is not held back by the consumer after every sample.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DdsThroughputBenchmark
+{
+    private static final int BURST = 100;
+
+    /**
+     * Send a burst of samples and wait for all of them to arrive.
+     *
+     * @param state    Routes to send through.
+     * @param counters Counters of samples that never arrived.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void sendAndReceive(DdsRouteState state, DdsLossCounters counters)
+    {
+        state.startBurst();
+        for (int i = 0; i < BURST; i++)
+        {
+            state.send();
+        }
+        counters.lost += state.awaitBurst(BURST);
+    }
+}
@@ -0,0 +1,197 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.Exchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Hands exchanges off from the DDS listener thread to a pool of workers through a bounded queue.
+ * The queue is array backed, so its storage is allocated once up front.
+ * Exchanges that arrive once the dispatcher has stopped are discarded, so pooled samples and exchanges are always released.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsAsyncDispatcher implements DdsDispatcher
+{
+    private static final Logger logger = LoggerFactory.getLogger(DdsAsyncDispatcher.class);
+    private static final long OFFER_WAIT_MS = 100;
+    private final String name;
+    private final BlockingQueue<Exchange> queue;
+    private final DdsOverflowPolicy overflowPolicy;
+    private final Consumer<Exchange> processor;
+    private final Consumer<Exchange> discarder;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean running;
+    private volatile boolean rejecting;
+
+    /**
+     * Create the dispatcher.
+     *
+     * @param name           Name used when logging, typically the endpoint uri.
+     * @param queueSize      Capacity of the hand-off queue.
+     * @param overflowPolicy Behavior when the hand-off queue is full.
+     * @param processor      Action that processes exchanges on worker threads.
+     * @param discarder      Action invoked with exchanges that are dropped without being processed.
+     */
+    public DdsAsyncDispatcher(String name, int queueSize, DdsOverflowPolicy overflowPolicy,
+                              Consumer<Exchange> processor, Consumer<Exchange> discarder)
+    {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.overflowPolicy = overflowPolicy;
+        this.processor = processor;
+        this.discarder = discarder;
+    }
+
+    @Override
+    public void start(ExecutorService executor, int workers)
+    {
+        running = true;
+        for (int i = 0; i < workers; i++)
+        {
+            executor.execute(this::work);
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        running = false;
+        int pending = 0;
+        Exchange exchange;
+        while ((exchange = queue.poll()) != null)
+        {
+            discarder.accept(exchange);
+            pending++;
+        }
+        if (pending > 0)
+        {
+            logger.debug("Discarded {} pending exchanges for '{}' on stop", pending, name);
+        }
+    }
+
+    @Override
+    public void dispatch(Exchange exchange)
+    {
+        if (!running)
+        {
+            discard(exchange, dropped);
+            return;
+        }
+        switch (overflowPolicy)
+        {
+            case BLOCK:
+                try
+                {
+                    // Wait in slices, so a full queue never holds the listener thread once the dispatcher has stopped
+                    while (!queue.offer(exchange, OFFER_WAIT_MS, TimeUnit.MILLISECONDS))
+                    {
+                        if (!running)
+                        {
+                            discard(exchange, dropped);
+                            return;
+                        }
+                    }
+                } catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                    discard(exchange, dropped);
+                    return;
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(exchange))
+                {
+                    Exchange oldest = queue.poll();
+                    if (oldest != null)
+                    {
+                        discard(oldest, dropped);
+                    }
+                }
+                break;
+            case DROP_NEWEST:
+                if (!queue.offer(exchange))
+                {
+                    discard(exchange, dropped);
+                }
+                break;
+            case REJECT:
+            default:
+                if (queue.offer(exchange))
+                {
+                    rejecting = false;
+                } else
+                {
+                    // Only warn once per run of rejections, the counter tracks the rest
+                    if (!rejecting)
+                    {
+                        rejecting = true;
+                        logger.warn("Hand-off queue for '{}' is full, rejecting samples", name);
+                    }
+                    discard(exchange, rejected);
+                }
+                break;
+        }
+        // Stop may have drained the queue just before the exchange landed, then no worker would take it
+        if (!running && queue.remove(exchange))
+        {
+            discard(exchange, dropped);
+        }
+    }
+
+    @Override
+    public long getDroppedCount()
+    {
+        return dropped.sum();
+    }
+
+    @Override
+    public long getRejectedCount()
+    {
+        return rejected.sum();
+    }
+
+    @Override
+    public int getQueueDepth()
+    {
+        return queue.size();
+    }
+
+    /**
+     * @param exchange Exchange to discard.
+     * @param counter  Counter to record the discard in.
+     */
+    private void discard(Exchange exchange, LongAdder counter)
+    {
+        counter.increment();
+        discarder.accept(exchange);
+    }
+
+    /**
+     * Worker loop, processes queued exchanges until stopped or interrupted.
+     */
+    private void work()
+    {
+        while (running)
+        {
+            Exchange exchange;
+            try
+            {
+                exchange = queue.take();
+            } catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            processor.accept(exchange);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.chesapeaketechnology.dds;
 
-import com.chesapeaketechnology.dds.util.ReflectionUtil;
 import org.apache.camel.Endpoint;
 import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.support.DefaultComponent;
@@ -8,10 +7,15 @@ import org.apache.camel.spi.annotations.Component;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import us.ihmc.pubsub.DomainFactory;
 import us.ihmc.pubsub.TopicDataType;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -24,9 +28,23 @@ import java.util.regex.Pattern;
 public class DdsCamelComponent extends DefaultComponent
 {
     public static final String SCHEME = "dds";
+    public static final String REUSE_POOL = "pool";
     private static final transient Pattern URI_REMAINING_PATTERN = Pattern.compile("(\\w+):(\\d+)/([\\w.:]+)");
     private static final Logger logger = LoggerFactory.getLogger(DdsCamelComponent.class);
-    private final Map<String, DdsEndpoint> endpointMap = new ConcurrentHashMap<>();
+    private final Set<DdsEndpoint> endpoints = ConcurrentHashMap.newKeySet();
+    private final DdsTypeRegistry typeRegistry = new DdsTypeRegistry();
+    private final DdsParticipantRegistry participantRegistry =
+            new DdsParticipantRegistry(DomainFactory.getDomain(DomainFactory.PubSubImplementation.FAST_RTPS));
+    private final DdsTopicRegistry topicRegistry = new DdsTopicRegistry(participantRegistry);
+    private final DdsComponentMetrics metrics = new DdsComponentMetrics(topicRegistry);
+    private int startupThreads = 4;
+    private ExecutorService startupPool;
+    private DdsEntityStarter entityStarter;
+    private String qosConfigFile;
+    private boolean watchQosConfig = true;
+    private boolean qosConfigLoaded;
+    private DdsQosConfigWatcher qosWatcher;
+    private ExecutorService qosWatcherPool;
 
     @Override
     protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception
@@ -34,14 +52,28 @@ public class DdsCamelComponent extends DefaultComponent
         Matcher matcher = URI_REMAINING_PATTERN.matcher(remaining);
         if (matcher.matches())
         {
-            // Automatically look up data generated type handler on classpath
+            // Registered type handler, or automatically look up the generated type handler on classpath
             String dataClassName = matcher.group(3);
-            TopicDataType<?> topicDataType = ReflectionUtil.createIdlPubSubType(dataClassName);
+            TopicDataType<?> topicDataType = typeRegistry.getTopicDataType(dataClassName);
+            // Pass serialized bytes through without deserializing them, or only deserialize them on demand
+            boolean lazy = getAndRemoveParameter(parameters, "lazy", Boolean.class, false);
+            if (getAndRemoveParameter(parameters, "raw", Boolean.class, false) || lazy)
+            {
+                topicDataType = new DdsRawTopicDataType(topicDataType);
+            }
             // Get the QoS, may be null
+            loadQosConfigs();
             String configKey = String.valueOf(parameters.get("qos"));
             DdsQosConfig config = DdsQoSConfigManager.getConfig(configKey);
-            // Check for message reuse
-            boolean reuse = Boolean.parseBoolean(String.valueOf(parameters.get("reuse")));
+            // Asynchronous publishing, optionally throttled per writer, on top of the named QoS
+            config = withPublishMode(config,
+                    getAndRemoveParameter(parameters, "asyncPublish", Boolean.class, false),
+                    getAndRemoveParameter(parameters, "flowBytesPerPeriod", Integer.class, 0),
+                    getAndRemoveParameter(parameters, "flowPeriodMs", Long.class, DdsQosConfig.DEFAULT_FLOW_PERIOD_MS));
+            // Check for message reuse, either a single shared instance or a pool of instances
+            String reuseMode = String.valueOf(parameters.get("reuse"));
+            boolean reuse = Boolean.parseBoolean(reuseMode);
+            boolean reusePool = REUSE_POOL.equalsIgnoreCase(reuseMode);
             // Substring off parameters
             if (uri.contains("?"))
             {
@@ -59,7 +91,43 @@ public class DdsCamelComponent extends DefaultComponent
                     config, // QoS
                     reuse // message reuse
             );
-            endpointMap.put(uri, endpoint);
+            endpoint.setLazy(lazy);
+            // Shared participant
+            endpoint.setParticipantProfile(getAndRemoveParameter(parameters, "participant", String.class));
+            DdsConsumerConfiguration consumerConfig = endpoint.getConsumerConfiguration();
+            // Message structure pooling
+            consumerConfig.setPooling(reusePool);
+            consumerConfig.setPoolSize(getAndRemoveParameter(parameters, "poolSize", Integer.class, 0));
+            // Batch delivery
+            consumerConfig.setBatchSize(getAndRemoveParameter(parameters, "batchSize", Integer.class, 1));
+            consumerConfig.setBatchLingerMs(getAndRemoveParameter(parameters, "batchLingerMs", Long.class, 0L));
+            // Asynchronous hand-off
+            consumerConfig.setAsync(getAndRemoveParameter(parameters, "async", Boolean.class, false));
+            consumerConfig.setQueueSize(getAndRemoveParameter(parameters, "queueSize", Integer.class, consumerConfig.getQueueSize()));
+            consumerConfig.setWorkers(getAndRemoveParameter(parameters, "workers", Integer.class, consumerConfig.getWorkers()));
+            consumerConfig.setOverflowPolicy(DdsOverflowPolicy.fromUriName(
+                    getAndRemoveParameter(parameters, "overflow", String.class, consumerConfig.getOverflowPolicy().getUriName())));
+            // Exchange recycling
+            consumerConfig.setPooledExchanges(getAndRemoveParameter(parameters, "pooledExchanges", Boolean.class, false));
+            consumerConfig.setExchangePoolSize(getAndRemoveParameter(parameters, "exchangePoolSize", Integer.class, 0));
+            // Conflation
+            consumerConfig.setConflate(getAndRemoveParameter(parameters, "conflate", Boolean.class, false));
+            consumerConfig.setKeyFields(getAndRemoveParameter(parameters, "key", String.class));
+            // Key ordered partitions
+            consumerConfig.setPartitions(getAndRemoveParameter(parameters, "partitions", Integer.class, 1));
+            // Shared subscriber delivery
+            consumerConfig.setFanoutMode(DdsFanoutMode.fromUriName(
+                    getAndRemoveParameter(parameters, "fanout", String.class, consumerConfig.getFanoutMode().getUriName())));
+            DdsProducerConfiguration producerConfig = endpoint.getProducerConfiguration();
+            // Write coalescing and asynchronous writes
+            producerConfig.setAsyncWrite(getAndRemoveParameter(parameters, "asyncWrite", Boolean.class, false));
+            producerConfig.setWriteBatch(getAndRemoveParameter(parameters, "writeBatch", Integer.class, 1));
+            producerConfig.setFlushIntervalMs(getAndRemoveParameter(parameters, "flushIntervalMs", Long.class, 0L));
+            // Wait for readers to match before producing
+            producerConfig.setMinMatchedReaders(getAndRemoveParameter(parameters, "minMatchedReaders", Integer.class, 0));
+            producerConfig.setMatchTimeoutMs(getAndRemoveParameter(parameters, "matchTimeoutMs", Long.class,
+                    producerConfig.getMatchTimeoutMs()));
+            endpoints.add(endpoint);
             if (logger.isTraceEnabled()){
                 logger.trace("Created DDS endpoint from uri '{}'" +
                         "- Topic:  {}\n" +
@@ -79,12 +147,206 @@ public class DdsCamelComponent extends DefaultComponent
         // Do not validate, the default implementation throws an exception when parameters are found
     }
 
+    @Override
+    protected void doStart() throws Exception
+    {
+        super.doStart();
+        // Resolve packaged types up front, so a broken type index fails now rather than on first use
+        ClassLoader classLoader = getCamelContext().getApplicationContextClassLoader();
+        typeRegistry.loadIndexedTypes(classLoader != null ? classLoader : DdsCamelComponent.class.getClassLoader());
+        metrics.register("component", getCamelContext().getName(), SCHEME);
+        // Create the entities of endpoints starting with the context in parallel
+        if (startupThreads > 1)
+        {
+            startupPool = getCamelContext().getExecutorServiceManager().newFixedThreadPool(this, "DdsStartup", startupThreads);
+        }
+        if (entityStarter == null)
+        {
+            // Startup listeners are never removed and are called again on every start, so only ever register one starter
+            entityStarter = new DdsEntityStarter(getCamelContext());
+            getCamelContext().addStartupListener(entityStarter);
+        }
+        entityStarter.setPool(startupPool, startupThreads);
+        // Reload QoS configs as they are tuned, for endpoints created afterwards
+        loadQosConfigs();
+        if (qosConfigFile != null && watchQosConfig)
+        {
+            qosWatcher = new DdsQosConfigWatcher(Paths.get(qosConfigFile));
+            qosWatcherPool = getCamelContext().getExecutorServiceManager().newSingleThreadExecutor(this, "DdsQosWatcher");
+            qosWatcherPool.submit(qosWatcher);
+        }
+    }
+
     @Override
     protected void doStop() throws Exception
     {
-        for (DdsEndpoint endpoint : endpointMap.values())
+        metrics.unregister();
+        if (qosWatcher != null)
+        {
+            qosWatcher.close();
+            getCamelContext().getExecutorServiceManager().shutdownNow(qosWatcherPool);
+            qosWatcher = null;
+            qosWatcherPool = null;
+        }
+        qosConfigLoaded = false;
+        if (startupPool != null)
+        {
+            entityStarter.setPool(null, 0);
+            getCamelContext().getExecutorServiceManager().shutdownNow(startupPool);
+            startupPool = null;
+        }
+        for (DdsEndpoint endpoint : endpoints)
         {
             endpoint.close();
         }
+        // Endpoints release their participants when stopped, anything left was never released
+        participantRegistry.clear();
+    }
+
+    /**
+     * @param config             Named QoS of an endpoint.
+     * @param asyncPublish       {@code true} to publish asynchronously.
+     * @param flowBytesPerPeriod Bytes each writer may send per flow period, or {@code 0} to not throttle writers.
+     * @param flowPeriodMs       Flow period in milliseconds.
+     * @return The named QoS when its publish mode is unchanged, otherwise a copy with its own name,
+     * so endpoints only share publishers with endpoints publishing the same way.
+     */
+    private static DdsQosConfig withPublishMode(DdsQosConfig config, boolean asyncPublish, int flowBytesPerPeriod, long flowPeriodMs)
+    {
+        if (!asyncPublish && flowBytesPerPeriod == 0)
+        {
+            return config;
+        }
+        if (config == null) throw new IllegalArgumentException("Asynchronous publishing requires a qos config");
+        DdsQosConfigBuilder builder;
+        if (flowBytesPerPeriod > 0)
+        {
+            builder = DdsQosConfigBuilder.create(config.getName() + "+flow=" + flowBytesPerPeriod + "/" + flowPeriodMs, config)
+                    .flowControl(flowBytesPerPeriod, flowPeriodMs);
+        } else
+        {
+            builder = DdsQosConfigBuilder.create(config.getName() + "+async", config);
+        }
+        return builder.asynchronous(true).build();
+    }
+
+    /**
+     * Load the QoS config file once, endpoints may be created before the component starts.
+     *
+     * @throws IOException When the file cannot be read.
+     */
+    private synchronized void loadQosConfigs() throws IOException
+    {
+        if (qosConfigFile != null && !qosConfigLoaded)
+        {
+            DdsQoSConfigManager.load(Paths.get(qosConfigFile));
+            qosConfigLoaded = true;
+        }
+    }
+
+    /**
+     * @return Number of threads creating the DDS entities of endpoints while the camel context starts.
+     */
+    public int getStartupThreads()
+    {
+        return startupThreads;
+    }
+
+    /**
+     * Takes effect when the component starts.
+     *
+     * @param startupThreads Number of threads creating the DDS entities of endpoints while the camel context starts,
+     *                       or {@code 1} to create them one after another on the thread starting the context.
+     */
+    public void setStartupThreads(int startupThreads)
+    {
+        if (startupThreads < 1) throw new IllegalArgumentException("Startup threads must be positive: " + startupThreads);
+        this.startupThreads = startupThreads;
+    }
+
+    /**
+     * @return Properties, YAML or XML file of QoS configs loaded when the component starts, or {@code null} for none.
+     */
+    public String getQosConfigFile()
+    {
+        return qosConfigFile;
+    }
+
+    /**
+     * Takes effect when the component starts. See {@link DdsQosConfigLoader} for the file formats.
+     * The file's configs are registered with {@link DdsQoSConfigManager}, for every component in the JVM.
+     *
+     * @param qosConfigFile Properties, YAML or XML file of QoS configs to load, or {@code null} for none.
+     */
+    public void setQosConfigFile(String qosConfigFile)
+    {
+        this.qosConfigFile = qosConfigFile;
+    }
+
+    /**
+     * @return {@code true} when the {@link #getQosConfigFile() QoS config file} is reloaded as it changes.
+     */
+    public boolean isWatchQosConfig()
+    {
+        return watchQosConfig;
+    }
+
+    /**
+     * Takes effect when the component starts.
+     *
+     * @param watchQosConfig {@code true} to reload the {@link #getQosConfigFile() QoS config file} as it changes,
+     *                       for endpoints created afterwards.
+     */
+    public void setWatchQosConfig(boolean watchQosConfig)
+    {
+        this.watchQosConfig = watchQosConfig;
+    }
+
+    /**
+     * @return Watcher reloading the QoS config file, or {@code null} when it is not being watched.
+     */
+    public DdsQosConfigWatcher getQosWatcher()
+    {
+        return qosWatcher;
+    }
+
+    /**
+     * @return Creates the DDS entities of this component's producers and consumers, available once the component has started.
+     */
+    public DdsEntityStarter getEntityStarter()
+    {
+        return entityStarter;
+    }
+
+    /**
+     * @return Throughput and health counters totalled across this component's endpoints.
+     */
+    public DdsComponentMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * @return Topic data types of this component's endpoints, by idl type name.
+     */
+    public DdsTypeRegistry getTypeRegistry()
+    {
+        return typeRegistry;
+    }
+
+    /**
+     * @return Participants shared by this component's endpoints.
+     */
+    public DdsParticipantRegistry getParticipantRegistry()
+    {
+        return participantRegistry;
+    }
+
+    /**
+     * @return Publishers and subscribers shared by this component's endpoints.
+     */
+    public DdsTopicRegistry getTopicRegistry()
+    {
+        return topicRegistry;
     }
 }
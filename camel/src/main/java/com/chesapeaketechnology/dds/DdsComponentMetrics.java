@@ -0,0 +1,62 @@
+package com.chesapeaketechnology.dds;
+
+/**
+ * Metrics for the DDS component, totalling those of every endpoint it has created. Published over JMX while the component is started.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsComponentMetrics extends DdsMetrics implements DdsComponentMetricsMBean
+{
+    private final DdsTopicRegistry topicRegistry;
+
+    /**
+     * @param topicRegistry Topics of the component.
+     */
+    public DdsComponentMetrics(DdsTopicRegistry topicRegistry)
+    {
+        super(null);
+        this.topicRegistry = topicRegistry;
+    }
+
+    @Override
+    public long getBytesRead()
+    {
+        return topicRegistry.getTopicMetrics().stream().mapToLong(DdsTopicMetrics::getBytesRead).sum();
+    }
+
+    @Override
+    public long getBytesWritten()
+    {
+        return topicRegistry.getTopicMetrics().stream().mapToLong(DdsTopicMetrics::getBytesWritten).sum();
+    }
+
+    @Override
+    public int getMatchedPublishers()
+    {
+        return topicRegistry.getTopicMetrics().stream().mapToInt(DdsTopicMetrics::getMatchedPublishers).sum();
+    }
+
+    @Override
+    public int getMatchedSubscribers()
+    {
+        return topicRegistry.getTopicMetrics().stream().mapToInt(DdsTopicMetrics::getMatchedSubscribers).sum();
+    }
+
+    @Override
+    public int getParticipantCount()
+    {
+        return topicRegistry.getParticipantRegistry().getParticipantCount();
+    }
+
+    @Override
+    public int getPublisherCount()
+    {
+        return topicRegistry.getPublisherCount();
+    }
+
+    @Override
+    public int getSubscriberCount()
+    {
+        return topicRegistry.getSubscriberCount();
+    }
+}
@@ -0,0 +1,24 @@
+package com.chesapeaketechnology.dds;
+
+/**
+ * Attributes published over JMX for the DDS component, totalled across all of its endpoints and topics.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public interface DdsComponentMetricsMBean extends DdsMetricsMBean
+{
+    /**
+     * @return Number of DDS participants in use.
+     */
+    int getParticipantCount();
+
+    /**
+     * @return Number of DDS publishers in use.
+     */
+    int getPublisherCount();
+
+    /**
+     * @return Number of DDS subscribers in use.
+     */
+    int getSubscriberCount();
+}
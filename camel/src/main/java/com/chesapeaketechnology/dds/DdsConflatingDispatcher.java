@@ -0,0 +1,258 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.Exchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Hands exchanges off from the DDS listener thread to a pool of workers, keeping only the latest exchange per instance key.
+ * When a newer sample arrives for a key that is still waiting, the older one is discarded, so bursts of updates on a hot key
+ * do not queue up behind each other. Keys are handed to workers oldest first, and a key is never processed by two workers
+ * at once, so updates to a key stay in order.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsConflatingDispatcher implements DdsDispatcher
+{
+    private static final Logger logger = LoggerFactory.getLogger(DdsConflatingDispatcher.class);
+    private final String name;
+    private final int capacity;
+    private final DdsOverflowPolicy overflowPolicy;
+    private final Function<Object, Object> keyExtractor;
+    private final Consumer<Exchange> processor;
+    private final Consumer<Exchange> discarder;
+    private final Map<Object, Exchange> pending = new LinkedHashMap<>();
+    private final Set<Object> inProgress = new HashSet<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private boolean running;
+    private boolean rejecting;
+
+    /**
+     * Create the dispatcher.
+     *
+     * @param name           Name used when logging, typically the endpoint uri.
+     * @param capacity       Maximum number of distinct keys waiting for a worker.
+     * @param overflowPolicy Behavior when a new key arrives while at capacity.
+     * @param keyExtractor   Extracts the instance key from an exchange body.
+     * @param processor      Action that processes exchanges on worker threads.
+     * @param discarder      Action invoked with exchanges that are dropped without being processed.
+     */
+    public DdsConflatingDispatcher(String name, int capacity, DdsOverflowPolicy overflowPolicy, Function<Object, Object> keyExtractor,
+                                   Consumer<Exchange> processor, Consumer<Exchange> discarder)
+    {
+        this.name = name;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.keyExtractor = keyExtractor;
+        this.processor = processor;
+        this.discarder = discarder;
+    }
+
+    @Override
+    public void start(ExecutorService executor, int workers)
+    {
+        synchronized (pending)
+        {
+            running = true;
+        }
+        for (int i = 0; i < workers; i++)
+        {
+            executor.execute(this::work);
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        Exchange[] remaining;
+        synchronized (pending)
+        {
+            running = false;
+            remaining = pending.values().toArray(new Exchange[0]);
+            pending.clear();
+            pending.notifyAll();
+        }
+        for (Exchange exchange : remaining)
+        {
+            discarder.accept(exchange);
+        }
+        if (remaining.length > 0)
+        {
+            logger.debug("Discarded {} pending exchanges for '{}' on stop", remaining.length, name);
+        }
+    }
+
+    @Override
+    public void dispatch(Exchange exchange)
+    {
+        Object key = keyExtractor.apply(exchange.getIn().getBody());
+        Exchange discarded = null;
+        LongAdder counter = null;
+        synchronized (pending)
+        {
+            if (!running)
+            {
+                discarded = exchange;
+                counter = dropped;
+            } else if (pending.containsKey(key))
+            {
+                // Replace the waiting exchange, remove first so the key moves to the back of the line
+                discarded = pending.remove(key);
+                counter = conflated;
+                pending.put(key, exchange);
+            } else if (pending.size() < capacity || makeRoom())
+            {
+                pending.put(key, exchange);
+                rejecting = false;
+            } else
+            {
+                discarded = exchange;
+                counter = overflowPolicy == DdsOverflowPolicy.REJECT ? rejected : dropped;
+                // Only warn once per run of rejections, the counter tracks the rest
+                if (overflowPolicy == DdsOverflowPolicy.REJECT && !rejecting)
+                {
+                    rejecting = true;
+                    logger.warn("Conflation map for '{}' is full, rejecting samples", name);
+                }
+            }
+            pending.notifyAll();
+        }
+        if (discarded != null)
+        {
+            counter.increment();
+            discarder.accept(discarded);
+        }
+    }
+
+    @Override
+    public long getDroppedCount()
+    {
+        return dropped.sum();
+    }
+
+    @Override
+    public long getRejectedCount()
+    {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getConflatedCount()
+    {
+        return conflated.sum();
+    }
+
+    @Override
+    public int getQueueDepth()
+    {
+        synchronized (pending)
+        {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Make room for a new key according to the overflow policy. Must hold the lock on {@link #pending}.
+     *
+     * @return {@code true} if there is room for a new key.
+     */
+    private boolean makeRoom()
+    {
+        switch (overflowPolicy)
+        {
+            case BLOCK:
+                try
+                {
+                    while (running && pending.size() >= capacity)
+                    {
+                        pending.wait();
+                    }
+                } catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                return running;
+            case DROP_OLDEST:
+                Iterator<Exchange> oldest = pending.values().iterator();
+                Exchange exchange = oldest.next();
+                oldest.remove();
+                dropped.increment();
+                discarder.accept(exchange);
+                return true;
+            case DROP_NEWEST:
+            case REJECT:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Worker loop, processes the oldest waiting key that no other worker is processing, until stopped or interrupted.
+     */
+    private void work()
+    {
+        while (true)
+        {
+            Object key = null;
+            Exchange exchange = null;
+            synchronized (pending)
+            {
+                while (running && exchange == null)
+                {
+                    for (Iterator<Map.Entry<Object, Exchange>> it = pending.entrySet().iterator(); it.hasNext(); )
+                    {
+                        Map.Entry<Object, Exchange> entry = it.next();
+                        if (inProgress.add(entry.getKey()))
+                        {
+                            key = entry.getKey();
+                            exchange = entry.getValue();
+                            it.remove();
+                            break;
+                        }
+                    }
+                    if (exchange == null)
+                    {
+                        try
+                        {
+                            pending.wait();
+                        } catch (InterruptedException ex)
+                        {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+                if (exchange == null)
+                {
+                    return;
+                }
+                // Free up space for blocked listeners
+                pending.notifyAll();
+            }
+            try
+            {
+                processor.accept(exchange);
+            } finally
+            {
+                synchronized (pending)
+                {
+                    inProgress.remove(key);
+                    pending.notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.chesapeaketechnology.dds;
 
+import com.chesapeaketechnology.dds.util.EpochClock;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.apache.camel.RuntimeCamelException;
@@ -7,9 +8,20 @@ import org.apache.camel.support.DefaultConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import us.ihmc.pubsub.common.MatchingInfo;
+import us.ihmc.pubsub.common.SampleInfo;
+import us.ihmc.pubsub.common.Time;
 import us.ihmc.pubsub.subscriber.Subscriber;
 import us.ihmc.pubsub.subscriber.SubscriberListener;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
 /**
  * Listens to incoming messages from a DDS endpoint's subscriber and passes them along to Camel.
  *
@@ -18,8 +30,18 @@ import us.ihmc.pubsub.subscriber.SubscriberListener;
 @SuppressWarnings("rawtypes")
 public class DdsConsumer extends DefaultConsumer implements SubscriberListener
 {
+    /**
+     * Exchange property set on exchanges whose samples are shared with other consumers of the same topic.
+     */
+    public static final String PROPERTY_SHARED = "DdsShared";
     private static final Logger logger = LoggerFactory.getLogger(DdsConsumer.class);
+    private static final long LINGER_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
     protected final DdsEndpoint endpoint;
+    protected final DdsConsumerConfiguration configuration;
+    private final SampleInfo sampleInfo = new SampleInfo();
+    private volatile DdsDispatcher dispatcher;
+    private ExecutorService workerPool;
+    private Future<?> pendingSubscribe;
 
     /**
      * Create the camel consumer.
@@ -31,38 +53,262 @@ public class DdsConsumer extends DefaultConsumer implements SubscriberListener
     {
         super(endpoint, processor);
         this.endpoint = endpoint;
+        this.configuration = endpoint.getConsumerConfiguration();
     }
 
     /**
      * Handle received idl type.
      *
      * @param data Received object.
+     * @param info Information about the received object, which the exchange's message holds on to for its headers.
      */
-    protected void onReceive(Object data)
+    protected void onReceive(Object data, SampleInfo info)
     {
+        // Guarded so the hot path does not build log arguments for disabled levels
+        if (logger.isTraceEnabled())
+        {
+            logger.trace("Processing for endpoint: '{}' - Value: {}", endpoint.getEndpointUri(), data);
+        }
+        recordLatency(info);
+        endpoint.getMetrics().addSamplesIn(1);
         Exchange exchange = endpoint.toExchange(data);
+        ((DdsMessage) exchange.getIn()).setSampleInfo(info);
+        dispatch(exchange);
+    }
+
+    /**
+     * Record the time from a sample being written to it being received in the endpoint's latency histogram.
+     *
+     * @param info Information about the received sample.
+     */
+    private void recordLatency(SampleInfo info)
+    {
+        Time source = info.getSourceTimestamp();
+        // Writers that do not set a timestamp leave it zeroed
+        if (source != null && (source.getSeconds() != 0 || source.getNanoseconds() != 0))
+        {
+            long sourceNanos = TimeUnit.SECONDS.toNanos(source.getSeconds()) + source.getNanoseconds();
+            endpoint.getLatencyHistogram().record(EpochClock.nanos() - sourceNanos);
+        }
+    }
+
+    /**
+     * Drain the subscriber, passing along samples in batches of up to the endpoint's {@link DdsConsumerConfiguration#getBatchSize() batch size}.
+     * When the subscriber runs dry part way through a batch, waits up to the endpoint's
+     * {@link DdsConsumerConfiguration#getBatchLingerMs() linger time} for more samples before sending what it has.
+     *
+     * @param subscriber Subscriber to take samples from.
+     */
+    protected void onReceiveBatch(Subscriber subscriber)
+    {
+        int batchSize = configuration.getBatchSize();
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getBatchLingerMs());
+        boolean drained = false;
+        while (!drained)
+        {
+            List<Object> batch = new ArrayList<>(batchSize);
+            long deadline = System.nanoTime() + lingerNanos;
+            while (batch.size() < batchSize)
+            {
+                Object data = takeNextData(subscriber, sampleInfo);
+                if (data != null)
+                {
+                    recordLatency(sampleInfo);
+                    batch.add(data);
+                } else if (!batch.isEmpty() && System.nanoTime() - deadline < 0)
+                {
+                    LockSupport.parkNanos(LINGER_POLL_NANOS);
+                } else
+                {
+                    drained = true;
+                    break;
+                }
+            }
+            if (batch.isEmpty())
+            {
+                return;
+            }
+            if (logger.isTraceEnabled())
+            {
+                logger.trace("Processing batch for endpoint: '{}' - Size: {}", endpoint.getEndpointUri(), batch.size());
+            }
+            endpoint.getMetrics().addSamplesIn(batch.size());
+            Exchange exchange = endpoint.toExchange(batch);
+            exchange.getIn().setHeader(Exchange.BATCH_SIZE, batch.size());
+            exchange.getIn().setHeader(Exchange.BATCH_COMPLETE, drained);
+            dispatch(exchange);
+        }
+    }
+
+    /**
+     * Handle samples that were taken once for all consumers of a shared subscriber.
+     * Samples are delivered in batches when the endpoint is batching, without waiting for more samples.
+     * In {@link DdsFanoutMode#SHARED shared} mode exchanges are marked with {@link #PROPERTY_SHARED},
+     * since other consumers hold the same sample instances. In {@link DdsFanoutMode#COPY copy} mode each sample is copied first.
+     *
+     * @param samples Received objects.
+     * @param infos   Information about each received object, in the same order.
+     */
+    public void onReceiveShared(List<Object> samples, List<SampleInfo> infos)
+    {
+        for (SampleInfo info : infos)
+        {
+            recordLatency(info);
+        }
+        endpoint.getMetrics().addSamplesIn(samples.size());
+        boolean copy = configuration.getFanoutMode() == DdsFanoutMode.COPY;
+        int batchSize = configuration.getBatchSize();
+        for (int start = 0; start < samples.size(); start += batchSize)
+        {
+            int end = Math.min(start + batchSize, samples.size());
+            Exchange exchange;
+            if (configuration.isBatching())
+            {
+                List<Object> batch = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++)
+                {
+                    batch.add(copy ? copySample(samples.get(i)) : samples.get(i));
+                }
+                exchange = endpoint.toExchange(batch);
+                exchange.getIn().setHeader(Exchange.BATCH_SIZE, batch.size());
+                exchange.getIn().setHeader(Exchange.BATCH_COMPLETE, end == samples.size());
+            } else
+            {
+                exchange = endpoint.toExchange(copy ? copySample(samples.get(start)) : samples.get(start));
+                ((DdsMessage) exchange.getIn()).setSampleInfo(infos.get(start));
+            }
+            if (!copy)
+            {
+                exchange.setProperty(PROPERTY_SHARED, Boolean.TRUE);
+            }
+            dispatch(exchange);
+        }
+    }
+
+    /**
+     * Copy a sample shared with other consumers, so this consumer's routes can modify it.
+     *
+     * @param data Shared sample.
+     * @return Copy of the sample.
+     */
+    protected Object copySample(Object data)
+    {
+        return endpoint.getSampleCopier().copy(data);
+    }
+
+    /**
+     * Take the next available sample from the subscriber.
+     *
+     * @param subscriber Subscriber to take a sample from.
+     * @param info       Filled with information about the taken sample.
+     * @return Received object, or {@code null} if no sample was available.
+     */
+    @SuppressWarnings("unchecked")
+    protected Object takeNextData(Subscriber subscriber, SampleInfo info)
+    {
+        Object data = endpoint.createSample();
+        return subscriber.takeNextData(data, info) ? data : null;
+    }
+
+    /**
+     * Send an exchange through the consumer's processor, handing it off to the worker pool when the endpoint is asynchronous.
+     *
+     * @param exchange Exchange to process.
+     */
+    protected void dispatch(Exchange exchange)
+    {
+        if (dispatcher != null)
+        {
+            dispatcher.dispatch(exchange);
+        } else
+        {
+            process(exchange);
+        }
+    }
+
+    /**
+     * Called with exchanges that were dropped by the hand-off queue without being processed.
+     *
+     * @param exchange Dropped exchange.
+     */
+    protected void discard(Exchange exchange)
+    {
+        logger.trace("Dropped exchange for endpoint: '{}'", endpoint.getEndpointUri());
+        endpoint.getMetrics().addDropped();
+        onComplete(exchange);
+        endpoint.releaseExchange(exchange);
+    }
+
+    /**
+     * Called with exchanges created by this consumer that were dropped without being routed.
+     * Exchanges that are routed are only done once their unit of work is, see {@link #beforeProcess(Exchange)}.
+     *
+     * @param exchange Dropped exchange.
+     */
+    protected void onComplete(Exchange exchange)
+    {
+        // Nothing to clean up by default
+    }
+
+    /**
+     * Called before an exchange created by this consumer is routed. Routes may hand the exchange's body on to other threads,
+     * such as through a {@code seda} endpoint, so anything the body still needs must be released by a
+     * {@link org.apache.camel.spi.Synchronization} added to the exchange here, not once routing returns.
+     *
+     * @param exchange Exchange about to be routed.
+     */
+    protected void beforeProcess(Exchange exchange)
+    {
+        // Nothing to track by default
+    }
+
+    /**
+     * Send an exchange through the consumer's processor on the current thread.
+     *
+     * @param exchange Exchange to process.
+     */
+    private void process(Exchange exchange)
+    {
+        long start = System.nanoTime();
+        boolean failed = true;
         try
         {
-            logger.trace("Processing for endpoint: '{}' - Value: {}",
-                    endpoint.getEndpointUri(), data.toString());
+            beforeProcess(exchange);
             getProcessor().process(exchange);
             if (exchange.isFailed() && exchange.getException() != null)
             {
                 throw new RuntimeCamelException(exchange.getException());
             }
+            failed = false;
         } catch (Exception ex)
         {
             logger.error("Error in processing DDS message", ex);
+        } finally
+        {
+            endpoint.getMetrics().addProcessed(System.nanoTime() - start, failed);
+            endpoint.releaseExchange(exchange);
         }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void onNewDataMessage(Subscriber subscriber)
     {
-        logger.debug("Receive new data message for endpoint '{}': Guid={}",
-                endpoint.getEndpointUri(), subscriber.getGuid());
-        onReceive(subscriber.takeNextData());
+        if (logger.isDebugEnabled())
+        {
+            logger.debug("Receive new data message for endpoint '{}': Guid={}", endpoint.getEndpointUri(), subscriber.getGuid());
+        }
+        if (configuration.isBatching())
+        {
+            onReceiveBatch(subscriber);
+            return;
+        }
+        // Exchanges processed on this thread are done with the sample info before the next sample is taken
+        SampleInfo info = configuration.isDispatching() ? new SampleInfo() : sampleInfo;
+        Object data = takeNextData(subscriber, info);
+        if (data != null)
+        {
+            onReceive(data, info);
+        }
     }
 
     @Override
@@ -81,7 +327,105 @@ public class DdsConsumer extends DefaultConsumer implements SubscriberListener
         {
             endpoint.start();
         }
-        // Register this consumer as a subscriber listener
-        endpoint.getSubscriber(this);
+        // Setup the worker pool before any samples can arrive
+        if (configuration.isDispatching())
+        {
+            dispatcher = createDispatcher();
+            workerPool = endpoint.getCamelContext().getExecutorServiceManager()
+                    .newFixedThreadPool(this, "DdsConsumer[" + endpoint.getEndpointUri() + "]", configuration.getWorkerCount());
+            dispatcher.start(workerPool, configuration.getWorkerCount());
+        }
+        // Register this consumer as a subscriber listener, alongside other endpoints while the context starts
+        pendingSubscribe = endpoint.getEntityStarter().start("consumer " + endpoint.getEndpointUri(), () -> endpoint.getSubscriber(this));
+    }
+
+    /**
+     * @return Dispatcher handing samples off to worker threads, as configured for the endpoint.
+     */
+    private DdsDispatcher createDispatcher()
+    {
+        String name = endpoint.getEndpointUri();
+        if (!configuration.isConflate() && !configuration.isPartitioned())
+        {
+            return new DdsAsyncDispatcher(name, configuration.getQueueSize(), configuration.getOverflowPolicy(), this::process, this::discard);
+        }
+        if (configuration.isBatching())
+        {
+            throw new IllegalStateException("Endpoint '" + name + "' cannot key batches, instance keys belong to single samples");
+        }
+        if (configuration.isConflate() && configuration.isPartitioned())
+        {
+            throw new IllegalStateException("Endpoint '" + name + "' cannot both conflate and partition samples");
+        }
+        if (configuration.getKeyFields() == null)
+        {
+            throw new IllegalStateException("Endpoint '" + name + "' needs key fields to "
+                    + (configuration.isPartitioned() ? "partition" : "conflate") + " samples");
+        }
+        if (configuration.isPartitioned())
+        {
+            return new DdsPartitionedDispatcher(name, configuration.getPartitions(), configuration.getQueueSize(),
+                    configuration.getOverflowPolicy(), createKeyExtractor(), this::process, this::discard);
+        }
+        return new DdsConflatingDispatcher(name, configuration.getQueueSize(), configuration.getOverflowPolicy(), createKeyExtractor(),
+                this::process, this::discard);
+    }
+
+    /**
+     * @return Function extracting the instance key from a sample.
+     */
+    private Function<Object, Object> createKeyExtractor()
+    {
+        return new DdsKeyExtractor(endpoint.getMessageClass(), configuration.getKeyFields())::extract;
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        super.doStop();
+        // Let a subscriber still being created finish, so it can be released. Missing when the consumer failed to start
+        if (pendingSubscribe != null)
+        {
+            try
+            {
+                pendingSubscribe.get();
+            } catch (ExecutionException ex)
+            {
+                logger.debug("Subscriber of stopped consumer failed to start: " + endpoint.getEndpointUri(), ex.getCause());
+            }
+            pendingSubscribe = null;
+        }
+        endpoint.releaseSubscriber(this);
+        // The stopped dispatcher stays in place so late samples are counted as dropped
+        if (workerPool != null)
+        {
+            dispatcher.stop();
+            endpoint.getCamelContext().getExecutorServiceManager().shutdownNow(workerPool);
+            workerPool = null;
+        }
+    }
+
+    /**
+     * @return Number of samples dropped by the hand-off queue. Always {@code 0} for synchronous endpoints.
+     */
+    public long getDroppedCount()
+    {
+        return dispatcher == null ? 0 : dispatcher.getDroppedCount();
+    }
+
+    /**
+     * @return Number of samples rejected by the hand-off queue. Always {@code 0} for synchronous endpoints.
+     */
+    public long getRejectedCount()
+    {
+        return dispatcher == null ? 0 : dispatcher.getRejectedCount();
+    }
+
+    /**
+     * @return Number of samples replaced by a newer sample with the same key. Always {@code 0} unless conflating.
+     */
+    public long getConflatedCount()
+    {
+        return dispatcher == null ? 0 : dispatcher.getConflatedCount();
     }
 }
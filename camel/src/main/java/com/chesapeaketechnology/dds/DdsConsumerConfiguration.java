@@ -0,0 +1,310 @@
+package com.chesapeaketechnology.dds;
+
+/**
+ * Options controlling how consumers of a {@link DdsEndpoint} take samples and deliver them to routes.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsConsumerConfiguration
+{
+    private boolean pooling;
+    private int poolSize;
+    private int batchSize = 1;
+    private long batchLingerMs;
+    private boolean async;
+    private int queueSize = 1024;
+    private int workers = 1;
+    private DdsOverflowPolicy overflowPolicy = DdsOverflowPolicy.BLOCK;
+    private boolean pooledExchanges;
+    private int exchangePoolSize;
+    private DdsFanoutMode fanoutMode = DdsFanoutMode.COPY;
+    private boolean conflate;
+    private String keyFields;
+    private int partitions = 1;
+
+    /**
+     * @return Maximum number of samples delivered in a single exchange.
+     */
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize Maximum number of samples delivered in a single exchange.
+     *                  Values greater than {@code 1} deliver exchanges with a {@link java.util.List} body.
+     */
+    public void setBatchSize(int batchSize)
+    {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return Time in milliseconds to wait for more samples before sending a partial batch.
+     */
+    public long getBatchLingerMs()
+    {
+        return batchLingerMs;
+    }
+
+    /**
+     * @param batchLingerMs Time in milliseconds to wait for more samples before sending a partial batch.
+     */
+    public void setBatchLingerMs(long batchLingerMs)
+    {
+        if (batchLingerMs < 0) throw new IllegalArgumentException("Batch linger cannot be negative: " + batchLingerMs);
+        this.batchLingerMs = batchLingerMs;
+    }
+
+    /**
+     * @return Number of exchanges a consumer can have queued or processing at once.
+     */
+    public int getInFlightLimit()
+    {
+        // Enough for every queued exchange, plus one in flight per worker or listener
+        if (isPartitioned())
+        {
+            return partitions * (queueSize + 1) + 1;
+        }
+        return isDispatching() ? queueSize + workers + 1 : 1;
+    }
+
+    /**
+     * @return {@code true} when consumers deliver samples in batches.
+     */
+    public boolean isBatching()
+    {
+        return batchSize > 1;
+    }
+
+    /**
+     * @return {@code true} when consumers hand samples off to a worker pool instead of processing them on the DDS listener thread.
+     */
+    public boolean isAsync()
+    {
+        return async;
+    }
+
+    /**
+     * @param async {@code true} when consumers hand samples off to a worker pool instead of processing them on the DDS listener thread.
+     */
+    public void setAsync(boolean async)
+    {
+        this.async = async;
+    }
+
+    /**
+     * @return Capacity of the hand-off queue used by asynchronous consumers.
+     */
+    public int getQueueSize()
+    {
+        return queueSize;
+    }
+
+    /**
+     * @param queueSize Capacity of the hand-off queue used by asynchronous consumers.
+     */
+    public void setQueueSize(int queueSize)
+    {
+        if (queueSize < 1) throw new IllegalArgumentException("Queue size must be positive: " + queueSize);
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * @return Number of worker threads used by asynchronous consumers.
+     */
+    public int getWorkers()
+    {
+        return workers;
+    }
+
+    /**
+     * @param workers Number of worker threads used by asynchronous consumers.
+     */
+    public void setWorkers(int workers)
+    {
+        if (workers < 1) throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        this.workers = workers;
+    }
+
+    /**
+     * @return Behavior of asynchronous consumers when their hand-off queue is full.
+     */
+    public DdsOverflowPolicy getOverflowPolicy()
+    {
+        return overflowPolicy;
+    }
+
+    /**
+     * @param overflowPolicy Behavior of asynchronous consumers when their hand-off queue is full.
+     */
+    public void setOverflowPolicy(DdsOverflowPolicy overflowPolicy)
+    {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * @return {@code true} when exchanges given to the consumer are recycled once they complete.
+     */
+    public boolean isPooledExchanges()
+    {
+        return pooledExchanges;
+    }
+
+    /**
+     * @param pooledExchanges {@code true} when exchanges given to the consumer are recycled once they complete.
+     */
+    public void setPooledExchanges(boolean pooledExchanges)
+    {
+        this.pooledExchanges = pooledExchanges;
+    }
+
+    /**
+     * @return Maximum number of idle exchanges kept for reuse, or {@code 0} to size the pool from the consumer mode.
+     */
+    public int getExchangePoolSize()
+    {
+        return exchangePoolSize;
+    }
+
+    /**
+     * @param exchangePoolSize Maximum number of idle exchanges kept for reuse, or {@code 0} to size the pool from the consumer mode.
+     */
+    public void setExchangePoolSize(int exchangePoolSize)
+    {
+        if (exchangePoolSize < 0) throw new IllegalArgumentException("Exchange pool size cannot be negative: " + exchangePoolSize);
+        this.exchangePoolSize = exchangePoolSize;
+    }
+
+    /**
+     * @return {@code true} when consumers borrow message structures from a pool, returning them once the exchange completes.
+     */
+    public boolean isPooling()
+    {
+        return pooling;
+    }
+
+    /**
+     * @param pooling {@code true} when consumers borrow message structures from a pool, returning them once the exchange completes.
+     */
+    public void setPooling(boolean pooling)
+    {
+        this.pooling = pooling;
+    }
+
+    /**
+     * @return Maximum number of idle message structures kept by pooling consumers,
+     * or {@code 0} to size the pool from the consumer mode.
+     */
+    public int getPoolSize()
+    {
+        return poolSize;
+    }
+
+    /**
+     * @param poolSize Maximum number of idle message structures kept by pooling consumers,
+     *                 or {@code 0} to size the pool from the consumer mode.
+     */
+    public void setPoolSize(int poolSize)
+    {
+        if (poolSize < 0) throw new IllegalArgumentException("Pool size cannot be negative: " + poolSize);
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * @return How consumers receive samples when they share a DDS subscriber with other consumers.
+     */
+    public DdsFanoutMode getFanoutMode()
+    {
+        return fanoutMode;
+    }
+
+    /**
+     * @param fanoutMode How consumers receive samples when they share a DDS subscriber with other consumers.
+     *                   Defaults to {@link DdsFanoutMode#COPY}, sharing instances must be opted in to.
+     */
+    public void setFanoutMode(DdsFanoutMode fanoutMode)
+    {
+        this.fanoutMode = fanoutMode;
+    }
+
+    /**
+     * @return {@code true} when consumers only keep the latest waiting sample per instance key.
+     */
+    public boolean isConflate()
+    {
+        return conflate;
+    }
+
+    /**
+     * @param conflate {@code true} when consumers only keep the latest waiting sample per instance key.
+     *                 Conflating consumers hand samples off to a worker pool, holding up to {@link #getQueueSize() queue size} keys.
+     */
+    public void setConflate(boolean conflate)
+    {
+        this.conflate = conflate;
+    }
+
+    /**
+     * @return Comma separated names of the fields making up a sample's instance key,
+     * or {@code null} to treat every sample as the same instance.
+     */
+    public String getKeyFields()
+    {
+        return keyFields;
+    }
+
+    /**
+     * @param keyFields Comma separated names of the fields making up a sample's instance key,
+     *                  or {@code null} to treat every sample as the same instance.
+     */
+    public void setKeyFields(String keyFields)
+    {
+        this.keyFields = keyFields;
+    }
+
+    /**
+     * @return Number of single threaded lanes samples are partitioned across by instance key.
+     */
+    public int getPartitions()
+    {
+        return partitions;
+    }
+
+    /**
+     * @param partitions Number of single threaded lanes samples are partitioned across by instance key.
+     *                   Values greater than {@code 1} hand samples off to the lanes, each with a hand-off queue of
+     *                   {@link #getQueueSize() queue size}. Requires {@link #getKeyFields() key fields}.
+     */
+    public void setPartitions(int partitions)
+    {
+        if (partitions < 1) throw new IllegalArgumentException("Partition count must be positive: " + partitions);
+        this.partitions = partitions;
+    }
+
+    /**
+     * @return {@code true} when consumers partition samples across lanes by instance key.
+     */
+    public boolean isPartitioned()
+    {
+        return partitions > 1;
+    }
+
+    /**
+     * @return Number of worker threads consumers process samples on, one per lane when partitioned.
+     */
+    public int getWorkerCount()
+    {
+        return isPartitioned() ? partitions : workers;
+    }
+
+    /**
+     * @return {@code true} when consumers hand samples off to worker threads, either {@link #isAsync() asynchronously},
+     * {@link #isConflate() conflated} or {@link #isPartitioned() partitioned}.
+     */
+    public boolean isDispatching()
+    {
+        return async || conflate || isPartitioned();
+    }
+}
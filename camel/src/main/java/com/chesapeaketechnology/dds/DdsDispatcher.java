@@ -0,0 +1,57 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.Exchange;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Hands exchanges off from the DDS listener thread to worker threads, which process them.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public interface DdsDispatcher
+{
+    /**
+     * Start worker tasks on the given executor.
+     *
+     * @param executor Executor to run workers on.
+     * @param workers  Number of workers to run.
+     */
+    void start(ExecutorService executor, int workers);
+
+    /**
+     * Stop accepting exchanges and discard any that have not yet been picked up by a worker.
+     * The executor passed to {@link #start(ExecutorService, int)} should be shut down afterwards to release the workers.
+     */
+    void stop();
+
+    /**
+     * Queue an exchange for processing.
+     *
+     * @param exchange Exchange to process.
+     */
+    void dispatch(Exchange exchange);
+
+    /**
+     * @return Number of exchanges dropped without being processed because the dispatcher was full or stopped.
+     */
+    long getDroppedCount();
+
+    /**
+     * @return Number of exchanges rejected because the dispatcher was full.
+     */
+    long getRejectedCount();
+
+    /**
+     * @return Number of exchanges replaced by a newer exchange before being processed.
+     */
+    default long getConflatedCount()
+    {
+        return 0;
+    }
+
+    /**
+     * @return Number of exchanges waiting for a worker.
+     */
+    int getQueueDepth();
+}
@@ -1,5 +1,7 @@
 package com.chesapeaketechnology.dds;
 
+import com.chesapeaketechnology.dds.util.LatencyHistogram;
+import com.chesapeaketechnology.dds.util.SampleCopier;
 import org.apache.camel.Consumer;
 import org.apache.camel.Exchange;
 import org.apache.camel.ExchangePattern;
@@ -9,17 +11,14 @@ import org.apache.camel.spi.UriEndpoint;
 import org.apache.camel.support.DefaultEndpoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import us.ihmc.pubsub.Domain;
-import us.ihmc.pubsub.DomainFactory;
 import us.ihmc.pubsub.TopicDataType;
-import us.ihmc.pubsub.attributes.ParticipantAttributes;
-import us.ihmc.pubsub.attributes.PublisherAttributes;
-import us.ihmc.pubsub.attributes.SubscriberAttributes;
-import us.ihmc.pubsub.participant.Participant;
+import us.ihmc.pubsub.attributes.MemoryManagementPolicy;
 import us.ihmc.pubsub.publisher.Publisher;
 import us.ihmc.pubsub.subscriber.Subscriber;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Send and receive messages to/from DDS using topics and quality-of-service filtering.
@@ -30,18 +29,28 @@ import java.io.IOException;
 @UriEndpoint(scheme = DdsCamelComponent.SCHEME, syntax = "dds:topic:domain/content_class_name", title = "DDS-IHMC", label = "DDS")
 public class DdsEndpoint extends DefaultEndpoint
 {
-    private static final Domain DOMAIN = DomainFactory.getDomain(DomainFactory.PubSubImplementation.FAST_RTPS);
     private static final Logger logger = LoggerFactory.getLogger(DdsConsumer.class);
     private final String topicName;
     private final String messageType;
     private final int domainId;
     private final TopicDataType topicDataType;
     private final DdsQosConfigurator configurator;
+    private final DdsQosConfig qosConfig;
+    private final DdsTopicRegistry topicRegistry;
 
     private final boolean reuse;
-    private Participant participant;
+    private final DdsConsumerConfiguration consumerConfiguration = new DdsConsumerConfiguration();
+    private final DdsProducerConfiguration producerConfiguration = new DdsProducerConfiguration();
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private final DdsEndpointMetrics metrics;
+    private volatile DdsExchangePool exchangePool;
+    private volatile SampleCopier sampleCopier;
+    private volatile DdsSampleDecoder sampleDecoder;
+    private boolean lazy;
+    private String participantProfile;
+    private DdsTopicKey topicKey;
     private Publisher publisher;
-    private Subscriber subscriber;
+    private final Set<DdsConsumer> subscribed = new HashSet<>();
 
     /**
      * Create a DDS endpoint.
@@ -65,6 +74,9 @@ public class DdsEndpoint extends DefaultEndpoint
         this.topicDataType = topicDataType;
         this.reuse = reuse;
         configurator = new DdsQosConfigurator(config);
+        qosConfig = config;
+        topicRegistry = component.getTopicRegistry();
+        metrics = new DdsEndpointMetrics(this, component.getMetrics());
     }
 
     @Override
@@ -79,92 +91,345 @@ public class DdsEndpoint extends DefaultEndpoint
     {
         logger.trace("Create new consumer for endpoint: {}", getEndpointUri());
         // Determine consumer impl based on if we want to re-use message structures.
-        if (reuse)
+        // Batches hold many samples at once and workers process them concurrently, so they cannot share a single instance.
+        if (consumerConfiguration.isPooling())
         {
-            return new DdsReusingConsumer(this, processor);
-        } else
+            return new DdsPoolingConsumer(this, processor);
+        } else if (reuse && (consumerConfiguration.isBatching() || consumerConfiguration.isDispatching()))
+        {
+            logger.warn("Endpoint '{}' is batching or asynchronous, message reuse will be ignored", getEndpointUri());
+        } else if (reuse)
         {
-            return new DdsConsumer(this, processor);
+            return new DdsReusingConsumer(this, processor);
         }
+        return new DdsConsumer(this, processor);
+    }
+
+    /**
+     * @return Creates the DDS entities of this endpoint's producers and consumers.
+     */
+    public DdsEntityStarter getEntityStarter()
+    {
+        return ((DdsCamelComponent) getComponent()).getEntityStarter();
     }
 
     /**
      * Get <i>(or create if necessary)</i> the DDS publisher, used for sending data.
+     * The publisher is shared with other endpoints that have the same {@link #getTopicKey() topic key}.
      *
      * @return DDS publisher.
-     * @throws IOException When the participant cannot be created.
+     * @throws IOException When the publisher or its participant cannot be created.
      */
-    public Publisher getPublisher() throws IOException
+    public synchronized Publisher getPublisher() throws IOException
     {
         if (publisher == null)
         {
-            Participant participant = getParticipant();
-            PublisherAttributes publisherAttributes =
-                    DOMAIN.createPublisherAttributes(participant, topicDataType, topicName, configurator.getReliability());
-            configurator.configurePublisher(publisherAttributes);
-            publisher = DOMAIN.createPublisher(participant, publisherAttributes);
+            publisher = topicRegistry.acquirePublisher(getTopicKey(), topicDataType, configurator);
         }
         return publisher;
     }
 
     /**
      * Get <i>(or create if necessary)</i> the DDS subsciber, used for listening for incoming data.
+     * The subscriber is shared with other endpoints that have the same {@link #getTopicKey() topic key}.
      *
-     * @param consumer Consumer to use as a subscriber listener.
+     * @param consumer Consumer to deliver received data to.
      * @return DDS subscriber.
-     * @throws IOException When the participant cannot be created.
+     * @throws IOException When the subscriber or its participant cannot be created.
      */
-    public Subscriber getSubscriber(DdsConsumer consumer) throws IOException
+    public synchronized Subscriber getSubscriber(DdsConsumer consumer) throws IOException
     {
-        if (subscriber == null)
+        // Only hold one reference per consumer
+        if (subscribed.contains(consumer))
         {
-            Participant participant = getParticipant();
-            SubscriberAttributes subscriberAttributes =
-                    DOMAIN.createSubscriberAttributes(participant, topicDataType, topicName, configurator.getReliability());
-            configurator.configureSubscriber(subscriberAttributes);
-            subscriber = DOMAIN.createSubscriber(participant, subscriberAttributes, consumer);
+            return topicRegistry.getSubscriber(getTopicKey());
         }
+        Subscriber subscriber = topicRegistry.subscribe(getTopicKey(), topicDataType, configurator, consumer);
+        subscribed.add(consumer);
         return subscriber;
     }
 
     /**
-     * @return Participant for this endpoint.
-     * @throws IOException When the participant cannot be created.
+     * Stop delivering received data to a consumer. Does nothing if the consumer is not subscribed.
+     *
+     * @param consumer Consumer previously given to {@link #getSubscriber(DdsConsumer)}.
      */
-    private Participant getParticipant() throws IOException
+    public synchronized void releaseSubscriber(DdsConsumer consumer)
     {
-        if (participant == null)
+        if (subscribed.remove(consumer))
         {
-            logger.trace("Creating participant for endpoint: {}", getEndpointUri());
-            ParticipantAttributes attributes = DOMAIN.createParticipantAttributes(domainId, topicName);
-            participant = DOMAIN.createParticipant(attributes);
-            logger.trace(" - Participant created: {}", participant.getGuid());
+            topicRegistry.unsubscribe(getTopicKey(), consumer);
         }
-        return participant;
+    }
+
+    /**
+     * @return Key identifying the topic, domain, participant profile, type and quality of service of this endpoint.
+     */
+    public synchronized DdsTopicKey getTopicKey()
+    {
+        if (topicKey == null)
+        {
+            topicKey = new DdsTopicKey(topicName, domainId, participantProfile, messageType, qosConfig, isRaw());
+        }
+        return topicKey;
     }
 
     @Override
-    protected void doStop() throws Exception
+    protected void doStart() throws Exception
+    {
+        super.doStart();
+        metrics.register("endpoint", getCamelContext().getName(), getEndpointUri());
+    }
+
+    @Override
+    protected synchronized void doStop() throws Exception
     {
         super.doStop();
-        // Removes our participant
-        logger.trace("Stopping endpoint({}). Removing participant({}) from domain.", getEndpointUri(), getParticipant().getGuid());
-        DOMAIN.removeParticipant(getParticipant());
+        metrics.unregister();
+        // Release our references, the shared publisher, subscriber and participant are only removed once unused
+        logger.trace("Stopping endpoint({}). Releasing topic({}).", getEndpointUri(), getTopicKey());
+        if (publisher != null)
+        {
+            publisher = null;
+            topicRegistry.releasePublisher(getTopicKey());
+        }
+        for (DdsConsumer consumer : subscribed)
+        {
+            topicRegistry.unsubscribe(getTopicKey(), consumer);
+        }
+        subscribed.clear();
     }
 
     /**
      * Convert some object into a Camel {@link Exchange} by wrapping it, then setting the body contents.
+     * When {@link DdsConsumerConfiguration#isPooledExchanges() exchange pooling} is enabled the exchange is taken from the endpoint's pool,
+     * and should be given back with {@link #releaseExchange(Exchange)} once it has completed.
      *
      * @param object Some object to convert.
      * @return Exchange of object.
      */
     public Exchange toExchange(Object object)
     {
+        if (consumerConfiguration.isPooledExchanges())
+        {
+            return getExchangePool().acquire(object);
+        }
         Exchange exchange = createExchange(ExchangePattern.InOnly);
-        exchange.setIn(new DdsMessage(exchange, object));
+        exchange.setIn(new DdsMessage(exchange, object, getSampleDecoder()));
         return exchange;
     }
 
+    /**
+     * Return a completed exchange given by {@link #toExchange(Object)} to the endpoint's pool.
+     * Does nothing when exchange pooling is not enabled.
+     *
+     * @param exchange Completed exchange.
+     */
+    public void releaseExchange(Exchange exchange)
+    {
+        if (consumerConfiguration.isPooledExchanges())
+        {
+            getExchangePool().release(exchange);
+        }
+    }
+
+    /**
+     * @return Pool of exchanges for this endpoint, created on first use.
+     */
+    public DdsExchangePool getExchangePool()
+    {
+        if (exchangePool == null)
+        {
+            synchronized (this)
+            {
+                if (exchangePool == null)
+                {
+                    int exchangePoolSize = consumerConfiguration.getExchangePoolSize();
+                    int capacity = exchangePoolSize > 0 ? exchangePoolSize : consumerConfiguration.getInFlightLimit();
+                    exchangePool = new DdsExchangePool(this, capacity);
+                }
+            }
+        }
+        return exchangePool;
+    }
+
+    /**
+     * @return Copier for samples of this endpoint's data type, created on first use.
+     */
+    public SampleCopier getSampleCopier()
+    {
+        if (sampleCopier == null)
+        {
+            synchronized (this)
+            {
+                if (sampleCopier == null)
+                {
+                    sampleCopier = new SampleCopier(topicDataType);
+                }
+            }
+        }
+        return sampleCopier;
+    }
+
+    /**
+     * @return Decoder for samples received by this endpoint, created on first use. {@code null} unless {@link #isLazy() lazy}.
+     */
+    public DdsSampleDecoder getSampleDecoder()
+    {
+        if (!lazy)
+        {
+            return null;
+        }
+        if (sampleDecoder == null)
+        {
+            synchronized (this)
+            {
+                if (sampleDecoder == null)
+                {
+                    sampleDecoder = new DdsSampleDecoder(((DdsRawTopicDataType) topicDataType).getType());
+                }
+            }
+        }
+        return sampleDecoder;
+    }
+
+    /**
+     * @return {@code true} when samples are received as serialized bytes and only deserialized once their body is read.
+     */
+    public boolean isLazy()
+    {
+        return lazy;
+    }
+
+    /**
+     * @param lazy {@code true} to receive samples as serialized bytes and only deserialize them once their body is read.
+     *             Requires the endpoint's type to be a {@link DdsRawTopicDataType}.
+     */
+    public void setLazy(boolean lazy)
+    {
+        if (lazy && !isRaw()) throw new IllegalArgumentException("Lazy endpoints must read serialized bytes: " + getEndpointUri());
+        this.lazy = lazy;
+    }
+
+    /**
+     * @return New instance of this endpoint's sample type, for consumers to take samples into.
+     */
+    public Object createSample()
+    {
+        return topicDataType.createData();
+    }
+
+    /**
+     * @return {@code true} when samples are read and written as serialized bytes, see {@link DdsRawTopicDataType}.
+     */
+    public boolean isRaw()
+    {
+        return topicDataType instanceof DdsRawTopicDataType;
+    }
+
+    /**
+     * @return Type of this endpoint's samples.
+     */
+    public Class<?> getMessageClass()
+    {
+        // Lazy samples are decoded before routes see them
+        TopicDataType type = lazy ? ((DdsRawTopicDataType) topicDataType).getType() : topicDataType;
+        return type.createData().getClass();
+    }
+
+    /**
+     * @return Time from samples being written, by their source timestamp, to consumers of this endpoint receiving them.
+     */
+    public LatencyHistogram getLatencyHistogram()
+    {
+        return latencyHistogram;
+    }
+
+    /**
+     * @return Throughput and health counters of this endpoint.
+     */
+    public DdsEndpointMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * @return Counters of this endpoint's topic, shared with other endpoints using the same {@link #getTopicKey() topic key}.
+     */
+    public DdsTopicMetrics getTopicMetrics()
+    {
+        return topicRegistry.getTopicMetrics(getTopicKey());
+    }
+
+    /**
+     * @return Options for consumers of this endpoint.
+     */
+    public DdsConsumerConfiguration getConsumerConfiguration()
+    {
+        return consumerConfiguration;
+    }
+
+    /**
+     * @return Options for producers of this endpoint.
+     */
+    public DdsProducerConfiguration getProducerConfiguration()
+    {
+        return producerConfiguration;
+    }
+
+    /**
+     * @return Quality of service of this endpoint, including options set by its uri.
+     */
+    public DdsQosConfig getQosConfig()
+    {
+        return qosConfig;
+    }
+
+    /**
+     * Estimate the memory held by the history of this endpoint's publisher, and likewise of its subscriber.
+     * Preallocated histories are sized for the type's largest serialized sample, while dynamic histories are sized
+     * from the average serialized sample seen on the topic so far.
+     *
+     * @return Estimated bytes held by a full history, or {@code -1} without a QoS config.
+     * @see DdsQosConfig#getHistoryCapacity()
+     */
+    public long getEstimatedHistoryBytes()
+    {
+        if (qosConfig == null)
+        {
+            return -1;
+        }
+        long capacity = qosConfig.getHistoryCapacity();
+        if (qosConfig.getHistoryMemoryPolicy() == MemoryManagementPolicy.DYNAMIC_RESERVE_MEMORY_MODE)
+        {
+            DdsTopicMetrics topic = getTopicMetrics();
+            long samples = topic.getSamplesRead() + topic.getSamplesWritten();
+            if (samples > 0)
+            {
+                return capacity * ((topic.getBytesRead() + topic.getBytesWritten()) / samples);
+            }
+        }
+        return capacity * topicDataType.getTypeSize();
+    }
+
+    /**
+     * @return Name of the participant profile this endpoint's participant is shared under, or {@code null} for the default.
+     */
+    public String getParticipantProfile()
+    {
+        return participantProfile;
+    }
+
+    /**
+     * @param participantProfile Name of the participant profile this endpoint's participant is shared under,
+     *                           or {@code null} for the default. Endpoints with different profiles use separate participants.
+     */
+    public synchronized void setParticipantProfile(String participantProfile)
+    {
+        this.participantProfile = participantProfile;
+        this.topicKey = null;
+    }
+
     /**
      * @return Fully {@link Class#getName() qualified name} of the data type of this endpoint.
      */
@@ -0,0 +1,88 @@
+package com.chesapeaketechnology.dds;
+
+/**
+ * Metrics for a single DDS endpoint, published over JMX while the endpoint is started.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsEndpointMetrics extends DdsMetrics implements DdsEndpointMetricsMBean
+{
+    private final DdsEndpoint endpoint;
+
+    /**
+     * @param endpoint Endpoint being measured.
+     * @param parent   Metrics of the endpoint's component.
+     */
+    public DdsEndpointMetrics(DdsEndpoint endpoint, DdsComponentMetrics parent)
+    {
+        super(parent);
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public String getEndpointUri()
+    {
+        return endpoint.getEndpointUri();
+    }
+
+    @Override
+    public long getBytesRead()
+    {
+        return endpoint.getTopicMetrics().getBytesRead();
+    }
+
+    @Override
+    public long getBytesWritten()
+    {
+        return endpoint.getTopicMetrics().getBytesWritten();
+    }
+
+    @Override
+    public int getMatchedPublishers()
+    {
+        return endpoint.getTopicMetrics().getMatchedPublishers();
+    }
+
+    @Override
+    public int getMatchedSubscribers()
+    {
+        return endpoint.getTopicMetrics().getMatchedSubscribers();
+    }
+
+    @Override
+    public long getLatencyP50Nanos()
+    {
+        return endpoint.getLatencyHistogram().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getLatencyP99Nanos()
+    {
+        return endpoint.getLatencyHistogram().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getLatencyP999Nanos()
+    {
+        return endpoint.getLatencyHistogram().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getLatencyMaxNanos()
+    {
+        return endpoint.getLatencyHistogram().getMax();
+    }
+
+    @Override
+    public long getHistoryCapacity()
+    {
+        DdsQosConfig config = endpoint.getQosConfig();
+        return config == null ? -1 : config.getHistoryCapacity();
+    }
+
+    @Override
+    public long getEstimatedHistoryBytes()
+    {
+        return endpoint.getEstimatedHistoryBytes();
+    }
+}
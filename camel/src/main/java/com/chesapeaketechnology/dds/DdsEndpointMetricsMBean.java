@@ -0,0 +1,45 @@
+package com.chesapeaketechnology.dds;
+
+/**
+ * Attributes published over JMX for each DDS endpoint. Byte and match counts are those of the endpoint's topic,
+ * shared with other endpoints using the same topic key.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public interface DdsEndpointMetricsMBean extends DdsMetricsMBean
+{
+    /**
+     * @return Uri of the endpoint.
+     */
+    String getEndpointUri();
+
+    /**
+     * @return Median time from samples being written to being received, in nanoseconds.
+     */
+    long getLatencyP50Nanos();
+
+    /**
+     * @return 99th percentile time from samples being written to being received, in nanoseconds.
+     */
+    long getLatencyP99Nanos();
+
+    /**
+     * @return 99.9th percentile time from samples being written to being received, in nanoseconds.
+     */
+    long getLatencyP999Nanos();
+
+    /**
+     * @return Longest time from a sample being written to being received, in nanoseconds.
+     */
+    long getLatencyMaxNanos();
+
+    /**
+     * @return Maximum number of samples held by the history of the endpoint's publisher or subscriber, or {@code -1} without a QoS config.
+     */
+    long getHistoryCapacity();
+
+    /**
+     * @return Estimated bytes held by a full history of the endpoint's publisher or subscriber, or {@code -1} without a QoS config.
+     */
+    long getEstimatedHistoryBytes();
+}
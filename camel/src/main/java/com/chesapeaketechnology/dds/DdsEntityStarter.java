@@ -0,0 +1,212 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.StartupListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the DDS publishers and subscribers of producers and consumers started while the camel context is starting,
+ * in parallel on a bounded pool rather than one after another on the thread starting the context.
+ * The context does not finish starting until they have all been created, at which point the time each took is reported.
+ * Once the context has started, entities are created on the calling thread.
+ * Register a starter as a startup listener once: it is called after producers start, and again once the context has fully
+ * started to wait for the entities of consumers, which start after the first call.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsEntityStarter implements StartupListener
+{
+    private static final Logger logger = LoggerFactory.getLogger(DdsEntityStarter.class);
+    private final CamelContext context;
+    private final List<Task> pending = new ArrayList<>();
+    private final Map<String, Long> startupTimes = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Set<String> startupThreadNames = Collections.synchronizedSet(new TreeSet<>());
+    private ExecutorService pool;
+    private int threads;
+
+    /**
+     * @param context Camel context whose startup to wait for entities in.
+     */
+    public DdsEntityStarter(CamelContext context)
+    {
+        this.context = context;
+    }
+
+    /**
+     * @param pool    Pool to create entities on, or {@code null} to always create them on the calling thread.
+     * @param threads Number of threads in the pool.
+     */
+    public synchronized void setPool(ExecutorService pool, int threads)
+    {
+        // Anything still pending belonged to a start that failed, and its pool is going away
+        pending.clear();
+        this.pool = pool;
+        this.threads = threads;
+    }
+
+    /**
+     * Create DDS entities, in the background while the camel context is starting, or immediately once it has started.
+     *
+     * @param name Name to report the startup time under, such as the role and uri of the endpoint.
+     * @param task Task creating the entities.
+     * @param <T>  Result of the task.
+     * @return Result of the task, once it completes. Always complete when the camel context had already started.
+     * @throws Exception When the task runs on the calling thread and fails.
+     */
+    public <T> Future<T> start(String name, Callable<T> task) throws Exception
+    {
+        synchronized (this)
+        {
+            if (pool != null && !context.isStarted())
+            {
+                Future<T> future = pool.submit(() -> timed(name, task));
+                pending.add(new Task(name, future));
+                return future;
+            }
+        }
+        return CompletableFuture.completedFuture(timed(name, task));
+    }
+
+    @Override
+    public void onCamelContextStarted(CamelContext context, boolean alreadyStarted)
+    {
+        // Producers have started, wait for their entities
+        awaitPending();
+    }
+
+    @Override
+    public void onCamelContextFullyStarted(CamelContext context, boolean alreadyStarted)
+    {
+        // Consumers have started since, wait for their entities too
+        awaitPending();
+    }
+
+    /**
+     * @return Milliseconds taken to create the DDS entities of each producer and consumer, in the order they were created.
+     */
+    public Map<String, Long> getStartupTimes()
+    {
+        synchronized (startupTimes)
+        {
+            return new LinkedHashMap<>(startupTimes);
+        }
+    }
+
+    /**
+     * @return Names of the threads that created DDS entities.
+     */
+    public Set<String> getStartupThreadNames()
+    {
+        synchronized (startupThreadNames)
+        {
+            return new TreeSet<>(startupThreadNames);
+        }
+    }
+
+    /**
+     * Wait for the entities being created in the background, failing when any could not be created.
+     */
+    private void awaitPending()
+    {
+        List<Task> tasks;
+        synchronized (this)
+        {
+            tasks = new ArrayList<>(pending);
+            pending.clear();
+        }
+        if (tasks.isEmpty())
+        {
+            return;
+        }
+        long start = System.nanoTime();
+        List<String> failed = new ArrayList<>();
+        Exception cause = null;
+        for (Task task : tasks)
+        {
+            try
+            {
+                task.future.get();
+            } catch (ExecutionException ex)
+            {
+                failed.add(task.name);
+                cause = ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+            } catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw new RuntimeCamelException("Interrupted waiting for DDS entities to be created", ex);
+            }
+        }
+        if (!failed.isEmpty())
+        {
+            throw new RuntimeCamelException("Failed to create DDS entities for: " + failed, cause);
+        }
+        report(tasks, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * @param name Name to report the startup time under.
+     * @param task Task creating the entities.
+     * @param <T>  Result of the task.
+     * @return Result of the task.
+     * @throws Exception When the task fails.
+     */
+    private <T> T timed(String name, Callable<T> task) throws Exception
+    {
+        long start = System.nanoTime();
+        T result = task.call();
+        startupTimes.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        startupThreadNames.add(Thread.currentThread().getName());
+        return result;
+    }
+
+    /**
+     * @param tasks  Tasks that completed.
+     * @param waitMs Milliseconds the context waited for them after starting its routes.
+     */
+    private void report(List<Task> tasks, long waitMs)
+    {
+        if (!logger.isInfoEnabled())
+        {
+            return;
+        }
+        StringBuilder report = new StringBuilder();
+        report.append("Created DDS entities for ").append(tasks.size()).append(" endpoints on ").append(threads)
+                .append(" threads, waited ").append(waitMs).append(" ms");
+        for (Task task : tasks)
+        {
+            report.append(System.lineSeparator()).append(" - ").append(startupTimes.get(task.name)).append(" ms: ").append(task.name);
+        }
+        logger.info(report.toString());
+    }
+
+    /**
+     * Entities being created in the background.
+     */
+    private static class Task
+    {
+        private final String name;
+        private final Future<?> future;
+
+        private Task(String name, Future<?> future)
+        {
+            this.name = name;
+            this.future = future;
+        }
+    }
+}
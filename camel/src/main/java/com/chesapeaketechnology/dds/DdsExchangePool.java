@@ -0,0 +1,106 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.util.ObjectPool;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.ExtendedExchange;
+import org.apache.camel.Message;
+
+/**
+ * Recycles exchanges, along with their {@link DdsMessage}, so that a steady stream of samples does not allocate new ones.
+ * Camel fixes each exchange's creation time when the exchange is constructed, so {@link Exchange#getCreated()} of a pooled
+ * exchange is the time the pool created it, not the time its current sample arrived. Elapsed and inflight times Camel
+ * derives from it, such as those of the inflight repository, are not meaningful for pooled exchanges.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsExchangePool
+{
+    private final DdsEndpoint endpoint;
+    private final ObjectPool<Exchange> pool;
+
+    /**
+     * Create the pool.
+     *
+     * @param endpoint Endpoint exchanges are created from.
+     * @param capacity Maximum number of idle exchanges held by the pool.
+     */
+    public DdsExchangePool(DdsEndpoint endpoint, int capacity)
+    {
+        this.endpoint = endpoint;
+        this.pool = new ObjectPool<>(capacity, this::create);
+    }
+
+    /**
+     * @param body Body of the exchange's message.
+     * @return Pooled exchange holding the given body.
+     */
+    public Exchange acquire(Object body)
+    {
+        Exchange exchange = pool.acquire();
+        ((DdsMessage) exchange.getIn()).setSample(body);
+        return exchange;
+    }
+
+    /**
+     * Reset an exchange and return it to the pool. The exchange must have completed and no longer be referenced by any route.
+     * Exchanges that were given an out message are not pooled again.
+     *
+     * @param exchange Exchange previously given by {@link #acquire(Object)}.
+     */
+    public void release(Exchange exchange)
+    {
+        // Out messages can only be cleared through deprecated api, leave such exchanges to the garbage collector instead
+        if (exchange.getMessage() != exchange.getIn())
+        {
+            return;
+        }
+        ExtendedExchange extended = exchange.adapt(ExtendedExchange.class);
+        extended.handoverCompletions();
+        extended.setUnitOfWork(null);
+        extended.setErrorHandlerHandled(null);
+        extended.setRedeliveryExhausted(false);
+        extended.setInterrupted(false);
+        extended.setTransacted(false);
+        extended.setHistoryNodeId(null);
+        extended.setHistoryNodeLabel(null);
+        exchange.setException(null);
+        exchange.setRouteStop(false);
+        exchange.setRollbackOnly(false);
+        exchange.setRollbackOnlyLast(false);
+        exchange.setPattern(ExchangePattern.InOnly);
+        exchange.setExchangeId(null);
+        if (exchange.hasProperties())
+        {
+            exchange.getProperties().clear();
+        }
+        // Routes may have replaced our message, only keep it when it is still attached
+        Message in = exchange.getIn();
+        if (in instanceof DdsMessage && in.getExchange() == exchange)
+        {
+            ((DdsMessage) in).reset();
+        } else
+        {
+            exchange.setIn(new DdsMessage(exchange, null, endpoint.getSampleDecoder()));
+        }
+        pool.release(exchange);
+    }
+
+    /**
+     * @return Number of exchanges the pool has created. Stays constant once the pool reaches a steady state.
+     */
+    public long getCreatedCount()
+    {
+        return pool.getCreatedCount();
+    }
+
+    /**
+     * @return New exchange for the pool.
+     */
+    private Exchange create()
+    {
+        Exchange exchange = endpoint.createExchange(ExchangePattern.InOnly);
+        exchange.setIn(new DdsMessage(exchange, null, endpoint.getSampleDecoder()));
+        return exchange;
+    }
+}
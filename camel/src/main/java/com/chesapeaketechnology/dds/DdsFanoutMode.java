@@ -0,0 +1,52 @@
+package com.chesapeaketechnology.dds;
+
+/**
+ * How a consumer receives samples when it shares a DDS subscriber with other consumers of the same topic.
+ * Each sample is always taken and deserialized once, this only decides whether consumers share that instance.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public enum DdsFanoutMode
+{
+    /**
+     * Receive the same instance as every other sharing consumer, saving a copy per sample. The body is aliased,
+     * so routes must treat it as read-only, as any change is seen by the other consumers.
+     */
+    SHARED("shared"),
+    /**
+     * Receive a private copy of each sample, which routes are free to modify. The default.
+     */
+    COPY("copy");
+
+    private final String uriName;
+
+    DdsFanoutMode(String uriName)
+    {
+        this.uriName = uriName;
+    }
+
+    /**
+     * @return Name of the mode as used in endpoint URIs.
+     */
+    public String getUriName()
+    {
+        return uriName;
+    }
+
+    /**
+     * @param name Name of the mode as used in endpoint URIs.
+     * @return Matching mode.
+     * @throws IllegalArgumentException When no mode matches the given name.
+     */
+    public static DdsFanoutMode fromUriName(String name)
+    {
+        for (DdsFanoutMode mode : values())
+        {
+            if (mode.uriName.equalsIgnoreCase(name) || mode.name().equalsIgnoreCase(name))
+            {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown fanout mode: " + name);
+    }
+}
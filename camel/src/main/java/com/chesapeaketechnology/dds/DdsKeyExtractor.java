@@ -0,0 +1,94 @@
+package com.chesapeaketechnology.dds;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+/**
+ * Extracts the instance key of a sample from one or more of its fields, such as the fields marked {@code @key} in the idl.
+ * Field values are read through the generated getters. Text values are generated as {@link StringBuilder}s,
+ * which do not implement {@link Object#equals(Object)}, so they are converted to strings.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsKeyExtractor
+{
+    private final MethodHandle[] getters;
+
+    /**
+     * Create the extractor.
+     *
+     * @param type   Sample type.
+     * @param fields Comma separated names of the key fields.
+     * @throws IllegalArgumentException When a field has no getter.
+     */
+    public DdsKeyExtractor(Class<?> type, String fields)
+    {
+        String[] names = fields.split(",");
+        getters = new MethodHandle[names.length];
+        for (int i = 0; i < names.length; i++)
+        {
+            getters[i] = findGetter(type, names[i].trim());
+        }
+    }
+
+    /**
+     * @param sample Sample to extract the key of.
+     * @return Key of the sample. A single field's value, or a list of values for multiple fields.
+     */
+    public Object extract(Object sample)
+    {
+        if (getters.length == 1)
+        {
+            return read(getters[0], sample);
+        }
+        Object[] values = new Object[getters.length];
+        for (int i = 0; i < getters.length; i++)
+        {
+            values[i] = read(getters[i], sample);
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * @param getter Getter of a key field.
+     * @param sample Sample to read from.
+     * @return Field value, comparable by {@link Object#equals(Object)}.
+     */
+    private static Object read(MethodHandle getter, Object sample)
+    {
+        Object value;
+        try
+        {
+            value = getter.invokeExact(sample);
+        } catch (Throwable ex)
+        {
+            throw new IllegalStateException("Failed to read key of " + sample.getClass().getName(), ex);
+        }
+        return value instanceof CharSequence ? value.toString() : value;
+    }
+
+    /**
+     * @param type  Sample type.
+     * @param field Field name.
+     * @return Handle of the field's getter, typed as {@code (Object)Object}.
+     */
+    private static MethodHandle findGetter(Class<?> type, String field)
+    {
+        if (field.isEmpty()) throw new IllegalArgumentException("Key field names cannot be empty");
+        String suffix = Character.toUpperCase(field.charAt(0)) + field.substring(1);
+        for (String prefix : new String[]{"get", "is"})
+        {
+            try
+            {
+                MethodHandle getter = MethodHandles.publicLookup().unreflect(type.getMethod(prefix + suffix));
+                return getter.asType(MethodType.methodType(Object.class, Object.class));
+            } catch (ReflectiveOperationException ex)
+            {
+                // Try the next prefix
+            }
+        }
+        throw new IllegalArgumentException("No getter for key field '" + field + "' in " + type.getName());
+    }
+}
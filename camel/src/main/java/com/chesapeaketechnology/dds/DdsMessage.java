@@ -2,6 +2,12 @@ package com.chesapeaketechnology.dds;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.support.DefaultMessage;
+import us.ihmc.pubsub.common.SampleIdentity;
+import us.ihmc.pubsub.common.SampleInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Camel message for DDS content.
@@ -10,6 +16,19 @@ import org.apache.camel.support.DefaultMessage;
  */
 public class DdsMessage extends DefaultMessage
 {
+    /**
+     * Header holding the {@link us.ihmc.pubsub.common.Guid GUID} of the writer that sent the sample, as a string.
+     */
+    public static final String HEADER_WRITER_GUID = "DdsWriterGuid";
+    /**
+     * Header holding the writer's sequence number of the sample.
+     */
+    public static final String HEADER_SEQUENCE_NUMBER = "DdsSequenceNumber";
+    private final DdsSampleDecoder decoder;
+    private Object sample;
+    private SampleInfo sampleInfo;
+    private boolean headersPending;
+
     /**
      * Create the message.
      *
@@ -17,8 +36,138 @@ public class DdsMessage extends DefaultMessage
      * @param value    Body of message.
      */
     public DdsMessage(Exchange exchange, Object value)
+    {
+        this(exchange, value, null);
+    }
+
+    /**
+     * Create the message.
+     *
+     * @param exchange Base exchange value.
+     * @param value    Body of message.
+     * @param decoder  Decoder for {@link DdsRawData raw} samples, deferred until the body is first read.
+     *                 May be {@code null} to give raw samples a body of their serialized bytes.
+     */
+    public DdsMessage(Exchange exchange, Object value, DdsSampleDecoder decoder)
     {
         super(exchange);
-        setBody(value);
+        this.decoder = decoder;
+        setSample(value);
+    }
+
+    /**
+     * @return Object received from DDS, even if the body has since been replaced.
+     */
+    public Object getSample()
+    {
+        return sample;
+    }
+
+    /**
+     * Set both the received object and the body of this message.
+     * The body of a {@link DdsRawData raw} sample is a read-only view of its serialized bytes, or with a decoder,
+     * the decoded sample. Decoding is deferred until the body is first read, so routes that only look at headers never decode.
+     *
+     * @param sample Object received from DDS.
+     */
+    public void setSample(Object sample)
+    {
+        this.sample = sample;
+        setBody(decoder == null ? toBody(sample) : null);
+    }
+
+    /**
+     * @return Information about the received sample, or {@code null} for batches and messages not received from DDS.
+     */
+    public SampleInfo getSampleInfo()
+    {
+        return sampleInfo;
+    }
+
+    /**
+     * Set the information about the received sample. Its writer and sequence number headers are only added once the headers are
+     * first used, so the info must not be modified until this message's exchange completes.
+     *
+     * @param sampleInfo Information about the received sample.
+     */
+    public void setSampleInfo(SampleInfo sampleInfo)
+    {
+        this.sampleInfo = sampleInfo;
+        // Recycled messages keep their header map, so fill it in when the headers are next used rather than now
+        headersPending = sampleInfo != null && hasPopulatedHeaders();
+    }
+
+    @Override
+    public Map<String, Object> getHeaders()
+    {
+        Map<String, Object> headers = super.getHeaders();
+        if (headersPending)
+        {
+            headersPending = false;
+            populateInitialHeaders(headers);
+        }
+        return headers;
+    }
+
+    @Override
+    public boolean hasHeaders()
+    {
+        return !getHeaders().isEmpty();
+    }
+
+    @Override
+    protected void populateInitialHeaders(Map<String, Object> map)
+    {
+        SampleIdentity identity = sampleInfo == null ? null : sampleInfo.getSampleIdentity();
+        if (identity != null)
+        {
+            map.put(HEADER_WRITER_GUID, String.valueOf(identity.getGuid()));
+            map.put(HEADER_SEQUENCE_NUMBER, identity.getSequenceNumber());
+        }
+    }
+
+    @Override
+    protected Object createBody()
+    {
+        return decoder == null ? null : toBody(sample);
+    }
+
+    /**
+     * @param sample Object received from DDS.
+     * @return Body for the object, converting raw samples and lists of them.
+     */
+    private Object toBody(Object sample)
+    {
+        if (sample instanceof DdsRawData)
+        {
+            DdsRawData raw = (DdsRawData) sample;
+            return decoder == null ? raw.getBuffer() : decoder.decode(raw);
+        }
+        if (sample instanceof List && !((List<?>) sample).isEmpty() && ((List<?>) sample).get(0) instanceof DdsRawData)
+        {
+            List<?> samples = (List<?>) sample;
+            List<Object> bodies = new ArrayList<>(samples.size());
+            for (Object element : samples)
+            {
+                bodies.add(toBody(element));
+            }
+            return bodies;
+        }
+        return sample;
+    }
+
+    /**
+     * Clear the body, headers and id of this message so that it can be reused by a pooled exchange.
+     */
+    public void reset()
+    {
+        setSample(null);
+        setMessageId(null);
+        sampleInfo = null;
+        headersPending = false;
+        if (hasPopulatedHeaders())
+        {
+            getHeaders().clear();
+        }
     }
 }
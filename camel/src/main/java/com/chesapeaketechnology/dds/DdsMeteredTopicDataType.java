@@ -0,0 +1,79 @@
+package com.chesapeaketechnology.dds;
+
+import us.ihmc.idl.InterchangeSerializer;
+import us.ihmc.pubsub.TopicDataType;
+import us.ihmc.pubsub.common.SerializedPayload;
+
+import java.io.IOException;
+
+/**
+ * Counts the serialized size of every sample written or read through another {@link TopicDataType}.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class DdsMeteredTopicDataType implements TopicDataType<Object>
+{
+    private final TopicDataType type;
+    private final DdsTopicMetrics metrics;
+
+    /**
+     * @param type    Serializer to count the samples of.
+     * @param metrics Counters of the topic the samples belong to.
+     */
+    public DdsMeteredTopicDataType(TopicDataType<?> type, DdsTopicMetrics metrics)
+    {
+        this.type = type;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void serialize(Object data, SerializedPayload serializedPayload) throws IOException
+    {
+        type.serialize(data, serializedPayload);
+        metrics.addBytesWritten(serializedPayload.getLength());
+    }
+
+    @Override
+    public void serialize(Object data, InterchangeSerializer serializer)
+    {
+        type.serialize(data, serializer);
+    }
+
+    @Override
+    public void deserialize(SerializedPayload serializedPayload, Object data) throws IOException
+    {
+        metrics.addBytesRead(serializedPayload.getLength());
+        type.deserialize(serializedPayload, data);
+    }
+
+    @Override
+    public void deserialize(InterchangeSerializer serializer, Object data)
+    {
+        type.deserialize(serializer, data);
+    }
+
+    @Override
+    public int getTypeSize()
+    {
+        return type.getTypeSize();
+    }
+
+    @Override
+    public String getName()
+    {
+        return type.getName();
+    }
+
+    @Override
+    public Object createData()
+    {
+        return type.createData();
+    }
+
+    @Override
+    public TopicDataType<Object> newInstance()
+    {
+        return new DdsMeteredTopicDataType(type.newInstance(), metrics);
+    }
+}
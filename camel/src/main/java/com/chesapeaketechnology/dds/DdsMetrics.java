@@ -0,0 +1,181 @@
+package com.chesapeaketechnology.dds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped counters for DDS consumers and producers, cheap to update from many threads at once.
+ * Updates are also applied to the parent metrics, so the component totals include every endpoint.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public abstract class DdsMetrics implements DdsMetricsMBean
+{
+    /**
+     * JMX domain metrics are registered under.
+     */
+    public static final String JMX_DOMAIN = "com.chesapeaketechnology.dds";
+    private static final Logger logger = LoggerFactory.getLogger(DdsMetrics.class);
+    private final DdsMetrics parent;
+    private final LongAdder samplesIn = new LongAdder();
+    private final LongAdder samplesOut = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private ObjectName objectName;
+
+    /**
+     * @param parent Metrics to also apply updates to, or {@code null} for none.
+     */
+    protected DdsMetrics(DdsMetrics parent)
+    {
+        this.parent = parent;
+    }
+
+    /**
+     * @param count Number of samples received.
+     */
+    public void addSamplesIn(long count)
+    {
+        samplesIn.add(count);
+        if (parent != null) parent.addSamplesIn(count);
+    }
+
+    /**
+     * @param count Number of samples written.
+     */
+    public void addSamplesOut(long count)
+    {
+        samplesOut.add(count);
+        if (parent != null) parent.addSamplesOut(count);
+    }
+
+    /**
+     * @param nanos  Time spent processing an exchange.
+     * @param failed {@code true} when the exchange failed.
+     */
+    public void addProcessed(long nanos, boolean failed)
+    {
+        processed.increment();
+        processingNanos.add(nanos);
+        if (failed)
+        {
+            this.failed.increment();
+        }
+        if (parent != null) parent.addProcessed(nanos, failed);
+    }
+
+    /**
+     * Count an exchange discarded without being processed.
+     */
+    public void addDropped()
+    {
+        dropped.increment();
+        if (parent != null) parent.addDropped();
+    }
+
+    @Override
+    public long getSamplesIn()
+    {
+        return samplesIn.sum();
+    }
+
+    @Override
+    public long getSamplesOut()
+    {
+        return samplesOut.sum();
+    }
+
+    @Override
+    public long getProcessedExchanges()
+    {
+        return processed.sum();
+    }
+
+    @Override
+    public long getFailedExchanges()
+    {
+        return failed.sum();
+    }
+
+    @Override
+    public long getProcessingTimeNanos()
+    {
+        return processingNanos.sum();
+    }
+
+    @Override
+    public long getDroppedExchanges()
+    {
+        return dropped.sum();
+    }
+
+    /**
+     * Publish these metrics with the platform MBean server. Failures are logged, metrics never stop routes from running.
+     * Endpoints are named without their parameters, so when the name is taken, such as by another endpoint on the same topic
+     * with different options, a {@code #<n>} suffix is added to keep it unique.
+     *
+     * @param type Kind of metrics, such as {@code endpoint}.
+     * @param context Name of the Camel context.
+     * @param name Name of these metrics within the context.
+     */
+    public synchronized void register(String type, String context, String name)
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            for (int index = 1; objectName == null; index++)
+            {
+                String unique = index == 1 ? name : name + "#" + index;
+                ObjectName candidate = new ObjectName(JMX_DOMAIN + ":type=" + type
+                        + ",context=" + ObjectName.quote(context) + ",name=" + ObjectName.quote(unique));
+                try
+                {
+                    server.registerMBean(this, candidate);
+                    objectName = candidate;
+                } catch (InstanceAlreadyExistsException ex)
+                {
+                    logger.debug("DDS metrics name '{}' is taken, trying the next one", unique);
+                }
+            }
+        } catch (JMException ex)
+        {
+            logger.warn("Failed to register DDS metrics for: " + name, ex);
+        }
+    }
+
+    /**
+     * Remove these metrics from the platform MBean server, if they were registered.
+     */
+    public synchronized void unregister()
+    {
+        if (objectName == null)
+        {
+            return;
+        }
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException ex)
+        {
+            logger.warn("Failed to unregister DDS metrics: " + objectName, ex);
+        }
+        objectName = null;
+    }
+
+    /**
+     * @return Name these metrics are registered under, or {@code null} if they are not registered.
+     */
+    public synchronized ObjectName getObjectName()
+    {
+        return objectName;
+    }
+}
@@ -0,0 +1,59 @@
+package com.chesapeaketechnology.dds;
+
+/**
+ * Throughput and health attributes published over JMX for DDS endpoints and the component as a whole.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public interface DdsMetricsMBean
+{
+    /**
+     * @return Number of samples received by consumers.
+     */
+    long getSamplesIn();
+
+    /**
+     * @return Number of samples written by producers.
+     */
+    long getSamplesOut();
+
+    /**
+     * @return Total size of serialized samples read from DDS.
+     */
+    long getBytesRead();
+
+    /**
+     * @return Total size of serialized samples written to DDS.
+     */
+    long getBytesWritten();
+
+    /**
+     * @return Number of exchanges consumers have finished processing.
+     */
+    long getProcessedExchanges();
+
+    /**
+     * @return Number of processed exchanges that failed.
+     */
+    long getFailedExchanges();
+
+    /**
+     * @return Total time consumers spent processing exchanges, in nanoseconds.
+     */
+    long getProcessingTimeNanos();
+
+    /**
+     * @return Number of exchanges dropped, rejected or conflated by consumers without being processed.
+     */
+    long getDroppedExchanges();
+
+    /**
+     * @return Number of remote publishers currently matched with subscribers.
+     */
+    int getMatchedPublishers();
+
+    /**
+     * @return Number of remote subscribers currently matched with publishers.
+     */
+    int getMatchedSubscribers();
+}
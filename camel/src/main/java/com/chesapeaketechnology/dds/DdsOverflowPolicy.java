@@ -0,0 +1,58 @@
+package com.chesapeaketechnology.dds;
+
+/**
+ * Behavior of an asynchronous consumer when its hand-off queue is full.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public enum DdsOverflowPolicy
+{
+    /**
+     * Block the DDS listener thread until space is available.
+     */
+    BLOCK("block"),
+    /**
+     * Discard the oldest queued sample to make room for the new one.
+     */
+    DROP_OLDEST("dropOldest"),
+    /**
+     * Discard the new sample.
+     */
+    DROP_NEWEST("dropNewest"),
+    /**
+     * Discard the new sample, counting it as rejected and logging a warning.
+     */
+    REJECT("reject");
+
+    private final String uriName;
+
+    DdsOverflowPolicy(String uriName)
+    {
+        this.uriName = uriName;
+    }
+
+    /**
+     * @return Name of the policy as used in endpoint URIs.
+     */
+    public String getUriName()
+    {
+        return uriName;
+    }
+
+    /**
+     * @param name Name of the policy as used in endpoint URIs.
+     * @return Matching policy.
+     * @throws IllegalArgumentException When no policy matches the given name.
+     */
+    public static DdsOverflowPolicy fromUriName(String name)
+    {
+        for (DdsOverflowPolicy policy : values())
+        {
+            if (policy.uriName.equalsIgnoreCase(name) || policy.name().equalsIgnoreCase(name))
+            {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown overflow policy: " + name);
+    }
+}
@@ -0,0 +1,253 @@
+package com.chesapeaketechnology.dds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import us.ihmc.pubsub.Domain;
+import us.ihmc.pubsub.attributes.ParticipantAttributes;
+import us.ihmc.pubsub.participant.Participant;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shares DDS participants between endpoints. Each participant runs its own discovery, threads and sockets,
+ * so endpoints on the same domain and participant profile use a single participant, unless their QoS configs differ in the
+ * settings that apply to the participant itself. Participants are reference counted,
+ * and only removed from the domain once the last endpoint using them has released them.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsParticipantRegistry
+{
+    /**
+     * Participant profile used when an endpoint does not specify one.
+     */
+    public static final String DEFAULT_PROFILE = "camel";
+    private static final Logger logger = LoggerFactory.getLogger(DdsParticipantRegistry.class);
+    private final Domain domain;
+    private final Map<ParticipantKey, Entry> participants = new HashMap<>();
+
+    /**
+     * Create the registry.
+     *
+     * @param domain DDS implementation to create participants with.
+     */
+    public DdsParticipantRegistry(Domain domain)
+    {
+        this.domain = domain;
+    }
+
+    /**
+     * Get <i>(or create if necessary)</i> the participant for a domain and profile with default participant QoS,
+     * incrementing its reference count. Each call must be matched by a call to {@link #release(int, String)}.
+     *
+     * @param domainId Domain identifier.
+     * @param profile  Participant profile, or {@code null} for the {@link #DEFAULT_PROFILE default profile}.
+     * @return Shared participant.
+     * @throws IOException When the participant cannot be created.
+     */
+    public Participant acquire(int domainId, String profile) throws IOException
+    {
+        return acquire(domainId, profile, null);
+    }
+
+    /**
+     * Get <i>(or create if necessary)</i> the participant for a domain, profile and participant QoS, incrementing its
+     * reference count. Endpoints whose configs differ in participant QoS, such as socket buffer sizes, get separate participants
+     * rather than silently sharing the participant of whichever endpoint came first.
+     * Each call must be matched by a call to {@link #release(int, String, DdsQosConfig)} with an equal config.
+     *
+     * @param domainId Domain identifier.
+     * @param profile  Participant profile, or {@code null} for the {@link #DEFAULT_PROFILE default profile}.
+     * @param config   Quality of service to create the participant with, or {@code null} for the defaults.
+     * @return Shared participant.
+     * @throws IOException When the participant cannot be created.
+     */
+    public synchronized Participant acquire(int domainId, String profile, DdsQosConfig config) throws IOException
+    {
+        ParticipantKey key = new ParticipantKey(domainId, profile, config);
+        Entry entry = participants.get(key);
+        if (entry == null)
+        {
+            if (participants.keySet().stream().anyMatch(key::isSameProfile))
+            {
+                logger.info("Participant profile {} is already in use with different participant QoS, creating another participant: {}",
+                        toName(profile), key);
+            }
+            logger.trace("Creating participant: {}", key);
+            ParticipantAttributes attributes = domain.createParticipantAttributes(domainId, toName(profile));
+            if (config != null)
+            {
+                new DdsQosConfigurator(config).configureParticipant(attributes);
+            }
+            entry = new Entry(domain.createParticipant(attributes));
+            participants.put(key, entry);
+            logger.trace(" - Participant created: {}", entry.participant.getGuid());
+        }
+        entry.references++;
+        return entry.participant;
+    }
+
+    /**
+     * Decrement the reference count of a participant with default participant QoS, removing it from the domain when it is no
+     * longer used.
+     *
+     * @param domainId Domain identifier.
+     * @param profile  Participant profile, or {@code null} for the {@link #DEFAULT_PROFILE default profile}.
+     */
+    public void release(int domainId, String profile)
+    {
+        release(domainId, profile, null);
+    }
+
+    /**
+     * Decrement the reference count of a participant, removing it from the domain when it is no longer used.
+     *
+     * @param domainId Domain identifier.
+     * @param profile  Participant profile, or {@code null} for the {@link #DEFAULT_PROFILE default profile}.
+     * @param config   Quality of service the participant was acquired with, or {@code null} for the defaults.
+     */
+    public synchronized void release(int domainId, String profile, DdsQosConfig config)
+    {
+        ParticipantKey key = new ParticipantKey(domainId, profile, config);
+        Entry entry = participants.get(key);
+        if (entry == null)
+        {
+            throw new IllegalStateException("Participant was not acquired: " + key);
+        }
+        if (--entry.references == 0)
+        {
+            logger.trace("Removing participant({}) from domain: {}", entry.participant.getGuid(), key);
+            participants.remove(key);
+            domain.removeParticipant(entry.participant);
+        }
+    }
+
+    /**
+     * Remove all participants from the domain, regardless of their reference counts.
+     */
+    public synchronized void clear()
+    {
+        for (Entry entry : participants.values())
+        {
+            domain.removeParticipant(entry.participant);
+        }
+        participants.clear();
+    }
+
+    /**
+     * @return Number of participants currently in use.
+     */
+    public synchronized int getParticipantCount()
+    {
+        return participants.size();
+    }
+
+    /**
+     * @param domainId Domain identifier.
+     * @param profile  Participant profile, or {@code null} for the {@link #DEFAULT_PROFILE default profile}.
+     * @return Number of endpoints using the participant with default participant QoS, or {@code 0} if there is none.
+     */
+    public int getReferenceCount(int domainId, String profile)
+    {
+        return getReferenceCount(domainId, profile, null);
+    }
+
+    /**
+     * @param domainId Domain identifier.
+     * @param profile  Participant profile, or {@code null} for the {@link #DEFAULT_PROFILE default profile}.
+     * @param config   Quality of service the participant was acquired with, or {@code null} for the defaults.
+     * @return Number of endpoints using the participant, or {@code 0} if there is none.
+     */
+    public synchronized int getReferenceCount(int domainId, String profile, DdsQosConfig config)
+    {
+        Entry entry = participants.get(new ParticipantKey(domainId, profile, config));
+        return entry == null ? 0 : entry.references;
+    }
+
+    /**
+     * @return DDS implementation participants are created with.
+     */
+    public Domain getDomain()
+    {
+        return domain;
+    }
+
+    /**
+     * @param profile Participant profile, may be {@code null}.
+     * @return Participant name.
+     */
+    private static String toName(String profile)
+    {
+        return profile == null ? DEFAULT_PROFILE : profile;
+    }
+
+    /**
+     * Identifies a participant by its domain, profile and the parts of a QoS config that apply to the participant itself.
+     */
+    private static final class ParticipantKey
+    {
+        private final int domainId;
+        private final String name;
+        private final Integer sendSocketBufferSize;
+        private final Integer receiveSocketBufferSize;
+
+        private ParticipantKey(int domainId, String profile, DdsQosConfig config)
+        {
+            this.domainId = domainId;
+            this.name = toName(profile);
+            this.sendSocketBufferSize = config == null ? null : config.getSendSocketBufferSize();
+            this.receiveSocketBufferSize = config == null ? null : config.getReceiveSocketBufferSize();
+        }
+
+        /**
+         * @param other Another key.
+         * @return {@code true} when both keys are for the same domain and profile, regardless of participant QoS.
+         */
+        private boolean isSameProfile(ParticipantKey other)
+        {
+            return domainId == other.domainId && name.equals(other.name);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) return true;
+            if (!(o instanceof ParticipantKey)) return false;
+            ParticipantKey other = (ParticipantKey) o;
+            return isSameProfile(other)
+                    && Objects.equals(sendSocketBufferSize, other.sendSocketBufferSize)
+                    && Objects.equals(receiveSocketBufferSize, other.receiveSocketBufferSize);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(domainId, name, sendSocketBufferSize, receiveSocketBufferSize);
+        }
+
+        @Override
+        public String toString()
+        {
+            return domainId + "/" + name
+                    + (sendSocketBufferSize == null ? "" : " sendSocketBufferSize=" + sendSocketBufferSize)
+                    + (receiveSocketBufferSize == null ? "" : " receiveSocketBufferSize=" + receiveSocketBufferSize);
+        }
+    }
+
+    /**
+     * Reference counted participant.
+     */
+    private static class Entry
+    {
+        private final Participant participant;
+        private int references;
+
+        private Entry(Participant participant)
+        {
+            this.participant = participant;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.Exchange;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Hands exchanges off from the DDS listener thread to a fixed number of single threaded lanes, chosen by instance key.
+ * Samples with the same key always use the same lane, so they are processed in order, while different keys run in parallel.
+ * Each lane is an {@link DdsAsyncDispatcher} with a single worker.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsPartitionedDispatcher implements DdsDispatcher
+{
+    private final DdsAsyncDispatcher[] lanes;
+    private final Function<Object, Object> keyExtractor;
+
+    /**
+     * Create the dispatcher.
+     *
+     * @param name           Name used when logging, typically the endpoint uri.
+     * @param partitions     Number of lanes.
+     * @param queueSize      Capacity of each lane's hand-off queue.
+     * @param overflowPolicy Behavior when a lane's hand-off queue is full.
+     * @param keyExtractor   Extracts the instance key from an exchange body.
+     * @param processor      Action that processes exchanges on worker threads.
+     * @param discarder      Action invoked with exchanges that are dropped without being processed.
+     */
+    public DdsPartitionedDispatcher(String name, int partitions, int queueSize, DdsOverflowPolicy overflowPolicy,
+                                    Function<Object, Object> keyExtractor, Consumer<Exchange> processor, Consumer<Exchange> discarder)
+    {
+        this.keyExtractor = keyExtractor;
+        this.lanes = new DdsAsyncDispatcher[partitions];
+        for (int i = 0; i < partitions; i++)
+        {
+            lanes[i] = new DdsAsyncDispatcher(name + "#" + i, queueSize, overflowPolicy, processor, discarder);
+        }
+    }
+
+    /**
+     * Start one worker per lane on the given executor.
+     *
+     * @param executor Executor to run workers on. Must have a thread available for every lane.
+     * @param workers  Ignored, there is always exactly one worker per lane.
+     */
+    @Override
+    public void start(ExecutorService executor, int workers)
+    {
+        for (DdsAsyncDispatcher lane : lanes)
+        {
+            lane.start(executor, 1);
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        for (DdsAsyncDispatcher lane : lanes)
+        {
+            lane.stop();
+        }
+    }
+
+    @Override
+    public void dispatch(Exchange exchange)
+    {
+        lanes[getPartition(keyExtractor.apply(exchange.getIn().getBody()))].dispatch(exchange);
+    }
+
+    @Override
+    public long getDroppedCount()
+    {
+        long dropped = 0;
+        for (DdsAsyncDispatcher lane : lanes)
+        {
+            dropped += lane.getDroppedCount();
+        }
+        return dropped;
+    }
+
+    @Override
+    public long getRejectedCount()
+    {
+        long rejected = 0;
+        for (DdsAsyncDispatcher lane : lanes)
+        {
+            rejected += lane.getRejectedCount();
+        }
+        return rejected;
+    }
+
+    @Override
+    public int getQueueDepth()
+    {
+        int depth = 0;
+        for (DdsAsyncDispatcher lane : lanes)
+        {
+            depth += lane.getQueueDepth();
+        }
+        return depth;
+    }
+
+    /**
+     * @param key Instance key.
+     * @return Index of the lane for the key.
+     */
+    public int getPartition(Object key)
+    {
+        int hash = key == null ? 0 : key.hashCode();
+        // Spread the high bits, small integer keys would otherwise cluster
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, lanes.length);
+    }
+}
@@ -0,0 +1,142 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.util.ObjectPool;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExtendedExchange;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import org.apache.camel.support.SynchronizationAdapter;
+import us.ihmc.pubsub.common.SampleInfo;
+import us.ihmc.pubsub.subscriber.Subscriber;
+
+import java.util.List;
+
+/**
+ * Listens to incoming messages from a DDS endpoint's subscriber and passes them along to Camel. Received message instances
+ * are borrowed from a pool and given back once their exchange's unit of work is done. Unlike {@link DdsReusingConsumer} each
+ * in-flight exchange has its own instance, so this is safe to combine with batching and asynchronous processing.
+ * Routes handing the exchange on through {@code seda} keep the instance until the handed on exchange completes, but routes
+ * must not hold on to the message body past that, as wire taps and aggregators do, without copying it first.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsPoolingConsumer extends DdsConsumer
+{
+    private final ObjectPool<Object> pool;
+    private final ObjectPool<SampleRelease> releases;
+
+    /**
+     * Create the camel consumer.
+     *
+     * @param endpoint  Endpoint this consumer belongs to.
+     * @param processor Processor to send received data to.
+     */
+    public DdsPoolingConsumer(DdsEndpoint endpoint, Processor processor)
+    {
+        super(endpoint, processor);
+        int capacity = configuration.getPoolSize() > 0
+                ? configuration.getPoolSize()
+                : configuration.getInFlightLimit() * configuration.getBatchSize();
+        this.pool = new ObjectPool<>(capacity, endpoint::createSample);
+        this.releases = new ObjectPool<>(configuration.getInFlightLimit(), SampleRelease::new);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected Object takeNextData(Subscriber subscriber, SampleInfo info)
+    {
+        Object data = pool.acquire();
+        if (subscriber.takeNextData(data, info))
+        {
+            return data;
+        }
+        pool.release(data);
+        return null;
+    }
+
+    @Override
+    protected Object copySample(Object data)
+    {
+        // Copies belong to this consumer, so they can come from and return to the pool
+        Object copy = pool.acquire();
+        endpoint.getSampleCopier().copy(data, copy);
+        return copy;
+    }
+
+    @Override
+    protected void beforeProcess(Exchange exchange)
+    {
+        Object sample = getOwnSample(exchange);
+        if (sample != null)
+        {
+            // Holds on to the sample itself, since routes may replace the message of the exchange or of a handed on copy
+            SampleRelease release = releases.acquire();
+            release.sample = sample;
+            exchange.adapt(ExtendedExchange.class).addOnCompletion(release);
+        }
+    }
+
+    @Override
+    protected void onComplete(Exchange exchange)
+    {
+        release(getOwnSample(exchange));
+    }
+
+    /**
+     * @param exchange Exchange created by this consumer.
+     * @return Sample or batch of samples this consumer took from its pool, or {@code null} for none.
+     */
+    private Object getOwnSample(Exchange exchange)
+    {
+        // Only give back what this consumer took, samples shared with other consumers are not from its pool
+        Message in = exchange.getIn();
+        if (!(in instanceof DdsMessage) || exchange.getProperty(PROPERTY_SHARED) != null)
+        {
+            return null;
+        }
+        return ((DdsMessage) in).getSample();
+    }
+
+    /**
+     * @param sample Sample or batch of samples to give back to the pool, or {@code null} for none.
+     */
+    private void release(Object sample)
+    {
+        if (sample instanceof List)
+        {
+            for (Object data : (List<?>) sample)
+            {
+                pool.release(data);
+            }
+        } else if (sample != null)
+        {
+            pool.release(sample);
+        }
+    }
+
+    /**
+     * @return Number of message structures the pool has created. Stays constant once the pool reaches a steady state.
+     */
+    public long getCreatedCount()
+    {
+        return pool.getCreatedCount();
+    }
+
+    /**
+     * Gives a sample back to the pool once the unit of work of the exchange holding it is done.
+     * Pooled itself, so tracking completions does not allocate once the consumer reaches a steady state.
+     */
+    private class SampleRelease extends SynchronizationAdapter
+    {
+        private Object sample;
+
+        @Override
+        public void onDone(Exchange exchange)
+        {
+            Object done = sample;
+            sample = null;
+            release(done);
+            releases.release(this);
+        }
+    }
+}
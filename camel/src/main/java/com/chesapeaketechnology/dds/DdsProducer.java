@@ -1,21 +1,35 @@
 package com.chesapeaketechnology.dds;
 
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
-import org.apache.camel.support.DefaultProducer;
+import org.apache.camel.support.DefaultAsyncProducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import us.ihmc.pubsub.publisher.Publisher;
 
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Directs Camel exchanges into a DDS endpoint's publisher.
+ * Directs Camel exchanges into a DDS endpoint's publisher. Bodies that are an {@link Iterable} or an array
+ * are written one element at a time. When the endpoint {@link DdsProducerConfiguration#isWriterThread() uses a writer thread},
+ * exchanges are handed off to it and complete asynchronously once written, so route threads are not held for the write.
  *
  * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
  */
-public class DdsProducer extends DefaultProducer
+public class DdsProducer extends DefaultAsyncProducer
 {
     private static final Logger logger = LoggerFactory.getLogger(DdsProducer.class);
     private final DdsEndpoint endpoint;
+    private final DdsProducerConfiguration configuration;
     private Publisher publisher;
+    private DdsWriteCoalescer coalescer;
+    private ExecutorService writerPool;
+    private volatile boolean awaitingReaders;
+    private volatile Future<?> pendingStart;
 
     /**
      * Create the camel producer.
@@ -26,14 +40,77 @@ public class DdsProducer extends DefaultProducer
     {
         super(endpoint);
         this.endpoint = endpoint;
+        this.configuration = endpoint.getProducerConfiguration();
     }
 
     @Override
-    public void process(Exchange exchange) throws Exception
+    public boolean process(Exchange exchange, AsyncCallback callback)
     {
         // Send message content to publisher
-        logger.trace("Publishing for endpoint: '{}' - Value: {}", endpoint.getEndpointUri(), exchange.getIn().getBody().toString());
-        publisher.write(exchange.getIn().getBody());
+        // Guarded so the hot path does not build log arguments, or decode lazy bodies, for disabled levels
+        if (logger.isTraceEnabled())
+        {
+            logger.trace("Publishing for endpoint: '{}' - Value: {}", endpoint.getEndpointUri(), exchange.getIn().getBody());
+        }
+        try
+        {
+            if (pendingStart != null)
+            {
+                awaitStart();
+            }
+            if (awaitingReaders)
+            {
+                awaitMatchedReaders();
+            }
+            if (coalescer != null)
+            {
+                coalescer.enqueue(exchange, callback);
+                return false;
+            }
+            endpoint.getMetrics().addSamplesOut(writeBody(publisher, exchange.getIn().getBody()));
+        } catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            exchange.setException(ex);
+        } catch (Exception ex)
+        {
+            exchange.setException(ex);
+        }
+        callback.done(true);
+        return true;
+    }
+
+    /**
+     * Write a body to a publisher, one sample per element when the body is an {@link Iterable} or an array.
+     *
+     * @param publisher Publisher to write to.
+     * @param body      Body to write.
+     * @return Number of samples written.
+     * @throws IOException When a sample cannot be written.
+     */
+    static int writeBody(Publisher publisher, Object body) throws IOException
+    {
+        int written = 0;
+        if (body instanceof Iterable)
+        {
+            for (Object sample : (Iterable<?>) body)
+            {
+                publisher.write(sample);
+                written++;
+            }
+        } else if (body instanceof Object[])
+        {
+            for (Object sample : (Object[]) body)
+            {
+                publisher.write(sample);
+                written++;
+            }
+        } else
+        {
+            publisher.write(body);
+            written++;
+        }
+        return written;
     }
 
     @Override
@@ -45,7 +122,102 @@ public class DdsProducer extends DefaultProducer
         {
             endpoint.start();
         }
-        // Get dds publisher for endpoint
+        // Readers in the same camel context only start after producers, so wait for them before the first write instead
+        awaitingReaders = configuration.getMinMatchedReaders() > 0;
+        // Created alongside other endpoints while the context starts, the first exchange waits for it otherwise
+        pendingStart = endpoint.getEntityStarter().start("producer " + endpoint.getEndpointUri(), this::startWriting);
+    }
+
+    /**
+     * Get the endpoint's DDS publisher, and setup the writer thread if there is one.
+     *
+     * @return Nothing.
+     * @throws IOException When the publisher cannot be created.
+     */
+    private Void startWriting() throws IOException
+    {
         publisher = endpoint.getPublisher();
+        if (configuration.isWriterThread())
+        {
+            coalescer = new DdsWriteCoalescer(endpoint.getEndpointUri(), publisher, endpoint.getMetrics(),
+                    configuration.getWriteBatch(), configuration.getFlushIntervalMs());
+            writerPool = endpoint.getCamelContext().getExecutorServiceManager()
+                    .newSingleThreadExecutor(this, "DdsProducer[" + endpoint.getEndpointUri() + "]");
+            coalescer.start(writerPool);
+        }
+        return null;
+    }
+
+    /**
+     * Block until the publisher has been created.
+     *
+     * @throws Exception When the publisher could not be created.
+     */
+    private synchronized void awaitStart() throws Exception
+    {
+        if (pendingStart == null)
+        {
+            return;
+        }
+        try
+        {
+            pendingStart.get();
+        } catch (ExecutionException ex)
+        {
+            throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+        }
+        pendingStart = null;
+    }
+
+    /**
+     * Block until the endpoint's topic has the configured number of matched readers, or the match timeout elapses.
+     * Only the first exchange waits, so the first samples are not left in the publisher's history until discovery completes.
+     *
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    private synchronized void awaitMatchedReaders() throws InterruptedException
+    {
+        if (!awaitingReaders)
+        {
+            // Another exchange already waited
+            return;
+        }
+        int readers = configuration.getMinMatchedReaders();
+        long start = System.nanoTime();
+        DdsTopicMetrics topicMetrics = endpoint.getTopicMetrics();
+        if (topicMetrics.awaitMatchedSubscribers(readers, configuration.getMatchTimeoutMs()))
+        {
+            logger.debug("Matched {} readers for endpoint '{}' in {} ms", topicMetrics.getMatchedSubscribers(),
+                    endpoint.getEndpointUri(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } else
+        {
+            logger.warn("Only {} of {} readers matched endpoint '{}' within {} ms, starting anyway", topicMetrics.getMatchedSubscribers(),
+                    readers, endpoint.getEndpointUri(), configuration.getMatchTimeoutMs());
+        }
+        awaitingReaders = false;
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        super.doStop();
+        if (pendingStart != null)
+        {
+            // Let a publisher still being created finish, so its writer thread is not left running
+            try
+            {
+                awaitStart();
+            } catch (Exception ex)
+            {
+                logger.debug("Publisher of stopped producer failed to start: " + endpoint.getEndpointUri(), ex);
+            }
+        }
+        if (writerPool != null)
+        {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdownNow(writerPool);
+            writerPool = null;
+            coalescer.stop();
+            coalescer = null;
+        }
     }
 }
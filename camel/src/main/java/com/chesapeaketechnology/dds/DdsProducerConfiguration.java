@@ -0,0 +1,110 @@
+package com.chesapeaketechnology.dds;
+
+/**
+ * Options controlling how producers of a {@link DdsEndpoint} write exchanges to DDS.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsProducerConfiguration
+{
+    private int writeBatch = 1;
+    private long flushIntervalMs;
+    private boolean asyncWrite;
+    private int minMatchedReaders;
+    private long matchTimeoutMs = 10_000;
+
+    /**
+     * @return Maximum number of exchanges written together by the producer's writer thread.
+     */
+    public int getWriteBatch()
+    {
+        return writeBatch;
+    }
+
+    /**
+     * @param writeBatch Maximum number of exchanges written together by the producer's writer thread.
+     *                   Values greater than {@code 1} hand exchanges to a dedicated writer thread instead of writing them on the route thread.
+     */
+    public void setWriteBatch(int writeBatch)
+    {
+        if (writeBatch < 1) throw new IllegalArgumentException("Write batch must be positive: " + writeBatch);
+        this.writeBatch = writeBatch;
+    }
+
+    /**
+     * @return Time in milliseconds the writer thread waits for more exchanges before writing a partial batch.
+     */
+    public long getFlushIntervalMs()
+    {
+        return flushIntervalMs;
+    }
+
+    /**
+     * @param flushIntervalMs Time in milliseconds the writer thread waits for more exchanges before writing a partial batch.
+     */
+    public void setFlushIntervalMs(long flushIntervalMs)
+    {
+        if (flushIntervalMs < 0) throw new IllegalArgumentException("Flush interval cannot be negative: " + flushIntervalMs);
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * @return {@code true} when exchanges are always handed off to the producer's writer thread, even without batching.
+     */
+    public boolean isAsyncWrite()
+    {
+        return asyncWrite;
+    }
+
+    /**
+     * @param asyncWrite {@code true} when exchanges are always handed off to the producer's writer thread, even without batching.
+     */
+    public void setAsyncWrite(boolean asyncWrite)
+    {
+        this.asyncWrite = asyncWrite;
+    }
+
+    /**
+     * @return {@code true} when producers hand exchanges to a writer thread, completing them asynchronously once written.
+     */
+    public boolean isWriterThread()
+    {
+        return asyncWrite || writeBatch > 1;
+    }
+
+    /**
+     * @return Number of matched readers producers wait for before their first write.
+     */
+    public int getMinMatchedReaders()
+    {
+        return minMatchedReaders;
+    }
+
+    /**
+     * @param minMatchedReaders Number of matched readers producers wait for before their first write, or {@code 0} to not wait.
+     *                          Readers of the same process are counted too.
+     */
+    public void setMinMatchedReaders(int minMatchedReaders)
+    {
+        if (minMatchedReaders < 0) throw new IllegalArgumentException("Matched readers cannot be negative: " + minMatchedReaders);
+        this.minMatchedReaders = minMatchedReaders;
+    }
+
+    /**
+     * @return Maximum time in milliseconds producers wait for readers to match before their first write.
+     */
+    public long getMatchTimeoutMs()
+    {
+        return matchTimeoutMs;
+    }
+
+    /**
+     * @param matchTimeoutMs Maximum time in milliseconds producers wait for readers to match before their first write.
+     *                       Producers write anyway once it elapses.
+     */
+    public void setMatchTimeoutMs(long matchTimeoutMs)
+    {
+        if (matchTimeoutMs < 0) throw new IllegalArgumentException("Match timeout cannot be negative: " + matchTimeoutMs);
+        this.matchTimeoutMs = matchTimeoutMs;
+    }
+}
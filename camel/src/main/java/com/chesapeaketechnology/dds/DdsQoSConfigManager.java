@@ -7,9 +7,15 @@ import us.ihmc.pubsub.attributes.HistoryQosPolicy;
 import us.ihmc.pubsub.attributes.OwnerShipPolicyKind;
 import us.ihmc.pubsub.attributes.ReliabilityKind;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manager of quality-of-service configurations. Comes with two default configurations:
@@ -17,6 +23,9 @@ import java.util.Map;
  *     <li>{@link #CONFIG_LOW} - For low priority exchanges</li>
  *     <li>{@link #CONFIG_HIGH} - For higher priority exchanges</li>
  * </ul>
+ * Further configurations can be {@link #load(Path) loaded} from files, see {@link DdsQosConfigLoader} for their format.
+ * Configurations are shared by every camel context and component in the JVM, so files loaded by different components
+ * replace each other's profiles of the same name.
  *
  * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
  */
@@ -24,7 +33,9 @@ public class DdsQoSConfigManager
 {
     public static final String CONFIG_LOW = "low";
     public static final String CONFIG_HIGH = "high";
-    private static final Map<String, DdsQosConfig> schemeConfigurations = new HashMap<>();
+    private static final Map<String, DdsQosConfig> schemeConfigurations = new ConcurrentHashMap<>();
+    private static final Map<String, DdsQosConfig> defaultConfigurations = new HashMap<>();
+    private static final Map<Path, Set<String>> loadedNames = new HashMap<>();
     private static final Logger logger = LoggerFactory.getLogger(DdsQoSConfigManager.class);
 
     /**
@@ -36,6 +47,64 @@ public class DdsQoSConfigManager
         schemeConfigurations.put(config.getName(), config);
     }
 
+    /**
+     * Remove a config, restoring the default config of the same name if there is one.
+     *
+     * @param name Name of the config to remove.
+     */
+    public static void unregister(String name)
+    {
+        logger.trace("Unregister QoS config: {}", name);
+        DdsQosConfig defaultConfig = defaultConfigurations.get(name);
+        if (defaultConfig != null)
+        {
+            schemeConfigurations.put(name, defaultConfig);
+        } else
+        {
+            schemeConfigurations.remove(name);
+        }
+    }
+
+    /**
+     * Register every config in a file, replacing registered configs of the same name. When the file was loaded before,
+     * configs it no longer holds are {@link #unregister(String) unregistered}.
+     *
+     * @param file Properties, YAML or XML file of configs.
+     * @return Registered configs.
+     * @throws IOException When the file cannot be read.
+     */
+    public static List<DdsQosConfig> load(Path file) throws IOException
+    {
+        Path key = file.toAbsolutePath().normalize();
+        List<DdsQosConfig> configs = DdsQosConfigLoader.load(key);
+        logger.debug("Loaded {} QoS configs from: {}", configs.size(), key);
+        Set<String> names = new LinkedHashSet<>();
+        synchronized (loadedNames)
+        {
+            for (DdsQosConfig config : configs)
+            {
+                names.add(config.getName());
+                for (Map.Entry<Path, Set<String>> other : loadedNames.entrySet())
+                {
+                    if (!other.getKey().equals(key) && other.getValue().contains(config.getName()))
+                    {
+                        logger.warn("QoS config '{}' from {} replaces the one loaded from {}", config.getName(), key, other.getKey());
+                    }
+                }
+                register(config);
+            }
+            Set<String> previous = loadedNames.put(key, names);
+            if (previous != null)
+            {
+                previous.removeAll(names);
+                // Leave profiles that another loaded file still holds
+                loadedNames.values().forEach(previous::removeAll);
+                previous.forEach(DdsQoSConfigManager::unregister);
+            }
+        }
+        return configs;
+    }
+
     /**
      * @param name Name of config.
      * @return Saved config, or {@code null} if no matching config exists.
@@ -57,10 +126,19 @@ public class DdsQoSConfigManager
         return schemeConfigurations.values();
     }
 
+    /**
+     * @param config Default config, restored when a file replacing it no longer holds it.
+     */
+    private static void registerDefault(DdsQosConfig config)
+    {
+        defaultConfigurations.put(config.getName(), config);
+        register(config);
+    }
+
     static
     {
         // Setup low priority config
-        register(new DdsQosConfig(
+        registerDefault(new DdsQosConfig(
                 CONFIG_LOW,
                 ReliabilityKind.BEST_EFFORT,
                 DurabilityKind.VOLATILE_DURABILITY_QOS,
@@ -69,7 +147,7 @@ public class DdsQoSConfigManager
                 null // LivelinessQosPolicyKind
         ));
         // Setup high priority config
-        register(new DdsQosConfig(
+        registerDefault(new DdsQosConfig(
                 CONFIG_HIGH,
                 ReliabilityKind.RELIABLE,
                 DurabilityKind.TRANSIENT_LOCAL_DURABILITY_QOS,
@@ -2,17 +2,38 @@ package com.chesapeaketechnology.dds;
 
 import us.ihmc.pubsub.attributes.DurabilityKind;
 import us.ihmc.pubsub.attributes.HistoryQosPolicy;
+import us.ihmc.pubsub.attributes.MemoryManagementPolicy;
 import us.ihmc.pubsub.attributes.OwnerShipPolicyKind;
 import us.ihmc.pubsub.attributes.ReliabilityKind;
 import us.ihmc.rtps.impl.fastRTPS.LivelinessQosPolicyKind;
 
+import java.util.Objects;
+
 /**
  * Quality of service wrapper type. Contains configurable options for both DDS publishing and subscribing.
+ * Configs with tuning options beyond the policy kinds are created with {@link DdsQosConfigBuilder}.
+ * Configs are equal when their name and every option are equal.
  *
  * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
  */
 public class DdsQosConfig
 {
+    /**
+     * Period of a flow controller when only its bytes per period are configured.
+     */
+    public static final long DEFAULT_FLOW_PERIOD_MS = 100;
+    /**
+     * Maximum number of samples kept by a history when {@code maxSamples} is not configured, as defaulted by Fast-RTPS.
+     */
+    public static final int DEFAULT_MAX_SAMPLES = 5000;
+    /**
+     * Maximum number of instances kept by a history when {@code maxInstances} is not configured, as defaulted by Fast-RTPS.
+     */
+    public static final int DEFAULT_MAX_INSTANCES = 10;
+    /**
+     * Maximum number of samples kept per instance when {@code maxSamplesPerInstance} is not configured, as defaulted by Fast-RTPS.
+     */
+    public static final int DEFAULT_MAX_SAMPLES_PER_INSTANCE = 400;
     private final String name;
     private final ReliabilityKind reliability;
     private final DurabilityKind durability;
@@ -21,6 +42,17 @@ public class DdsQosConfig
     private final LivelinessQosPolicyKind livelinessPolicyKind;
 
     private final boolean asynchronous;
+    private final Integer historyDepth;
+    private final Long heartbeatPeriodMs;
+    private final Long nackResponseDelayMs;
+    private final Integer sendSocketBufferSize;
+    private final Integer receiveSocketBufferSize;
+    private final Integer flowBytesPerPeriod;
+    private final Long flowPeriodMs;
+    private final Integer maxSamples;
+    private final Integer maxInstances;
+    private final Integer maxSamplesPerInstance;
+    private final MemoryManagementPolicy historyMemoryPolicy;
 
     /**
      * Create a subscription config. Specifying {@code null} for a value will result in the defaults being used.
@@ -60,6 +92,45 @@ public class DdsQosConfig
         this.historyQosPolicyKind = historyQosPolicyKind;
         this.livelinessPolicyKind = livelinessPolicyKind;
         this.asynchronous = asynchronous;
+        this.historyDepth = null;
+        this.heartbeatPeriodMs = null;
+        this.nackResponseDelayMs = null;
+        this.sendSocketBufferSize = null;
+        this.receiveSocketBufferSize = null;
+        this.flowBytesPerPeriod = null;
+        this.flowPeriodMs = null;
+        this.maxSamples = null;
+        this.maxInstances = null;
+        this.maxSamplesPerInstance = null;
+        this.historyMemoryPolicy = null;
+    }
+
+    /**
+     * Create a config from a builder.
+     *
+     * @param builder Builder holding the config's values.
+     */
+    DdsQosConfig(DdsQosConfigBuilder builder)
+    {
+        this.name = builder.getName();
+        this.reliability = builder.getReliability();
+        this.durability = builder.getDurability();
+        this.ownerShipPolicy = builder.getOwnerShipPolicy();
+        this.historyQosPolicyKind = builder.getHistoryQosPolicyKind();
+        this.livelinessPolicyKind = builder.getLivelinessPolicyKind();
+        // Flow controllers only throttle asynchronous writers
+        this.asynchronous = builder.isAsynchronous() || builder.getFlowBytesPerPeriod() != null;
+        this.historyDepth = builder.getHistoryDepth();
+        this.heartbeatPeriodMs = builder.getHeartbeatPeriodMs();
+        this.nackResponseDelayMs = builder.getNackResponseDelayMs();
+        this.sendSocketBufferSize = builder.getSendSocketBufferSize();
+        this.receiveSocketBufferSize = builder.getReceiveSocketBufferSize();
+        this.flowBytesPerPeriod = builder.getFlowBytesPerPeriod();
+        this.flowPeriodMs = builder.getFlowPeriodMs() == null ? DEFAULT_FLOW_PERIOD_MS : builder.getFlowPeriodMs();
+        this.maxSamples = builder.getMaxSamples();
+        this.maxInstances = builder.getMaxInstances();
+        this.maxSamplesPerInstance = builder.getMaxSamplesPerInstance();
+        this.historyMemoryPolicy = builder.getHistoryMemoryPolicy();
     }
 
     /**
@@ -117,4 +188,174 @@ public class DdsQosConfig
     {
         return asynchronous;
     }
+
+    /**
+     * @return Number of samples kept per instance by keep-last history, or {@code null} for the default.
+     */
+    public Integer getHistoryDepth()
+    {
+        return historyDepth;
+    }
+
+    /**
+     * @return Period between heartbeats sent by reliable writers in milliseconds, or {@code null} for the default.
+     */
+    public Long getHeartbeatPeriodMs()
+    {
+        return heartbeatPeriodMs;
+    }
+
+    /**
+     * @return Delay before reliable writers answer negative acknowledgements in milliseconds, or {@code null} for the default.
+     */
+    public Long getNackResponseDelayMs()
+    {
+        return nackResponseDelayMs;
+    }
+
+    /**
+     * @return Size of the participant's send socket buffers in bytes, or {@code null} for the default.
+     */
+    public Integer getSendSocketBufferSize()
+    {
+        return sendSocketBufferSize;
+    }
+
+    /**
+     * @return Size of the participant's receive socket buffers in bytes, or {@code null} for the default.
+     */
+    public Integer getReceiveSocketBufferSize()
+    {
+        return receiveSocketBufferSize;
+    }
+
+    /**
+     * @return Maximum number of bytes each writer sends per {@link #getFlowPeriodMs() flow period},
+     * or {@code null} when writers are not throttled.
+     */
+    public Integer getFlowBytesPerPeriod()
+    {
+        return flowBytesPerPeriod;
+    }
+
+    /**
+     * @return Period in milliseconds over which {@link #getFlowBytesPerPeriod() flow bytes} are counted, or {@code null}
+     * when writers are not throttled.
+     */
+    public Long getFlowPeriodMs()
+    {
+        return flowBytesPerPeriod == null ? null : flowPeriodMs;
+    }
+
+    /**
+     * @return Maximum number of samples kept by a history, or {@code null} for the default.
+     */
+    public Integer getMaxSamples()
+    {
+        return maxSamples;
+    }
+
+    /**
+     * @return Maximum number of instances kept by a history, or {@code null} for the default.
+     */
+    public Integer getMaxInstances()
+    {
+        return maxInstances;
+    }
+
+    /**
+     * @return Maximum number of samples kept per instance by a history, or {@code null} for the default.
+     */
+    public Integer getMaxSamplesPerInstance()
+    {
+        return maxSamplesPerInstance;
+    }
+
+    /**
+     * @return How histories allocate memory for their samples, or {@code null} for the default.
+     */
+    public MemoryManagementPolicy getHistoryMemoryPolicy()
+    {
+        return historyMemoryPolicy;
+    }
+
+    /**
+     * Estimate how many samples a publisher's or subscriber's history may hold. Keep-last histories hold their depth
+     * for each instance, keep-all histories hold up to {@code maxSamplesPerInstance} for each instance, and both are bounded
+     * by {@code maxSamples}. Resource limits that are not configured take the middleware's defaults, so the estimate is
+     * always finite.
+     *
+     * @return Maximum number of samples held by a history.
+     */
+    public long getHistoryCapacity()
+    {
+        long samples = maxSamples == null ? DEFAULT_MAX_SAMPLES : maxSamples;
+        long instances = maxInstances == null ? DEFAULT_MAX_INSTANCES : maxInstances;
+        long perInstance = maxSamplesPerInstance == null ? DEFAULT_MAX_SAMPLES_PER_INSTANCE : maxSamplesPerInstance;
+        if (historyQosPolicyKind != HistoryQosPolicy.HistoryQosPolicyKind.KEEP_ALL_HISTORY_QOS)
+        {
+            // Keep last is the DDS default, with a depth of one
+            perInstance = Math.min(perInstance, historyDepth == null ? 1 : historyDepth);
+        }
+        return Math.min(samples, perInstance * instances);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof DdsQosConfig)) return false;
+        DdsQosConfig other = (DdsQosConfig) o;
+        return asynchronous == other.asynchronous
+                && Objects.equals(name, other.name)
+                && Objects.equals(reliability, other.reliability)
+                && Objects.equals(durability, other.durability)
+                && Objects.equals(ownerShipPolicy, other.ownerShipPolicy)
+                && Objects.equals(historyQosPolicyKind, other.historyQosPolicyKind)
+                && Objects.equals(livelinessPolicyKind, other.livelinessPolicyKind)
+                && Objects.equals(historyDepth, other.historyDepth)
+                && Objects.equals(heartbeatPeriodMs, other.heartbeatPeriodMs)
+                && Objects.equals(nackResponseDelayMs, other.nackResponseDelayMs)
+                && Objects.equals(sendSocketBufferSize, other.sendSocketBufferSize)
+                && Objects.equals(receiveSocketBufferSize, other.receiveSocketBufferSize)
+                && Objects.equals(flowBytesPerPeriod, other.flowBytesPerPeriod)
+                && Objects.equals(flowPeriodMs, other.flowPeriodMs)
+                && Objects.equals(maxSamples, other.maxSamples)
+                && Objects.equals(maxInstances, other.maxInstances)
+                && Objects.equals(maxSamplesPerInstance, other.maxSamplesPerInstance)
+                && Objects.equals(historyMemoryPolicy, other.historyMemoryPolicy);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(name, reliability, durability, ownerShipPolicy, historyQosPolicyKind, livelinessPolicyKind, asynchronous,
+                historyDepth, heartbeatPeriodMs, nackResponseDelayMs, sendSocketBufferSize, receiveSocketBufferSize, flowBytesPerPeriod,
+                flowPeriodMs, maxSamples, maxInstances, maxSamplesPerInstance, historyMemoryPolicy);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DdsQosConfig{" +
+                "name='" + name + '\'' +
+                ", reliability=" + reliability +
+                ", durability=" + durability +
+                ", ownerShipPolicy=" + ownerShipPolicy +
+                ", historyQosPolicyKind=" + historyQosPolicyKind +
+                ", historyDepth=" + historyDepth +
+                ", livelinessPolicyKind=" + livelinessPolicyKind +
+                ", asynchronous=" + asynchronous +
+                ", heartbeatPeriodMs=" + heartbeatPeriodMs +
+                ", nackResponseDelayMs=" + nackResponseDelayMs +
+                ", sendSocketBufferSize=" + sendSocketBufferSize +
+                ", receiveSocketBufferSize=" + receiveSocketBufferSize +
+                ", flowBytesPerPeriod=" + flowBytesPerPeriod +
+                ", flowPeriodMs=" + getFlowPeriodMs() +
+                ", maxSamples=" + maxSamples +
+                ", maxInstances=" + maxInstances +
+                ", maxSamplesPerInstance=" + maxSamplesPerInstance +
+                ", historyMemoryPolicy=" + historyMemoryPolicy +
+                '}';
+    }
 }
@@ -0,0 +1,473 @@
+package com.chesapeaketechnology.dds;
+
+import us.ihmc.pubsub.attributes.DurabilityKind;
+import us.ihmc.pubsub.attributes.HistoryQosPolicy;
+import us.ihmc.pubsub.attributes.MemoryManagementPolicy;
+import us.ihmc.pubsub.attributes.OwnerShipPolicyKind;
+import us.ihmc.pubsub.attributes.ReliabilityKind;
+import us.ihmc.rtps.impl.fastRTPS.LivelinessQosPolicyKind;
+
+/**
+ * Builder for {@link DdsQosConfig quality of service configs}. Values that are not set use the DDS implementation's defaults.
+ * Example usage:
+ * <pre>
+ * DdsQosConfigBuilder.create("telemetry")
+ *     .reliability(ReliabilityKind.RELIABLE)
+ *     .history(HistoryQosPolicy.HistoryQosPolicyKind.KEEP_LAST_HISTORY_QOS, 50)
+ *     .heartbeatPeriodMs(100)
+ *     .build();
+ * </pre>
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsQosConfigBuilder
+{
+    private final String name;
+    private ReliabilityKind reliability;
+    private DurabilityKind durability;
+    private OwnerShipPolicyKind ownerShipPolicy;
+    private HistoryQosPolicy.HistoryQosPolicyKind historyQosPolicyKind;
+    private LivelinessQosPolicyKind livelinessPolicyKind;
+    private boolean asynchronous;
+    private Integer historyDepth;
+    private Long heartbeatPeriodMs;
+    private Long nackResponseDelayMs;
+    private Integer sendSocketBufferSize;
+    private Integer receiveSocketBufferSize;
+    private Integer flowBytesPerPeriod;
+    private Long flowPeriodMs;
+    private Integer maxSamples;
+    private Integer maxInstances;
+    private Integer maxSamplesPerInstance;
+    private MemoryManagementPolicy historyMemoryPolicy;
+
+    private DdsQosConfigBuilder(String name)
+    {
+        if (name == null || name.isEmpty()) throw new IllegalArgumentException("QoS config name cannot be empty!");
+        this.name = name;
+    }
+
+    /**
+     * @param name Config name, as referenced by the {@code qos} option of endpoint uris.
+     * @return New builder instance.
+     */
+    public static DdsQosConfigBuilder create(String name)
+    {
+        return new DdsQosConfigBuilder(name);
+    }
+
+    /**
+     * @param name Config name, as referenced by the {@code qos} option of endpoint uris.
+     * @param base Config to start from, its values are copied into the builder.
+     * @return New builder instance.
+     */
+    public static DdsQosConfigBuilder create(String name, DdsQosConfig base)
+    {
+        DdsQosConfigBuilder builder = new DdsQosConfigBuilder(name);
+        builder.reliability = base.getReliability();
+        builder.durability = base.getDurability();
+        builder.ownerShipPolicy = base.getOwnerShipPolicy();
+        builder.historyQosPolicyKind = base.getHistoryQosPolicyKind();
+        builder.livelinessPolicyKind = base.getLivelinessPolicyKind();
+        builder.asynchronous = base.isAsynchronous();
+        builder.historyDepth = base.getHistoryDepth();
+        builder.heartbeatPeriodMs = base.getHeartbeatPeriodMs();
+        builder.nackResponseDelayMs = base.getNackResponseDelayMs();
+        builder.sendSocketBufferSize = base.getSendSocketBufferSize();
+        builder.receiveSocketBufferSize = base.getReceiveSocketBufferSize();
+        builder.flowBytesPerPeriod = base.getFlowBytesPerPeriod();
+        builder.flowPeriodMs = base.getFlowPeriodMs();
+        builder.maxSamples = base.getMaxSamples();
+        builder.maxInstances = base.getMaxInstances();
+        builder.maxSamplesPerInstance = base.getMaxSamplesPerInstance();
+        builder.historyMemoryPolicy = base.getHistoryMemoryPolicy();
+        return builder;
+    }
+
+    /**
+     * @param reliability Reliability of config.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder reliability(ReliabilityKind reliability)
+    {
+        this.reliability = reliability;
+        return this;
+    }
+
+    /**
+     * @param durability Durability of config.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder durability(DurabilityKind durability)
+    {
+        this.durability = durability;
+        return this;
+    }
+
+    /**
+     * @param ownerShipPolicy Ownership policy of config.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder ownership(OwnerShipPolicyKind ownerShipPolicy)
+    {
+        this.ownerShipPolicy = ownerShipPolicy;
+        return this;
+    }
+
+    /**
+     * @param historyQosPolicyKind History policy of config.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder history(HistoryQosPolicy.HistoryQosPolicyKind historyQosPolicyKind)
+    {
+        this.historyQosPolicyKind = historyQosPolicyKind;
+        return this;
+    }
+
+    /**
+     * @param historyQosPolicyKind History policy of config.
+     * @param depth                Number of samples kept per instance by keep-last history.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder history(HistoryQosPolicy.HistoryQosPolicyKind historyQosPolicyKind, int depth)
+    {
+        return history(historyQosPolicyKind).historyDepth(depth);
+    }
+
+    /**
+     * @param depth Number of samples kept per instance by keep-last history.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder historyDepth(int depth)
+    {
+        if (depth < 1) throw new IllegalArgumentException("History depth must be positive: " + depth);
+        this.historyDepth = depth;
+        return this;
+    }
+
+    /**
+     * @param livelinessPolicyKind Liveliness policy of config.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder liveliness(LivelinessQosPolicyKind livelinessPolicyKind)
+    {
+        this.livelinessPolicyKind = livelinessPolicyKind;
+        return this;
+    }
+
+    /**
+     * @param asynchronous {@code true} for asynchronous message sending. {@code false} for synchronous sending.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder asynchronous(boolean asynchronous)
+    {
+        this.asynchronous = asynchronous;
+        return this;
+    }
+
+    /**
+     * @param heartbeatPeriodMs Period between heartbeats sent by reliable writers in milliseconds.
+     *                          Shorter periods repair lost samples sooner, at the cost of more traffic.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder heartbeatPeriodMs(long heartbeatPeriodMs)
+    {
+        if (heartbeatPeriodMs < 1) throw new IllegalArgumentException("Heartbeat period must be positive: " + heartbeatPeriodMs);
+        this.heartbeatPeriodMs = heartbeatPeriodMs;
+        return this;
+    }
+
+    /**
+     * @param nackResponseDelayMs Delay before reliable writers answer negative acknowledgements in milliseconds,
+     *                            letting several readers' requests be answered by one repair.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder nackResponseDelayMs(long nackResponseDelayMs)
+    {
+        if (nackResponseDelayMs < 0) throw new IllegalArgumentException("NACK response delay cannot be negative: " + nackResponseDelayMs);
+        this.nackResponseDelayMs = nackResponseDelayMs;
+        return this;
+    }
+
+    /**
+     * @param sendSocketBufferSize Size of the participant's send socket buffers in bytes.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder sendSocketBufferSize(int sendSocketBufferSize)
+    {
+        if (sendSocketBufferSize < 1) throw new IllegalArgumentException("Send buffer size must be positive: " + sendSocketBufferSize);
+        this.sendSocketBufferSize = sendSocketBufferSize;
+        return this;
+    }
+
+    /**
+     * @param receiveSocketBufferSize Size of the participant's receive socket buffers in bytes.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder receiveSocketBufferSize(int receiveSocketBufferSize)
+    {
+        if (receiveSocketBufferSize < 1) throw new IllegalArgumentException("Receive buffer size must be positive: " + receiveSocketBufferSize);
+        this.receiveSocketBufferSize = receiveSocketBufferSize;
+        return this;
+    }
+
+    /**
+     * Throttle each writer with a flow controller, so large bursts are sent over several periods instead of flooding the network.
+     * Flow controllers only apply to asynchronous publishing, which this turns on.
+     *
+     * @param bytesPerPeriod Maximum number of bytes each writer sends per period.
+     * @param periodMs       Period in milliseconds over which sent bytes are counted.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder flowControl(int bytesPerPeriod, long periodMs)
+    {
+        return flowBytesPerPeriod(bytesPerPeriod).flowPeriodMs(periodMs);
+    }
+
+    /**
+     * Throttle each writer with a flow controller, counting bytes over {@link DdsQosConfig#DEFAULT_FLOW_PERIOD_MS the default
+     * period} unless {@link #flowPeriodMs(long) set}. Flow controllers only apply to asynchronous publishing, which this turns on.
+     *
+     * @param bytesPerPeriod Maximum number of bytes each writer sends per period.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder flowBytesPerPeriod(int bytesPerPeriod)
+    {
+        if (bytesPerPeriod < 1) throw new IllegalArgumentException("Flow bytes per period must be positive: " + bytesPerPeriod);
+        this.flowBytesPerPeriod = bytesPerPeriod;
+        return this;
+    }
+
+    /**
+     * @param periodMs Period in milliseconds over which the {@link #flowBytesPerPeriod(int) flow controller} counts sent bytes.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder flowPeriodMs(long periodMs)
+    {
+        if (periodMs < 1) throw new IllegalArgumentException("Flow period must be positive: " + periodMs);
+        this.flowPeriodMs = periodMs;
+        return this;
+    }
+
+    /**
+     * Bound the samples kept by histories. With keep-all history a reliable writer whose history is full waits for
+     * readers to acknowledge samples instead of dropping them, so durability guarantees are kept while memory stays bounded.
+     *
+     * @param maxSamples            Maximum number of samples kept by a history.
+     * @param maxInstances          Maximum number of instances kept by a history.
+     * @param maxSamplesPerInstance Maximum number of samples kept per instance.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder resourceLimits(int maxSamples, int maxInstances, int maxSamplesPerInstance)
+    {
+        return maxSamples(maxSamples).maxInstances(maxInstances).maxSamplesPerInstance(maxSamplesPerInstance);
+    }
+
+    /**
+     * @param maxSamples Maximum number of samples kept by a history.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder maxSamples(int maxSamples)
+    {
+        if (maxSamples < 1) throw new IllegalArgumentException("Max samples must be positive: " + maxSamples);
+        this.maxSamples = maxSamples;
+        return this;
+    }
+
+    /**
+     * @param maxInstances Maximum number of instances kept by a history.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder maxInstances(int maxInstances)
+    {
+        if (maxInstances < 1) throw new IllegalArgumentException("Max instances must be positive: " + maxInstances);
+        this.maxInstances = maxInstances;
+        return this;
+    }
+
+    /**
+     * @param maxSamplesPerInstance Maximum number of samples kept per instance by a history.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder maxSamplesPerInstance(int maxSamplesPerInstance)
+    {
+        if (maxSamplesPerInstance < 1) throw new IllegalArgumentException("Max samples per instance must be positive: " + maxSamplesPerInstance);
+        this.maxSamplesPerInstance = maxSamplesPerInstance;
+        return this;
+    }
+
+    /**
+     * @param historyMemoryPolicy How histories allocate memory for their samples. Preallocated histories reserve room
+     *                            for the largest serialized sample up front, dynamic ones allocate each sample's actual size.
+     * @return Builder instance.
+     */
+    public DdsQosConfigBuilder historyMemoryPolicy(MemoryManagementPolicy historyMemoryPolicy)
+    {
+        this.historyMemoryPolicy = historyMemoryPolicy;
+        return this;
+    }
+
+    /**
+     * @return Config with the builder's values.
+     */
+    public DdsQosConfig build()
+    {
+        // Reject limits that DDS would reject when creating the publisher or subscriber
+        if (maxSamples != null && maxSamplesPerInstance != null && maxSamplesPerInstance > maxSamples)
+        {
+            throw new IllegalArgumentException("Max samples per instance (" + maxSamplesPerInstance
+                    + ") cannot exceed max samples: " + maxSamples);
+        }
+        if (historyQosPolicyKind != HistoryQosPolicy.HistoryQosPolicyKind.KEEP_ALL_HISTORY_QOS && historyDepth != null
+                && maxSamplesPerInstance != null && historyDepth > maxSamplesPerInstance)
+        {
+            throw new IllegalArgumentException("History depth (" + historyDepth
+                    + ") cannot exceed max samples per instance: " + maxSamplesPerInstance);
+        }
+        return new DdsQosConfig(this);
+    }
+
+    /**
+     * @return Config name.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return Reliability of config.
+     */
+    public ReliabilityKind getReliability()
+    {
+        return reliability;
+    }
+
+    /**
+     * @return Durability of config.
+     */
+    public DurabilityKind getDurability()
+    {
+        return durability;
+    }
+
+    /**
+     * @return Ownership policy of config.
+     */
+    public OwnerShipPolicyKind getOwnerShipPolicy()
+    {
+        return ownerShipPolicy;
+    }
+
+    /**
+     * @return History policy of config.
+     */
+    public HistoryQosPolicy.HistoryQosPolicyKind getHistoryQosPolicyKind()
+    {
+        return historyQosPolicyKind;
+    }
+
+    /**
+     * @return Liveliness policy of config.
+     */
+    public LivelinessQosPolicyKind getLivelinessPolicyKind()
+    {
+        return livelinessPolicyKind;
+    }
+
+    /**
+     * @return {@code true} for asynchronous message sending. {@code false} for synchronous sending.
+     */
+    public boolean isAsynchronous()
+    {
+        return asynchronous;
+    }
+
+    /**
+     * @return Number of samples kept per instance by keep-last history, or {@code null} for the default.
+     */
+    public Integer getHistoryDepth()
+    {
+        return historyDepth;
+    }
+
+    /**
+     * @return Period between heartbeats sent by reliable writers in milliseconds, or {@code null} for the default.
+     */
+    public Long getHeartbeatPeriodMs()
+    {
+        return heartbeatPeriodMs;
+    }
+
+    /**
+     * @return Delay before reliable writers answer negative acknowledgements in milliseconds, or {@code null} for the default.
+     */
+    public Long getNackResponseDelayMs()
+    {
+        return nackResponseDelayMs;
+    }
+
+    /**
+     * @return Size of the participant's send socket buffers in bytes, or {@code null} for the default.
+     */
+    public Integer getSendSocketBufferSize()
+    {
+        return sendSocketBufferSize;
+    }
+
+    /**
+     * @return Size of the participant's receive socket buffers in bytes, or {@code null} for the default.
+     */
+    public Integer getReceiveSocketBufferSize()
+    {
+        return receiveSocketBufferSize;
+    }
+
+    /**
+     * @return Maximum number of bytes each writer sends per flow period, or {@code null} when writers are not throttled.
+     */
+    public Integer getFlowBytesPerPeriod()
+    {
+        return flowBytesPerPeriod;
+    }
+
+    /**
+     * @return Period in milliseconds over which flow bytes are counted, or {@code null} for the default.
+     */
+    public Long getFlowPeriodMs()
+    {
+        return flowPeriodMs;
+    }
+
+    /**
+     * @return Maximum number of samples kept by a history, or {@code null} for the default.
+     */
+    public Integer getMaxSamples()
+    {
+        return maxSamples;
+    }
+
+    /**
+     * @return Maximum number of instances kept by a history, or {@code null} for the default.
+     */
+    public Integer getMaxInstances()
+    {
+        return maxInstances;
+    }
+
+    /**
+     * @return Maximum number of samples kept per instance by a history, or {@code null} for the default.
+     */
+    public Integer getMaxSamplesPerInstance()
+    {
+        return maxSamplesPerInstance;
+    }
+
+    /**
+     * @return How histories allocate memory for their samples, or {@code null} for the default.
+     */
+    public MemoryManagementPolicy getHistoryMemoryPolicy()
+    {
+        return historyMemoryPolicy;
+    }
+}
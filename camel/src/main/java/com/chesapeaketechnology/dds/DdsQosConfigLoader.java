@@ -0,0 +1,291 @@
+package com.chesapeaketechnology.dds;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import us.ihmc.pubsub.attributes.DurabilityKind;
+import us.ihmc.pubsub.attributes.HistoryQosPolicy;
+import us.ihmc.pubsub.attributes.MemoryManagementPolicy;
+import us.ihmc.pubsub.attributes.OwnerShipPolicyKind;
+import us.ihmc.pubsub.attributes.ReliabilityKind;
+import us.ihmc.rtps.impl.fastRTPS.LivelinessQosPolicyKind;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads {@link DdsQosConfig quality of service configs} from properties, YAML or XML files, chosen by the file's extension.
+ * Each format describes named profiles, holding any of the following settings:
+ * <ul>
+ *     <li>{@code reliability} - {@link ReliabilityKind} name, such as {@code RELIABLE}</li>
+ *     <li>{@code durability} - {@link DurabilityKind} name, such as {@code VOLATILE_DURABILITY_QOS}</li>
+ *     <li>{@code ownership} - {@link OwnerShipPolicyKind} name, such as {@code SHARED_OWNERSHIP_QOS}</li>
+ *     <li>{@code history} - {@link HistoryQosPolicy.HistoryQosPolicyKind} name, such as {@code KEEP_LAST_HISTORY_QOS}</li>
+ *     <li>{@code historyDepth} - Samples kept per instance by keep-last history</li>
+ *     <li>{@code liveliness} - {@link LivelinessQosPolicyKind} name</li>
+ *     <li>{@code asyncPublish} - {@code true} to publish asynchronously</li>
+ *     <li>{@code heartbeatPeriodMs} - Period between heartbeats of reliable writers</li>
+ *     <li>{@code nackResponseDelayMs} - Delay before reliable writers answer negative acknowledgements</li>
+ *     <li>{@code sendSocketBufferSize} - Participant send socket buffer size in bytes</li>
+ *     <li>{@code receiveSocketBufferSize} - Participant receive socket buffer size in bytes</li>
+ *     <li>{@code flowBytesPerPeriod} - Bytes each writer may send per flow period, turning on asynchronous publishing</li>
+ *     <li>{@code flowPeriodMs} - Flow period in milliseconds</li>
+ *     <li>{@code maxSamples}, {@code maxInstances}, {@code maxSamplesPerInstance} - History resource limits</li>
+ *     <li>{@code historyMemoryPolicy} - {@link MemoryManagementPolicy} name, such as {@code DYNAMIC_RESERVE_MEMORY_MODE}</li>
+ * </ul>
+ * Properties files use {@code <profile>.<setting>=<value>} keys, YAML files map each profile name to its settings,
+ * and XML files hold {@code <profile name="...">} elements with one child element per setting.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsQosConfigLoader
+{
+    private static final String XML_PROFILE = "profile";
+    private static final String XML_NAME = "name";
+
+    private DdsQosConfigLoader()
+    {
+        // Static utility
+    }
+
+    /**
+     * @param file Properties ({@code .properties}), YAML ({@code .yml}, {@code .yaml}) or XML ({@code .xml}) file.
+     * @return Configs of every profile in the file.
+     * @throws IOException When the file cannot be read.
+     */
+    public static List<DdsQosConfig> load(Path file) throws IOException
+    {
+        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        try (InputStream input = Files.newInputStream(file))
+        {
+            if (fileName.endsWith(".properties"))
+            {
+                return loadProperties(input);
+            } else if (fileName.endsWith(".yml") || fileName.endsWith(".yaml"))
+            {
+                return loadYaml(input);
+            } else if (fileName.endsWith(".xml"))
+            {
+                return loadXml(input);
+            }
+        } catch (IllegalArgumentException ex)
+        {
+            throw new IllegalArgumentException("Invalid QoS config file '" + file + "': " + ex.getMessage(), ex);
+        }
+        throw new IllegalArgumentException("Unsupported QoS config file type, expected properties, yml or xml: " + file);
+    }
+
+    /**
+     * @param input Properties with {@code <profile>.<setting>=<value>} entries.
+     * @return Configs of every profile in the properties.
+     * @throws IOException When the properties cannot be read.
+     */
+    public static List<DdsQosConfig> loadProperties(InputStream input) throws IOException
+    {
+        Properties properties = new Properties();
+        properties.load(input);
+        Map<String, Map<String, String>> profiles = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames())
+        {
+            int separator = key.lastIndexOf('.');
+            if (separator < 1) throw new IllegalArgumentException("Expected <profile>.<setting> key: " + key);
+            profiles.computeIfAbsent(key.substring(0, separator), name -> new LinkedHashMap<>())
+                    .put(key.substring(separator + 1), properties.getProperty(key));
+        }
+        return toConfigs(profiles);
+    }
+
+    /**
+     * @param input YAML document mapping each profile name to its settings.
+     * @return Configs of every profile in the document.
+     */
+    public static List<DdsQosConfig> loadYaml(InputStream input)
+    {
+        // Only plain maps, lists and scalars, never arbitrary classes named by tags
+        Object document = new Yaml(new SafeConstructor()).load(input);
+        Map<String, Map<String, String>> profiles = new LinkedHashMap<>();
+        if (document == null)
+        {
+            return toConfigs(profiles);
+        }
+        if (!(document instanceof Map)) throw new IllegalArgumentException("Expected a mapping of profile names to settings");
+        for (Map.Entry<?, ?> profile : ((Map<?, ?>) document).entrySet())
+        {
+            if (!(profile.getValue() instanceof Map))
+            {
+                throw new IllegalArgumentException("Expected a mapping of settings for profile: " + profile.getKey());
+            }
+            Map<String, String> settings = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> setting : ((Map<?, ?>) profile.getValue()).entrySet())
+            {
+                settings.put(String.valueOf(setting.getKey()), String.valueOf(setting.getValue()));
+            }
+            profiles.put(String.valueOf(profile.getKey()), settings);
+        }
+        return toConfigs(profiles);
+    }
+
+    /**
+     * @param input XML document holding {@code <profile name="...">} elements.
+     * @return Configs of every profile in the document.
+     * @throws IOException When the document cannot be read.
+     */
+    public static List<DdsQosConfig> loadXml(InputStream input) throws IOException
+    {
+        Document document;
+        try
+        {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            // Profiles never need external entities, so do not resolve any
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setExpandEntityReferences(false);
+            document = factory.newDocumentBuilder().parse(input);
+        } catch (ParserConfigurationException | SAXException ex)
+        {
+            throw new IllegalArgumentException("Malformed XML: " + ex.getMessage(), ex);
+        }
+        Map<String, Map<String, String>> profiles = new LinkedHashMap<>();
+        NodeList profileElements = document.getElementsByTagName(XML_PROFILE);
+        for (int i = 0; i < profileElements.getLength(); i++)
+        {
+            Element profile = (Element) profileElements.item(i);
+            String name = profile.getAttribute(XML_NAME);
+            if (name.isEmpty()) throw new IllegalArgumentException("Profile element is missing its name attribute");
+            Map<String, String> settings = new LinkedHashMap<>();
+            NodeList children = profile.getChildNodes();
+            for (int j = 0; j < children.getLength(); j++)
+            {
+                Node child = children.item(j);
+                if (child.getNodeType() == Node.ELEMENT_NODE)
+                {
+                    settings.put(child.getNodeName(), child.getTextContent().trim());
+                }
+            }
+            profiles.put(name, settings);
+        }
+        return toConfigs(profiles);
+    }
+
+    /**
+     * @param profiles Settings by profile name.
+     * @return Config of each profile.
+     */
+    private static List<DdsQosConfig> toConfigs(Map<String, Map<String, String>> profiles)
+    {
+        List<DdsQosConfig> configs = new ArrayList<>();
+        for (Map.Entry<String, Map<String, String>> profile : profiles.entrySet())
+        {
+            DdsQosConfigBuilder builder = DdsQosConfigBuilder.create(profile.getKey());
+            for (Map.Entry<String, String> setting : profile.getValue().entrySet())
+            {
+                try
+                {
+                    apply(builder, setting.getKey(), setting.getValue().trim());
+                } catch (IllegalArgumentException ex)
+                {
+                    throw new IllegalArgumentException("Invalid setting '" + setting.getKey() + "' of profile '" + profile.getKey()
+                            + "': " + ex.getMessage(), ex);
+                }
+            }
+            try
+            {
+                configs.add(builder.build());
+            } catch (IllegalArgumentException ex)
+            {
+                throw new IllegalArgumentException("Invalid profile '" + profile.getKey() + "': " + ex.getMessage(), ex);
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * @param builder Builder of the profile's config.
+     * @param setting Setting name.
+     * @param value   Setting value.
+     */
+    private static void apply(DdsQosConfigBuilder builder, String setting, String value)
+    {
+        switch (setting)
+        {
+            case "reliability":
+                builder.reliability(toEnum(ReliabilityKind.class, value));
+                break;
+            case "durability":
+                builder.durability(toEnum(DurabilityKind.class, value));
+                break;
+            case "ownership":
+                builder.ownership(toEnum(OwnerShipPolicyKind.class, value));
+                break;
+            case "history":
+                builder.history(toEnum(HistoryQosPolicy.HistoryQosPolicyKind.class, value));
+                break;
+            case "historyDepth":
+                builder.historyDepth(Integer.parseInt(value));
+                break;
+            case "liveliness":
+                builder.liveliness(toEnum(LivelinessQosPolicyKind.class, value));
+                break;
+            case "asyncPublish":
+                builder.asynchronous(Boolean.parseBoolean(value));
+                break;
+            case "heartbeatPeriodMs":
+                builder.heartbeatPeriodMs(Long.parseLong(value));
+                break;
+            case "nackResponseDelayMs":
+                builder.nackResponseDelayMs(Long.parseLong(value));
+                break;
+            case "sendSocketBufferSize":
+                builder.sendSocketBufferSize(Integer.parseInt(value));
+                break;
+            case "receiveSocketBufferSize":
+                builder.receiveSocketBufferSize(Integer.parseInt(value));
+                break;
+            case "flowBytesPerPeriod":
+                builder.flowBytesPerPeriod(Integer.parseInt(value));
+                break;
+            case "flowPeriodMs":
+                builder.flowPeriodMs(Long.parseLong(value));
+                break;
+            case "maxSamples":
+                builder.maxSamples(Integer.parseInt(value));
+                break;
+            case "maxInstances":
+                builder.maxInstances(Integer.parseInt(value));
+                break;
+            case "maxSamplesPerInstance":
+                builder.maxSamplesPerInstance(Integer.parseInt(value));
+                break;
+            case "historyMemoryPolicy":
+                builder.historyMemoryPolicy(toEnum(MemoryManagementPolicy.class, value));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown setting");
+        }
+    }
+
+    /**
+     * @param type  Enum type.
+     * @param value Constant name, in any case.
+     * @param <E>   Enum type.
+     * @return Named constant.
+     */
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String value)
+    {
+        return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,131 @@
+package com.chesapeaketechnology.dds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reloads a QoS config file into {@link DdsQoSConfigManager} whenever it changes. Reloaded profiles apply to
+ * DDS entities created afterwards, entities already created keep the QoS they were created with.
+ * Profiles removed from the file are unregistered.
+ * A file that fails to load is logged and the previously loaded profiles are kept.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsQosConfigWatcher implements Runnable, Closeable
+{
+    private static final Logger logger = LoggerFactory.getLogger(DdsQosConfigWatcher.class);
+    // Editors often write a file in several steps, so wait for them to finish before reloading
+    private static final long SETTLE_MS = 100;
+    private final Path file;
+    private final WatchService watchService;
+    private final AtomicLong reloads = new AtomicLong();
+
+    /**
+     * Create the watcher, changes are only noticed once it is {@link #run() running}.
+     *
+     * @param file QoS config file to watch.
+     * @throws IOException When the file's directory cannot be watched.
+     */
+    public DdsQosConfigWatcher(Path file) throws IOException
+    {
+        this.file = file.toAbsolutePath();
+        watchService = this.file.getFileSystem().newWatchService();
+        // Files replaced by renaming show up as created rather than modified
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * Watch for changes until {@link #close() closed}.
+     */
+    @Override
+    public void run()
+    {
+        try
+        {
+            while (true)
+            {
+                if (isChanged(watchService.take()))
+                {
+                    // Drain the rest of the changes made while settling
+                    Thread.sleep(SETTLE_MS);
+                    WatchKey key;
+                    while ((key = watchService.poll()) != null)
+                    {
+                        isChanged(key);
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex)
+        {
+            // Closed, stop watching
+        }
+    }
+
+    /**
+     * @return Number of times the file has been reloaded successfully.
+     */
+    public long getReloadCount()
+    {
+        return reloads.get();
+    }
+
+    /**
+     * @return QoS config file being watched.
+     */
+    public Path getFile()
+    {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        watchService.close();
+    }
+
+    /**
+     * @param key Key with pending events of the file's directory.
+     * @return {@code true} when the file is among the changed entries.
+     */
+    private boolean isChanged(WatchKey key)
+    {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents())
+        {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context());
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Load the file, keeping the current profiles if it cannot be loaded.
+     */
+    private void reload()
+    {
+        try
+        {
+            List<DdsQosConfig> configs = DdsQoSConfigManager.load(file);
+            reloads.incrementAndGet();
+            logger.info("Reloaded {} QoS configs from: {}", configs.size(), file);
+        } catch (IOException | RuntimeException ex)
+        {
+            logger.error("Failed to reload QoS configs, keeping the previous configs: " + file, ex);
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.chesapeaketechnology.dds;
 
+import us.ihmc.pubsub.attributes.ParticipantAttributes;
 import us.ihmc.pubsub.attributes.PublishModeKind;
 import us.ihmc.pubsub.attributes.PublisherAttributes;
 import us.ihmc.pubsub.attributes.QosInterface;
 import us.ihmc.pubsub.attributes.ReliabilityKind;
+import us.ihmc.pubsub.attributes.ResourceLimitsQosPolicy;
 import us.ihmc.pubsub.attributes.SubscriberAttributes;
+import us.ihmc.pubsub.attributes.TopicAttributes;
+import us.ihmc.rtps.impl.fastRTPS.FastRTPSParticipantAttributes;
+import us.ihmc.rtps.impl.fastRTPS.FastRTPSPublisherAttributes;
 import us.ihmc.rtps.impl.fastRTPS.FastRTPSSubscriberAttributes;
 import us.ihmc.rtps.impl.fastRTPS.LivelinessQosPolicy;
+import us.ihmc.rtps.impl.fastRTPS.RTPSParticipantAttributes;
+import us.ihmc.rtps.impl.fastRTPS.ThroughputControllerDescriptor;
 import us.ihmc.rtps.impl.fastRTPS.ReaderQos;
+import us.ihmc.rtps.impl.fastRTPS.Time_t;
+import us.ihmc.rtps.impl.fastRTPS.WriterTimes;
 
 /**
  * Applies QoS configs.
@@ -37,6 +46,8 @@ public class DdsQosConfigurator
     public void configureSubscriber(SubscriberAttributes attributes)
     {
         configureCommon(attributes.getQos());
+        configureHistory(attributes.getTopic());
+        if (config.getHistoryMemoryPolicy() != null) attributes.setHistoryMemoryPolicy(config.getHistoryMemoryPolicy());
         if (attributes instanceof FastRTPSSubscriberAttributes) configureFastRTPSSubscriber(attributes);
     }
 
@@ -68,8 +79,60 @@ public class DdsQosConfigurator
         {
             attributes.getTopic().getHistoryQos().setKind(config.getHistoryQosPolicyKind());
         }
+        configureHistory(attributes.getTopic());
+        if (config.getHistoryMemoryPolicy() != null) attributes.setHistoryMemoryPolicy(config.getHistoryMemoryPolicy());
         attributes.getQos().setPublishMode(
                 config.isAsynchronous() ? PublishModeKind.ASYNCHRONOUS_PUBLISH_MODE : PublishModeKind.SYNCHRONOUS_PUBLISH_MODE);
+        if (attributes instanceof FastRTPSPublisherAttributes) configureFastRTPSPublisher((FastRTPSPublisherAttributes) attributes);
+    }
+
+    /**
+     * Configure a FastRTPS publisher's reliable writer timing and flow controller with the current config.
+     *
+     * @param attributes publisher's attributes to configure.
+     */
+    private void configureFastRTPSPublisher(FastRTPSPublisherAttributes attributes)
+    {
+        WriterTimes times = attributes.getTimes();
+        if (config.getHeartbeatPeriodMs() != null) times.setHeartbeatPeriod(toTime(config.getHeartbeatPeriodMs()));
+        if (config.getNackResponseDelayMs() != null) times.setNackResponseDelay(toTime(config.getNackResponseDelayMs()));
+        if (config.getFlowBytesPerPeriod() != null)
+        {
+            ThroughputControllerDescriptor flow = new ThroughputControllerDescriptor();
+            flow.setBytesPerPeriod(config.getFlowBytesPerPeriod());
+            flow.setPeriodMillis(config.getFlowPeriodMs());
+            attributes.setThroughputController(flow);
+        }
+    }
+
+    /**
+     * Configure a participant's attributes with the current config. Participants are shared by the endpoints of a
+     * participant profile whose configs agree on these settings, see {@link DdsParticipantRegistry}.
+     *
+     * @param attributes participant's attributes to configure.
+     */
+    public void configureParticipant(ParticipantAttributes attributes)
+    {
+        if (attributes instanceof FastRTPSParticipantAttributes)
+        {
+            RTPSParticipantAttributes rtps = ((FastRTPSParticipantAttributes) attributes).getRtps();
+            if (config.getSendSocketBufferSize() != null) rtps.setSendSocketBufferSize(config.getSendSocketBufferSize());
+            if (config.getReceiveSocketBufferSize() != null) rtps.setListenSocketBufferSize(config.getReceiveSocketBufferSize());
+        }
+    }
+
+    /**
+     * Configure the keep-last history depth and history resource limits of a topic with the current config.
+     *
+     * @param topic publisher or subscriber topic attributes to configure.
+     */
+    private void configureHistory(TopicAttributes topic)
+    {
+        if (config.getHistoryDepth() != null) topic.getHistoryQos().setDepth(config.getHistoryDepth());
+        ResourceLimitsQosPolicy limits = topic.getResourceLimitsQos();
+        if (config.getMaxSamples() != null) limits.setMax_samples(config.getMaxSamples());
+        if (config.getMaxInstances() != null) limits.setMax_instances(config.getMaxInstances());
+        if (config.getMaxSamplesPerInstance() != null) limits.setMax_samples_per_instance(config.getMaxSamplesPerInstance());
     }
 
     /**
@@ -91,4 +154,16 @@ public class DdsQosConfigurator
     {
         return config.getReliability();
     }
+
+    /**
+     * @param millis Duration in milliseconds.
+     * @return RTPS time, in seconds and fractions of 1/2<sup>32</sup> seconds.
+     */
+    private static Time_t toTime(long millis)
+    {
+        Time_t time = new Time_t();
+        time.setSeconds((int) (millis / 1000));
+        time.setFraction(((millis % 1000) << 32) / 1000);
+        return time;
+    }
 }
@@ -0,0 +1,88 @@
+package com.chesapeaketechnology.dds;
+
+import us.ihmc.pubsub.common.SerializedPayload;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Serialized bytes of a sample, as received from or written to DDS by a {@link DdsRawTopicDataType raw} endpoint.
+ * The bytes are never deserialized, so samples can be forwarded without knowing or decoding their fields.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsRawData
+{
+    private ByteBuffer data = ByteBuffer.allocate(0);
+    private ByteBuffer view = data.asReadOnlyBuffer();
+    private short encapsulation;
+
+    /**
+     * Copy the serialized bytes out of a payload. The backing buffer is reused when it is large enough.
+     *
+     * @param payload Payload received from DDS.
+     */
+    public void read(SerializedPayload payload)
+    {
+        int length = payload.getLength();
+        if (data.capacity() < length)
+        {
+            data = ByteBuffer.allocate(length);
+        }
+        ByteBuffer source = payload.getData().duplicate();
+        source.limit(length).position(0);
+        data.clear();
+        data.put(source).flip();
+        view = data.asReadOnlyBuffer();
+        encapsulation = payload.getEncapsulation();
+    }
+
+    /**
+     * Copy serialized bytes into a payload to be written to DDS.
+     *
+     * @param source        Serialized bytes, from the current position up to the limit. The buffer itself is not modified.
+     * @param encapsulation Encapsulation of the serialized bytes.
+     * @param payload       Payload to write to DDS.
+     */
+    public static void write(ByteBuffer source, short encapsulation, SerializedPayload payload)
+    {
+        ByteBuffer dest = payload.getData();
+        dest.clear();
+        dest.put(source.duplicate());
+        payload.setLength(dest.position());
+        payload.setEncapsulation(encapsulation);
+        dest.flip();
+    }
+
+    /**
+     * Replace the contents of this sample with those of another.
+     *
+     * @param other Sample to copy.
+     */
+    public void set(DdsRawData other)
+    {
+        if (data.capacity() < other.data.remaining())
+        {
+            data = ByteBuffer.allocate(other.data.remaining());
+        }
+        data.clear();
+        data.put(other.data.duplicate()).flip();
+        view = data.asReadOnlyBuffer();
+        encapsulation = other.encapsulation;
+    }
+
+    /**
+     * @return Read-only view of the serialized bytes. Only valid until this sample is next read into.
+     */
+    public ByteBuffer getBuffer()
+    {
+        return view;
+    }
+
+    /**
+     * @return Encapsulation of the serialized bytes.
+     */
+    public short getEncapsulation()
+    {
+        return encapsulation;
+    }
+}
@@ -0,0 +1,114 @@
+package com.chesapeaketechnology.dds;
+
+import us.ihmc.idl.InterchangeSerializer;
+import us.ihmc.pubsub.TopicDataType;
+import us.ihmc.pubsub.common.SerializedPayload;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Passes serialized samples through without deserializing or serializing their fields. Readers receive {@link DdsRawData},
+ * writers accept {@link DdsRawData}, {@link ByteBuffer} or {@code byte[]} samples holding the bytes of the wrapped type.
+ * Writers also accept instances of the wrapped type, which are serialized as usual.
+ * The type name and size are those of the wrapped type, so raw endpoints interoperate with typed ones on the same topic.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class DdsRawTopicDataType implements TopicDataType<Object>
+{
+    /**
+     * Encapsulation used for bytes without one of their own, little endian CDR.
+     */
+    public static final short CDR_LE = 1;
+    private final TopicDataType type;
+
+    /**
+     * @param type Serializer of the data type whose bytes are passed through.
+     */
+    public DdsRawTopicDataType(TopicDataType<?> type)
+    {
+        this.type = type;
+    }
+
+    @Override
+    public void serialize(Object data, SerializedPayload serializedPayload) throws IOException
+    {
+        if (data instanceof DdsRawData)
+        {
+            DdsRawData raw = (DdsRawData) data;
+            DdsRawData.write(raw.getBuffer(), raw.getEncapsulation(), serializedPayload);
+        } else if (data instanceof ByteBuffer)
+        {
+            DdsRawData.write((ByteBuffer) data, CDR_LE, serializedPayload);
+        } else if (data instanceof byte[])
+        {
+            DdsRawData.write(ByteBuffer.wrap((byte[]) data), CDR_LE, serializedPayload);
+        } else
+        {
+            type.serialize(data, serializedPayload);
+        }
+    }
+
+    @Override
+    public void serialize(Object data, InterchangeSerializer serializer)
+    {
+        throw new UnsupportedOperationException("Raw samples cannot be written field by field");
+    }
+
+    @Override
+    public void deserialize(SerializedPayload serializedPayload, Object data)
+    {
+        ((DdsRawData) data).read(serializedPayload);
+    }
+
+    @Override
+    public void deserialize(InterchangeSerializer serializer, Object data)
+    {
+        throw new UnsupportedOperationException("Raw samples cannot be read field by field");
+    }
+
+    /**
+     * Copy one raw sample into another.
+     *
+     * @param src  Sample to copy.
+     * @param dest Sample to copy into.
+     */
+    public void copy(DdsRawData src, DdsRawData dest)
+    {
+        dest.set(src);
+    }
+
+    /**
+     * @return Serializer of the data type whose bytes are passed through.
+     */
+    public TopicDataType<?> getType()
+    {
+        return type;
+    }
+
+    @Override
+    public int getTypeSize()
+    {
+        return type.getTypeSize();
+    }
+
+    @Override
+    public String getName()
+    {
+        return type.getName();
+    }
+
+    @Override
+    public Object createData()
+    {
+        return new DdsRawData();
+    }
+
+    @Override
+    public TopicDataType<Object> newInstance()
+    {
+        return new DdsRawTopicDataType(type.newInstance());
+    }
+}
@@ -1,9 +1,6 @@
 package com.chesapeaketechnology.dds;
 
-import com.chesapeaketechnology.dds.util.ReflectionUtil;
 import org.apache.camel.Processor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import us.ihmc.pubsub.common.SampleInfo;
 import us.ihmc.pubsub.subscriber.Subscriber;
 
@@ -16,8 +13,6 @@ import us.ihmc.pubsub.subscriber.Subscriber;
  */
 public class DdsReusingConsumer extends DdsConsumer
 {
-    private static final Logger logger = LoggerFactory.getLogger(DdsConsumer.class);
-    private final SampleInfo sampleInfo = new SampleInfo();
     private final Object data;
 
     /**
@@ -29,17 +24,13 @@ public class DdsReusingConsumer extends DdsConsumer
     public DdsReusingConsumer(DdsEndpoint endpoint, Processor processor)
     {
         super(endpoint, processor);
-        this.data = ReflectionUtil.createIdlType(endpoint.getMessageType());
+        this.data = endpoint.createSample();
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public void onNewDataMessage(Subscriber subscriber)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected Object takeNextData(Subscriber subscriber, SampleInfo info)
     {
-        logger.debug("Receive new data message for endpoint '{}': Guid={}", endpoint.getEndpointUri(), subscriber.getGuid());
-        if (subscriber.takeNextData(data, sampleInfo))
-        {
-            onReceive(data);
-        }
+        return subscriber.takeNextData(data, info) ? data : null;
     }
 }
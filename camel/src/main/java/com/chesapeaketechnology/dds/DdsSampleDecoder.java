@@ -0,0 +1,52 @@
+package com.chesapeaketechnology.dds;
+
+import us.ihmc.pubsub.TopicDataType;
+import us.ihmc.pubsub.common.SerializedPayload;
+
+import java.io.IOException;
+
+/**
+ * Deserializes {@link DdsRawData raw} samples into instances of their idl type on demand.
+ * Generated pub-sub types are not thread safe, so each thread decodes with its own type and payload.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class DdsSampleDecoder
+{
+    private final TopicDataType<?> topicDataType;
+    private final ThreadLocal<TopicDataType> types;
+    private final ThreadLocal<SerializedPayload> payloads;
+
+    /**
+     * Create the decoder.
+     *
+     * @param topicDataType Deserializer of the idl type.
+     */
+    public DdsSampleDecoder(TopicDataType<?> topicDataType)
+    {
+        this.topicDataType = topicDataType;
+        this.types = ThreadLocal.withInitial(topicDataType::newInstance);
+        this.payloads = ThreadLocal.withInitial(() -> new SerializedPayload(topicDataType.getTypeSize()));
+    }
+
+    /**
+     * @param raw Serialized sample.
+     * @return New instance of the idl type holding the sample's values.
+     */
+    public Object decode(DdsRawData raw)
+    {
+        TopicDataType type = types.get();
+        SerializedPayload payload = payloads.get();
+        DdsRawData.write(raw.getBuffer(), raw.getEncapsulation(), payload);
+        Object data = type.createData();
+        try
+        {
+            type.deserialize(payload, data);
+        } catch (IOException ex)
+        {
+            throw new IllegalStateException("Failed to decode sample of '" + topicDataType.getName() + "'", ex);
+        }
+        return data;
+    }
+}
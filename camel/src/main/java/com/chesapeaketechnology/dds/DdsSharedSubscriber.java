@@ -0,0 +1,199 @@
+package com.chesapeaketechnology.dds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import us.ihmc.pubsub.TopicDataType;
+import us.ihmc.pubsub.common.MatchingInfo;
+import us.ihmc.pubsub.common.SampleInfo;
+import us.ihmc.pubsub.subscriber.Subscriber;
+import us.ihmc.pubsub.subscriber.SubscriberListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Listens to a DDS subscriber shared by every consumer of a topic. With a single consumer, that consumer takes samples itself.
+ * With several, each sample is taken once and delivered to all of them, as configured by each consumer's {@link DdsFanoutMode}.
+ * A consumer that fails to handle samples does not stop delivery to the others.
+ * Sample instances are kept for the next delivery while every consumer copies them, and sample infos while every consumer
+ * routes on the listener thread, so fanning out does not allocate more than the consumers' own copies.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class DdsSharedSubscriber implements SubscriberListener
+{
+    private static final Logger logger = LoggerFactory.getLogger(DdsSharedSubscriber.class);
+    // Replaced rather than modified, so listener threads read a consistent snapshot without copying it per sample
+    private volatile DdsConsumer[] consumers = new DdsConsumer[0];
+    private final DdsTopicMetrics metrics;
+    private final TopicDataType topicDataType;
+    // Only used by the subscriber's listener thread
+    private final List<Object> samples = new ArrayList<>();
+    private final List<SampleInfo> infos = new ArrayList<>();
+    private final List<Object> spareSamples = new ArrayList<>();
+    private final List<SampleInfo> spareInfos = new ArrayList<>();
+    private volatile Subscriber subscriber;
+
+    /**
+     * @param metrics       Counters of the topic, updated as remote publishers are matched.
+     * @param topicDataType Data type of the topic, used to create the instances samples are taken into.
+     */
+    public DdsSharedSubscriber(DdsTopicMetrics metrics, TopicDataType topicDataType)
+    {
+        this.metrics = metrics;
+        this.topicDataType = topicDataType;
+    }
+
+    /**
+     * @param consumer Consumer to deliver samples to.
+     */
+    public synchronized void addConsumer(DdsConsumer consumer)
+    {
+        DdsConsumer[] added = Arrays.copyOf(consumers, consumers.length + 1);
+        added[consumers.length] = consumer;
+        consumers = added;
+    }
+
+    /**
+     * @param consumer Consumer to stop delivering samples to.
+     * @return {@code true} when no consumers remain.
+     */
+    public synchronized boolean removeConsumer(DdsConsumer consumer)
+    {
+        List<DdsConsumer> remaining = new ArrayList<>(Arrays.asList(consumers));
+        remaining.remove(consumer);
+        consumers = remaining.toArray(new DdsConsumer[0]);
+        return consumers.length == 0;
+    }
+
+    /**
+     * @return Number of consumers samples are delivered to.
+     */
+    public int getConsumerCount()
+    {
+        return consumers.length;
+    }
+
+    /**
+     * @return DDS subscriber this listener is attached to.
+     */
+    public Subscriber getSubscriber()
+    {
+        return subscriber;
+    }
+
+    /**
+     * @param subscriber DDS subscriber this listener is attached to.
+     */
+    public void setSubscriber(Subscriber subscriber)
+    {
+        this.subscriber = subscriber;
+    }
+
+    @Override
+    public void onNewDataMessage(Subscriber subscriber)
+    {
+        DdsConsumer[] current = consumers;
+        if (current.length == 0)
+        {
+            // Consumers are being removed, samples have nowhere to go
+            return;
+        }
+        if (current.length == 1)
+        {
+            // Only one consumer, let it take samples however it is configured to
+            current[0].onNewDataMessage(subscriber);
+            return;
+        }
+        // Copying consumers are done with the instances once delivery returns, and consumers routing on this thread are
+        // done with the infos, so only then can they be taken into again by the next delivery
+        boolean reuseSamples = true;
+        boolean reuseInfos = true;
+        for (DdsConsumer consumer : current)
+        {
+            reuseSamples &= consumer.configuration.getFanoutMode() == DdsFanoutMode.COPY;
+            reuseInfos &= !consumer.configuration.isDispatching();
+        }
+        try
+        {
+            while (true)
+            {
+                int index = samples.size();
+                Object data = nextSample(index, reuseSamples);
+                SampleInfo info = nextInfo(index, reuseInfos);
+                if (!subscriber.takeNextData(data, info))
+                {
+                    break;
+                }
+                samples.add(data);
+                infos.add(info);
+            }
+            if (samples.isEmpty())
+            {
+                return;
+            }
+            for (DdsConsumer consumer : current)
+            {
+                try
+                {
+                    consumer.onReceiveShared(samples, infos);
+                } catch (RuntimeException ex)
+                {
+                    logger.error("Error delivering shared samples to consumer: " + consumer, ex);
+                }
+            }
+        } finally
+        {
+            samples.clear();
+            infos.clear();
+        }
+    }
+
+    /**
+     * @param index Position of the sample in this delivery.
+     * @param reuse {@code true} when no consumer holds on to instances after delivery.
+     * @return Instance to take the sample into.
+     */
+    private Object nextSample(int index, boolean reuse)
+    {
+        if (!reuse)
+        {
+            return topicDataType.createData();
+        }
+        if (index == spareSamples.size())
+        {
+            spareSamples.add(topicDataType.createData());
+        }
+        return spareSamples.get(index);
+    }
+
+    /**
+     * @param index Position of the sample in this delivery.
+     * @param reuse {@code true} when no consumer holds on to infos after delivery.
+     * @return Info to take the sample's information into.
+     */
+    private SampleInfo nextInfo(int index, boolean reuse)
+    {
+        if (!reuse)
+        {
+            return new SampleInfo();
+        }
+        if (index == spareInfos.size())
+        {
+            spareInfos.add(new SampleInfo());
+        }
+        return spareInfos.get(index);
+    }
+
+    @Override
+    public void onSubscriptionMatched(Subscriber subscriber, MatchingInfo info)
+    {
+        metrics.onPublisherMatched(info);
+        for (DdsConsumer consumer : consumers)
+        {
+            consumer.onSubscriptionMatched(subscriber, info);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.chesapeaketechnology.dds;
+
+import java.util.Objects;
+
+/**
+ * Identifies a DDS topic along with everything that affects the readers and writers created for it.
+ * Endpoints that resolve to equal keys share their DDS publisher and subscriber, regardless of the other options in their uri.
+ * Endpoints created after a profile is reloaded with different options get their own publisher and subscriber.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public final class DdsTopicKey
+{
+    private final String topicName;
+    private final int domainId;
+    private final String participantProfile;
+    private final String messageType;
+    private final DdsQosConfig qosConfig;
+    private final boolean raw;
+
+    /**
+     * Create the key.
+     *
+     * @param topicName          Topic name.
+     * @param domainId           Domain identifier.
+     * @param participantProfile Participant profile, or {@code null} for the default.
+     * @param messageType        Fully {@link Class#getName() qualified name} of the data type of the topic.
+     * @param qosConfig          Quality of service configuration, or {@code null} for defaults. Compared by value, so a profile
+     *                           reloaded with different options resolves to a different key.
+     * @param raw                {@code true} when samples are passed through as serialized bytes.
+     */
+    public DdsTopicKey(String topicName, int domainId, String participantProfile, String messageType, DdsQosConfig qosConfig,
+                       boolean raw)
+    {
+        this.topicName = topicName;
+        this.domainId = domainId;
+        this.participantProfile = participantProfile;
+        this.messageType = messageType;
+        this.qosConfig = qosConfig;
+        this.raw = raw;
+    }
+
+    /**
+     * @return Topic name.
+     */
+    public String getTopicName()
+    {
+        return topicName;
+    }
+
+    /**
+     * @return Domain identifier.
+     */
+    public int getDomainId()
+    {
+        return domainId;
+    }
+
+    /**
+     * @return Participant profile, or {@code null} for the default.
+     */
+    public String getParticipantProfile()
+    {
+        return participantProfile;
+    }
+
+    /**
+     * @return Fully {@link Class#getName() qualified name} of the data type of the topic.
+     */
+    public String getMessageType()
+    {
+        return messageType;
+    }
+
+    /**
+     * @return Name of the quality of service configuration, or {@code null} for defaults.
+     */
+    public String getQosName()
+    {
+        return qosConfig == null ? null : qosConfig.getName();
+    }
+
+    /**
+     * @return Quality of service configuration, or {@code null} for defaults.
+     */
+    public DdsQosConfig getQosConfig()
+    {
+        return qosConfig;
+    }
+
+    /**
+     * @return {@code true} when samples are passed through as serialized bytes.
+     */
+    public boolean isRaw()
+    {
+        return raw;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof DdsTopicKey)) return false;
+        DdsTopicKey other = (DdsTopicKey) o;
+        return domainId == other.domainId
+                && raw == other.raw
+                && topicName.equals(other.topicName)
+                && messageType.equals(other.messageType)
+                && Objects.equals(participantProfile, other.participantProfile)
+                && Objects.equals(qosConfig, other.qosConfig);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(topicName, domainId, participantProfile, messageType, qosConfig, raw);
+    }
+
+    @Override
+    public String toString()
+    {
+        return topicName + ":" + domainId + "/" + messageType
+                + (participantProfile == null ? "" : " participant=" + participantProfile)
+                + (qosConfig == null ? "" : " qos=" + qosConfig.getName())
+                + (raw ? " raw" : "");
+    }
+}
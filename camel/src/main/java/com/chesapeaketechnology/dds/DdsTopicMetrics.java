@@ -0,0 +1,146 @@
+package com.chesapeaketechnology.dds;
+
+import us.ihmc.pubsub.common.MatchingInfo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for a DDS topic, shared by every endpoint with the same {@link DdsTopicKey topic key}
+ * since they share the topic's publisher and subscriber.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsTopicMetrics
+{
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder samplesRead = new LongAdder();
+    private final LongAdder samplesWritten = new LongAdder();
+    private final AtomicInteger matchedPublishers = new AtomicInteger();
+    private final AtomicInteger matchedSubscribers = new AtomicInteger();
+
+    /**
+     * @param bytes Size of a serialized sample read from the topic.
+     */
+    public void addBytesRead(long bytes)
+    {
+        bytesRead.add(bytes);
+        samplesRead.increment();
+    }
+
+    /**
+     * @param bytes Size of a serialized sample written to the topic.
+     */
+    public void addBytesWritten(long bytes)
+    {
+        bytesWritten.add(bytes);
+        samplesWritten.increment();
+    }
+
+    /**
+     * @return Number of serialized samples read from the topic.
+     */
+    public long getSamplesRead()
+    {
+        return samplesRead.sum();
+    }
+
+    /**
+     * @return Number of serialized samples written to the topic.
+     */
+    public long getSamplesWritten()
+    {
+        return samplesWritten.sum();
+    }
+
+    /**
+     * @param info Change in the remote publishers matched with the topic's subscriber.
+     */
+    public void onPublisherMatched(MatchingInfo info)
+    {
+        update(matchedPublishers, info);
+    }
+
+    /**
+     * @param info Change in the remote subscribers matched with the topic's publisher.
+     */
+    public void onSubscriberMatched(MatchingInfo info)
+    {
+        update(matchedSubscribers, info);
+    }
+
+    /**
+     * @return Total size of serialized samples read from the topic.
+     */
+    public long getBytesRead()
+    {
+        return bytesRead.sum();
+    }
+
+    /**
+     * @return Total size of serialized samples written to the topic.
+     */
+    public long getBytesWritten()
+    {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * @return Number of remote publishers currently matched with the topic's subscriber.
+     */
+    public int getMatchedPublishers()
+    {
+        return matchedPublishers.get();
+    }
+
+    /**
+     * @return Number of remote subscribers currently matched with the topic's publisher.
+     */
+    public int getMatchedSubscribers()
+    {
+        return matchedSubscribers.get();
+    }
+
+    /**
+     * Wait for at least a number of remote subscribers to be matched with the topic's publisher.
+     *
+     * @param count     Number of matched subscribers to wait for.
+     * @param timeoutMs Maximum time in milliseconds to wait.
+     * @return {@code true} when enough subscribers were matched, {@code false} when the timeout elapsed first.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    public synchronized boolean awaitMatchedSubscribers(int count, long timeoutMs) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (matchedSubscribers.get() < count)
+        {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0)
+            {
+                return false;
+            }
+            wait(remainingMs);
+        }
+        return true;
+    }
+
+    /**
+     * @param matched Count of matched entities.
+     * @param info    Change in the matched entities.
+     */
+    private synchronized void update(AtomicInteger matched, MatchingInfo info)
+    {
+        if (info.getStatus() == MatchingInfo.MatchingStatus.MATCHED_MATCHING)
+        {
+            matched.incrementAndGet();
+        } else
+        {
+            // Never below zero, removals may arrive for matches made before we started counting
+            matched.updateAndGet(count -> Math.max(0, count - 1));
+        }
+        // Wake producers waiting for readers to match
+        notifyAll();
+    }
+}
@@ -0,0 +1,339 @@
+package com.chesapeaketechnology.dds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import us.ihmc.pubsub.Domain;
+import us.ihmc.pubsub.TopicDataType;
+import us.ihmc.pubsub.attributes.PublisherAttributes;
+import us.ihmc.pubsub.attributes.SubscriberAttributes;
+import us.ihmc.pubsub.participant.Participant;
+import us.ihmc.pubsub.publisher.Publisher;
+import us.ihmc.pubsub.subscriber.Subscriber;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares DDS publishers and subscribers between endpoints that resolve to the same {@link DdsTopicKey topic key},
+ * so a process keeps one writer and one reader per topic no matter how many routes use it.
+ * Publishers are reference counted by endpoint, and subscribers by consumer. Each holds a reference to its participant
+ * in the {@link DdsParticipantRegistry} for as long as it exists.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class DdsTopicRegistry
+{
+    private static final Logger logger = LoggerFactory.getLogger(DdsTopicRegistry.class);
+    private final DdsParticipantRegistry participantRegistry;
+    private final Domain domain;
+    private final Map<DdsTopicKey, PublisherEntry> publishers = new HashMap<>();
+    private final Map<DdsTopicKey, SubscriberEntry> subscribers = new HashMap<>();
+    private final Map<DdsTopicKey, DdsTopicMetrics> metrics = new HashMap<>();
+
+    /**
+     * Create the registry.
+     *
+     * @param participantRegistry Participants to create publishers and subscribers with.
+     */
+    public DdsTopicRegistry(DdsParticipantRegistry participantRegistry)
+    {
+        this.participantRegistry = participantRegistry;
+        this.domain = participantRegistry.getDomain();
+    }
+
+    /**
+     * Get <i>(or create if necessary)</i> the publisher for a topic, incrementing its reference count.
+     * Each call must be matched by a call to {@link #releasePublisher(DdsTopicKey)}.
+     *
+     * @param key           Topic key.
+     * @param topicDataType Serializer for the data type of the topic.
+     * @param configurator  Quality of service to apply when the publisher is created.
+     * @return Shared publisher.
+     * @throws IOException When the publisher or its participant cannot be created.
+     */
+    public Publisher acquirePublisher(DdsTopicKey key, TopicDataType topicDataType, DdsQosConfigurator configurator)
+            throws IOException
+    {
+        PublisherEntry entry;
+        synchronized (this)
+        {
+            entry = publishers.computeIfAbsent(key, k -> new PublisherEntry());
+            entry.references++;
+        }
+        // Created outside the registry lock, so publishers of different topics can be created concurrently
+        synchronized (entry)
+        {
+            if (entry.publisher == null)
+            {
+                try
+                {
+                    entry.publisher = createPublisher(key, topicDataType, configurator);
+                } catch (IOException | RuntimeException ex)
+                {
+                    synchronized (this)
+                    {
+                        if (--entry.references == 0)
+                        {
+                            publishers.remove(key);
+                        }
+                    }
+                    throw ex;
+                }
+            }
+            return entry.publisher;
+        }
+    }
+
+    /**
+     * Decrement the reference count of a publisher, removing it when it is no longer used.
+     *
+     * @param key Topic key.
+     */
+    public void releasePublisher(DdsTopicKey key)
+    {
+        PublisherEntry entry;
+        synchronized (this)
+        {
+            entry = publishers.get(key);
+            if (entry == null)
+            {
+                throw new IllegalStateException("Publisher was not acquired: " + key);
+            }
+            if (--entry.references > 0)
+            {
+                return;
+            }
+            publishers.remove(key);
+        }
+        synchronized (entry)
+        {
+            if (entry.publisher != null)
+            {
+                logger.trace("Removing publisher: {}", key);
+                domain.removePublisher(entry.publisher);
+                participantRegistry.release(key.getDomainId(), key.getParticipantProfile(), key.getQosConfig());
+            }
+        }
+    }
+
+    /**
+     * Register a consumer with the subscriber for a topic, creating the subscriber if necessary.
+     * Each call must be matched by a call to {@link #unsubscribe(DdsTopicKey, DdsConsumer)}.
+     *
+     * @param key           Topic key.
+     * @param topicDataType Deserializer for the data type of the topic.
+     * @param configurator  Quality of service to apply when the subscriber is created.
+     * @param consumer      Consumer to deliver samples to.
+     * @return Shared subscriber.
+     * @throws IOException When the subscriber or its participant cannot be created.
+     */
+    public Subscriber subscribe(DdsTopicKey key, TopicDataType topicDataType, DdsQosConfigurator configurator,
+                                DdsConsumer consumer) throws IOException
+    {
+        SubscriberEntry entry;
+        synchronized (this)
+        {
+            entry = subscribers.get(key);
+            if (entry == null)
+            {
+                entry = new SubscriberEntry(new DdsSharedSubscriber(getTopicMetrics(key), topicDataType));
+                subscribers.put(key, entry);
+            }
+            // Register the consumer before the subscriber exists, so no early samples are missed
+            entry.shared.addConsumer(consumer);
+        }
+        // Created outside the registry lock, so subscribers of different topics can be created concurrently
+        synchronized (entry)
+        {
+            if (entry.shared.getSubscriber() == null)
+            {
+                try
+                {
+                    entry.shared.setSubscriber(createSubscriber(key, topicDataType, configurator, entry.shared));
+                } catch (IOException | RuntimeException ex)
+                {
+                    synchronized (this)
+                    {
+                        if (entry.shared.removeConsumer(consumer))
+                        {
+                            subscribers.remove(key);
+                        }
+                    }
+                    throw ex;
+                }
+            }
+            return entry.shared.getSubscriber();
+        }
+    }
+
+    /**
+     * Stop delivering samples to a consumer, removing the subscriber once it has no consumers left.
+     *
+     * @param key      Topic key.
+     * @param consumer Consumer previously given to {@link #subscribe(DdsTopicKey, TopicDataType, DdsQosConfigurator, DdsConsumer)}.
+     */
+    public void unsubscribe(DdsTopicKey key, DdsConsumer consumer)
+    {
+        SubscriberEntry entry;
+        synchronized (this)
+        {
+            entry = subscribers.get(key);
+            if (entry == null)
+            {
+                throw new IllegalStateException("Subscriber was not created: " + key);
+            }
+            if (!entry.shared.removeConsumer(consumer))
+            {
+                return;
+            }
+            subscribers.remove(key);
+        }
+        synchronized (entry)
+        {
+            if (entry.shared.getSubscriber() != null)
+            {
+                logger.trace("Removing subscriber: {}", key);
+                domain.removeSubscriber(entry.shared.getSubscriber());
+                participantRegistry.release(key.getDomainId(), key.getParticipantProfile(), key.getQosConfig());
+            }
+        }
+    }
+
+    /**
+     * @param key Topic key.
+     * @return Subscriber for the topic, or {@code null} if there is none.
+     */
+    public synchronized Subscriber getSubscriber(DdsTopicKey key)
+    {
+        SubscriberEntry entry = subscribers.get(key);
+        return entry == null ? null : entry.shared.getSubscriber();
+    }
+
+    /**
+     * @return Number of publishers currently in use.
+     */
+    public synchronized int getPublisherCount()
+    {
+        return publishers.size();
+    }
+
+    /**
+     * @return Number of subscribers currently in use.
+     */
+    public synchronized int getSubscriberCount()
+    {
+        return subscribers.size();
+    }
+
+    /**
+     * @param key Topic key.
+     * @return Number of consumers registered with the topic's subscriber, or {@code 0} if there is none.
+     */
+    public synchronized int getConsumerCount(DdsTopicKey key)
+    {
+        SubscriberEntry entry = subscribers.get(key);
+        return entry == null ? 0 : entry.shared.getConsumerCount();
+    }
+
+    /**
+     * @param key Topic key.
+     * @return Counters for the topic, kept for as long as the registry exists so totals survive publishers and subscribers.
+     */
+    public synchronized DdsTopicMetrics getTopicMetrics(DdsTopicKey key)
+    {
+        return metrics.computeIfAbsent(key, k -> new DdsTopicMetrics());
+    }
+
+    /**
+     * @return Counters for every topic used so far.
+     */
+    public synchronized List<DdsTopicMetrics> getTopicMetrics()
+    {
+        return new ArrayList<>(metrics.values());
+    }
+
+    /**
+     * @return Participants publishers and subscribers are created with.
+     */
+    public DdsParticipantRegistry getParticipantRegistry()
+    {
+        return participantRegistry;
+    }
+
+    /**
+     * @param key           Topic key.
+     * @param topicDataType Serializer for the data type of the topic.
+     * @param configurator  Quality of service to apply.
+     * @return New publisher, holding a reference to its participant.
+     * @throws IOException When the publisher or its participant cannot be created.
+     */
+    private Publisher createPublisher(DdsTopicKey key, TopicDataType topicDataType, DdsQosConfigurator configurator) throws IOException
+    {
+        logger.trace("Creating publisher: {}", key);
+        DdsTopicMetrics topicMetrics = getTopicMetrics(key);
+        Participant participant = participantRegistry.acquire(key.getDomainId(), key.getParticipantProfile(), key.getQosConfig());
+        try
+        {
+            PublisherAttributes attributes = domain.createPublisherAttributes(participant,
+                    new DdsMeteredTopicDataType(topicDataType, topicMetrics), key.getTopicName(), configurator.getReliability());
+            configurator.configurePublisher(attributes);
+            return domain.createPublisher(participant, attributes, (publisher, info) -> topicMetrics.onSubscriberMatched(info));
+        } catch (IOException | RuntimeException ex)
+        {
+            participantRegistry.release(key.getDomainId(), key.getParticipantProfile(), key.getQosConfig());
+            throw ex;
+        }
+    }
+
+    /**
+     * @param key           Topic key.
+     * @param topicDataType Deserializer for the data type of the topic.
+     * @param configurator  Quality of service to apply.
+     * @param shared        Listener delivering samples to the topic's consumers.
+     * @return New subscriber, holding a reference to its participant.
+     * @throws IOException When the subscriber or its participant cannot be created.
+     */
+    private Subscriber createSubscriber(DdsTopicKey key, TopicDataType topicDataType, DdsQosConfigurator configurator,
+                                        DdsSharedSubscriber shared) throws IOException
+    {
+        logger.trace("Creating subscriber: {}", key);
+        Participant participant = participantRegistry.acquire(key.getDomainId(), key.getParticipantProfile(), key.getQosConfig());
+        try
+        {
+            SubscriberAttributes attributes = domain.createSubscriberAttributes(participant,
+                    new DdsMeteredTopicDataType(topicDataType, getTopicMetrics(key)), key.getTopicName(), configurator.getReliability());
+            configurator.configureSubscriber(attributes);
+            return domain.createSubscriber(participant, attributes, shared);
+        } catch (IOException | RuntimeException ex)
+        {
+            participantRegistry.release(key.getDomainId(), key.getParticipantProfile(), key.getQosConfig());
+            throw ex;
+        }
+    }
+
+    /**
+     * Reference counted publisher. The publisher is created by the first reference, while holding the entry's lock.
+     */
+    private static class PublisherEntry
+    {
+        private Publisher publisher;
+        private int references;
+    }
+
+    /**
+     * Shared subscriber. The subscriber is created by the first consumer, while holding the entry's lock.
+     */
+    private static class SubscriberEntry
+    {
+        private final DdsSharedSubscriber shared;
+
+        private SubscriberEntry(DdsSharedSubscriber shared)
+        {
+            this.shared = shared;
+        }
+    }
+}
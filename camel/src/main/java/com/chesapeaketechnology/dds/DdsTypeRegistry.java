@@ -0,0 +1,90 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.util.ReflectionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import us.ihmc.pubsub.TopicDataType;
+
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the {@link TopicDataType} of each idl type once, then creates further instances from the cached prototype
+ * with {@link TopicDataType#newInstance()} rather than reflection. Types may also be registered explicitly,
+ * such as types that do not follow the generated {@code <type>PubSubType} naming convention,
+ * or loaded from the {@link ServiceLoader} index that the idl-tools {@code pack} command writes into generated jars.
+ * Each endpoint is given its own instance, since topic data types hold serialization buffers and are not thread safe.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@SuppressWarnings("rawtypes")
+public class DdsTypeRegistry
+{
+    private static final Logger logger = LoggerFactory.getLogger(DdsTypeRegistry.class);
+    private final Map<String, TopicDataType<?>> prototypes = new ConcurrentHashMap<>();
+
+    /**
+     * Register every pub-sub type listed in {@code META-INF/services/us.ihmc.pubsub.TopicDataType} indexes on the classpath,
+     * by the name of the idl type each creates. Explicitly registered types are kept.
+     *
+     * @param classLoader Class loader to find indexes and load types with.
+     * @return Number of types listed in the indexes.
+     * @throws IllegalStateException When a listed type cannot be loaded.
+     */
+    public int loadIndexedTypes(ClassLoader classLoader)
+    {
+        int count = 0;
+        try
+        {
+            for (TopicDataType type : ServiceLoader.load(TopicDataType.class, classLoader))
+            {
+                prototypes.putIfAbsent(type.createData().getClass().getName(), type);
+                count++;
+            }
+        } catch (ServiceConfigurationError ex)
+        {
+            throw new IllegalStateException("Failed to load indexed idl types, please check your classpath", ex);
+        }
+        logger.debug("Loaded {} indexed idl types", count);
+        return count;
+    }
+
+    /**
+     * @param typeName Fully {@link Class#getName() qualified name} of an idl type class.
+     * @param type     Topic data type to create instances of for the idl type.
+     */
+    public void register(String typeName, TopicDataType<?> type)
+    {
+        prototypes.put(typeName, type);
+    }
+
+    /**
+     * @param dataType Idl type class.
+     * @param type     Topic data type to create instances of for the idl type.
+     */
+    public void register(Class<?> dataType, TopicDataType<?> type)
+    {
+        register(dataType.getName(), type);
+    }
+
+    /**
+     * @param typeName Fully {@link Class#getName() qualified name} of an idl type class.
+     * @return {@code true} when the type has been registered or resolved.
+     */
+    public boolean contains(String typeName)
+    {
+        return prototypes.containsKey(typeName);
+    }
+
+    /**
+     * @param typeName Fully {@link Class#getName() qualified name} of an idl type class.
+     * @return New instance of the type's topic data type.
+     * @throws IllegalStateException When the type is not registered or indexed, and its pub-sub class cannot be found.
+     */
+    public TopicDataType<?> getTopicDataType(String typeName)
+    {
+        return prototypes.computeIfAbsent(typeName, ReflectionUtil::createIdlPubSubType).newInstance();
+    }
+}
@@ -1,5 +1,8 @@
 package com.chesapeaketechnology.dds;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A utility for generating DDS uri's.
  *
@@ -12,6 +15,29 @@ public class DdsUriBuilder
     private Class<?> type;
     private String domain = "0";
     private boolean reuse;
+    private int poolSize = -1;
+    private int batchSize = 1;
+    private long batchLingerMs;
+    private boolean async;
+    private int queueSize;
+    private int workers;
+    private DdsOverflowPolicy overflowPolicy;
+    private boolean pooledExchanges;
+    private String participantProfile;
+    private DdsFanoutMode fanoutMode;
+    private int writeBatch = 1;
+    private long flushIntervalMs;
+    private boolean asyncWrite;
+    private boolean asyncPublish;
+    private int flowBytesPerPeriod;
+    private long flowPeriodMs;
+    private int minMatchedReaders;
+    private long matchTimeoutMs;
+    private boolean conflate;
+    private String keyFields;
+    private int partitions = 1;
+    private boolean raw;
+    private boolean lazy;
 
     // Deny constructor access
     private DdsUriBuilder()
@@ -87,6 +113,31 @@ public class DdsUriBuilder
         return this;
     }
 
+    /**
+     * Pass samples through as serialized bytes, without deserializing or serializing their fields.
+     * Consumers receive a read-only {@link java.nio.ByteBuffer} body, producers write {@link java.nio.ByteBuffer}
+     * or {@code byte[]} bodies as they are.
+     *
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder raw()
+    {
+        this.raw = true;
+        return this;
+    }
+
+    /**
+     * Receive samples as serialized bytes, only deserializing them the first time a route reads the message body.
+     * Routes that filter on headers, count or forward samples never pay for deserialization.
+     *
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder lazy()
+    {
+        this.lazy = true;
+        return this;
+    }
+
     /**
      * Activate message structure reuse.
      * This is useful for saving memory when the message type is not a dependency of other message types,
@@ -100,6 +151,183 @@ public class DdsUriBuilder
         return this;
     }
 
+    /**
+     * Share a participant with other endpoints using the same domain and profile.
+     * Endpoints without a profile share the default participant for their domain.
+     *
+     * @param participantProfile Name of the participant profile.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder participant(String participantProfile)
+    {
+        this.participantProfile = participantProfile;
+        return this;
+    }
+
+    /**
+     * Choose how the consumer receives samples when it shares a DDS subscriber with other consumers of the same topic.
+     *
+     * @param fanoutMode Fanout mode.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder fanout(DdsFanoutMode fanoutMode)
+    {
+        this.fanoutMode = fanoutMode;
+        return this;
+    }
+
+    /**
+     * Only keep the latest waiting sample per instance key, handing samples off to a worker pool.
+     *
+     * @param keyFields Comma separated names of the fields making up a sample's instance key.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder conflate(String keyFields)
+    {
+        this.conflate = true;
+        this.keyFields = keyFields;
+        return this;
+    }
+
+    /**
+     * Partition samples across single threaded lanes by instance key, keeping samples with the same key in order
+     * while different keys are processed in parallel.
+     *
+     * @param partitions Number of lanes.
+     * @param keyFields  Comma separated names of the fields making up a sample's instance key.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder partition(int partitions, String keyFields)
+    {
+        this.partitions = partitions;
+        this.keyFields = keyFields;
+        return this;
+    }
+
+    /**
+     * Hand exchanges to a dedicated writer thread, completing them asynchronously once written.
+     *
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder asyncWrite()
+    {
+        this.asyncWrite = true;
+        return this;
+    }
+
+    /**
+     * Publish asynchronously, so writes return once samples are queued and DDS sends them on its own thread.
+     *
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder asyncPublish()
+    {
+        this.asyncPublish = true;
+        return this;
+    }
+
+    /**
+     * Publish asynchronously, limiting how many bytes each writer sends per period so large bursts do not flood the network.
+     *
+     * @param bytesPerPeriod Maximum number of bytes each writer sends per period.
+     * @param periodMs       Period in milliseconds over which sent bytes are counted.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder flowControl(int bytesPerPeriod, long periodMs)
+    {
+        this.asyncPublish = true;
+        this.flowBytesPerPeriod = bytesPerPeriod;
+        this.flowPeriodMs = periodMs;
+        return this;
+    }
+
+    /**
+     * Make producers wait for readers to match before their first write, so the first samples are delivered promptly.
+     * Producers write anyway once the timeout elapses.
+     *
+     * @param minMatchedReaders Number of matched readers to wait for, including readers of the same process.
+     * @param matchTimeoutMs    Maximum time in milliseconds to wait.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder awaitReaders(int minMatchedReaders, long matchTimeoutMs)
+    {
+        this.minMatchedReaders = minMatchedReaders;
+        this.matchTimeoutMs = matchTimeoutMs;
+        return this;
+    }
+
+    /**
+     * Hand exchanges to a dedicated writer thread, which writes them in batches.
+     *
+     * @param writeBatch      Maximum number of exchanges written together.
+     * @param flushIntervalMs Time in milliseconds to wait for more exchanges before writing a partial batch.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder coalesceWrites(int writeBatch, long flushIntervalMs)
+    {
+        this.writeBatch = writeBatch;
+        this.flushIntervalMs = flushIntervalMs;
+        return this;
+    }
+
+    /**
+     * Activate message structure pooling. Each in-flight exchange borrows its own instance from a pool,
+     * which is given back once the exchange completes. Unlike {@link #reuseMessageStructures()} this is safe with
+     * batching and asynchronous consumers, but routes must not hold on to the body after the exchange completes.
+     *
+     * @param poolSize Maximum number of idle instances kept by the pool, or {@code 0} to size it from the consumer mode.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder poolMessageStructures(int poolSize)
+    {
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    /**
+     * Deliver received samples in batches. Each exchange body will be a {@link java.util.List} of received samples.
+     *
+     * @param batchSize     Maximum number of samples per exchange.
+     * @param batchLingerMs Time in milliseconds to wait for more samples before sending a partial batch.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder batch(int batchSize, long batchLingerMs)
+    {
+        this.batchSize = batchSize;
+        this.batchLingerMs = batchLingerMs;
+        return this;
+    }
+
+    /**
+     * Process received samples on a pool of worker threads instead of the DDS listener thread.
+     *
+     * @param queueSize      Capacity of the hand-off queue between the listener and the workers.
+     * @param workers        Number of worker threads.
+     * @param overflowPolicy Behavior when the hand-off queue is full.
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder async(int queueSize, int workers, DdsOverflowPolicy overflowPolicy)
+    {
+        this.async = true;
+        this.queueSize = queueSize;
+        this.workers = workers;
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    /**
+     * Activate exchange pooling. Exchanges given to consumers are recycled once they complete,
+     * so routes must not hold on to them afterwards. {@link org.apache.camel.Exchange#getCreated() Creation times} of
+     * recycled exchanges are those of their first use, see {@link DdsExchangePool}.
+     *
+     * @return DDS URI builder.
+     */
+    public DdsUriBuilder pooledExchanges()
+    {
+        this.pooledExchanges = true;
+        return this;
+    }
+
     /**
      * @return Generated URI baseline. Does not contain parameters even if a {@link DdsQosConfig} is specified.
      */
@@ -121,23 +349,97 @@ public class DdsUriBuilder
     }
 
     /**
-     * @return Full generated URI. Will contain parameters if {@link #reuseMessageStructures()} has been called
-     * or if a {@link DdsQosConfig} is specified.
+     * @return Full generated URI. Will contain parameters for each option that has been set, or if a {@link DdsQosConfig} is specified.
      */
     public String getUri()
     {
-        String uri = getBaseUri();
-        String next = "?";
+        List<String> parameters = new ArrayList<>();
         if (config != null)
         {
-            uri += next + "qos=" + config.getName();
-            next = "&";
+            parameters.add("qos=" + config.getName());
+        }
+        if (participantProfile != null)
+        {
+            parameters.add("participant=" + participantProfile);
+        }
+        if (raw)
+        {
+            parameters.add("raw=true");
+        }
+        if (lazy)
+        {
+            parameters.add("lazy=true");
+        }
+        if (poolSize >= 0)
+        {
+            parameters.add("reuse=" + DdsCamelComponent.REUSE_POOL);
+            parameters.add("poolSize=" + poolSize);
+        } else if (reuse)
+        {
+            parameters.add("reuse=true");
+        }
+        if (batchSize > 1)
+        {
+            parameters.add("batchSize=" + batchSize);
+            if (batchLingerMs > 0)
+            {
+                parameters.add("batchLingerMs=" + batchLingerMs);
+            }
+        }
+        if (async)
+        {
+            parameters.add("async=true");
+            parameters.add("queueSize=" + queueSize);
+            parameters.add("workers=" + workers);
+            parameters.add("overflow=" + overflowPolicy.getUriName());
+        }
+        if (pooledExchanges)
+        {
+            parameters.add("pooledExchanges=true");
+        }
+        if (conflate)
+        {
+            parameters.add("conflate=true");
         }
-        if (reuse)
+        if (partitions > 1)
         {
-            uri += next + "reuse=true";
+            parameters.add("partitions=" + partitions);
         }
-        return uri;
+        if (keyFields != null)
+        {
+            parameters.add("key=" + keyFields);
+        }
+        if (fanoutMode != null)
+        {
+            parameters.add("fanout=" + fanoutMode.getUriName());
+        }
+        if (asyncWrite)
+        {
+            parameters.add("asyncWrite=true");
+        }
+        if (writeBatch > 1)
+        {
+            parameters.add("writeBatch=" + writeBatch);
+            if (flushIntervalMs > 0)
+            {
+                parameters.add("flushIntervalMs=" + flushIntervalMs);
+            }
+        }
+        if (flowBytesPerPeriod > 0)
+        {
+            parameters.add("flowBytesPerPeriod=" + flowBytesPerPeriod);
+            parameters.add("flowPeriodMs=" + flowPeriodMs);
+        } else if (asyncPublish)
+        {
+            parameters.add("asyncPublish=true");
+        }
+        if (minMatchedReaders > 0)
+        {
+            parameters.add("minMatchedReaders=" + minMatchedReaders);
+            parameters.add("matchTimeoutMs=" + matchTimeoutMs);
+        }
+        String uri = getBaseUri();
+        return parameters.isEmpty() ? uri : uri + "?" + String.join("&", parameters);
     }
 
     @Override
@@ -0,0 +1,205 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import us.ihmc.pubsub.publisher.Publisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gathers exchanges from many route threads and writes them in batches from a single writer thread.
+ * Each exchange's callback fires once its body has been written, or has failed to be written.
+ * The queue holds a fixed number of batches, and route threads block when it is full.
+ * Exchanges that arrive once the writer has stopped are failed rather than left waiting for a writer that is gone.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsWriteCoalescer
+{
+    private static final Logger logger = LoggerFactory.getLogger(DdsWriteCoalescer.class);
+    private static final int QUEUED_BATCHES = 8;
+    private static final long OFFER_WAIT_MS = 100;
+    private final String name;
+    private final Publisher publisher;
+    private final DdsMetrics metrics;
+    private final int batchSize;
+    private final long flushNanos;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Object writeLock = new Object();
+    private volatile boolean running;
+
+    /**
+     * Create the coalescer.
+     *
+     * @param name            Name used when logging, typically the endpoint uri.
+     * @param publisher       Publisher to write samples to.
+     * @param metrics         Counters to record written samples in.
+     * @param batchSize       Maximum number of exchanges written together.
+     * @param flushIntervalMs Time in milliseconds to wait for more exchanges before writing a partial batch.
+     */
+    public DdsWriteCoalescer(String name, Publisher publisher, DdsMetrics metrics, int batchSize, long flushIntervalMs)
+    {
+        this.name = name;
+        this.publisher = publisher;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.queue = new ArrayBlockingQueue<>(batchSize * QUEUED_BATCHES);
+    }
+
+    /**
+     * Start the writer task on the given executor.
+     *
+     * @param executor Executor to run the writer on.
+     */
+    public void start(ExecutorService executor)
+    {
+        running = true;
+        executor.execute(this::work);
+    }
+
+    /**
+     * Stop the writer and write any exchanges it had not picked up yet on the calling thread.
+     * The executor passed to {@link #start(ExecutorService)} should be shut down first to release the writer.
+     */
+    public void stop()
+    {
+        running = false;
+        List<PendingWrite> remaining = new ArrayList<>(queue.size());
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty())
+        {
+            logger.debug("Flushing {} pending exchanges for '{}' on stop", remaining.size(), name);
+            write(remaining);
+        }
+    }
+
+    /**
+     * Queue an exchange for writing, waiting for space when the queue is full.
+     * When the writer is or gets stopped before picking the exchange up, the exchange fails instead.
+     *
+     * @param exchange Exchange whose body to write.
+     * @param callback Callback to notify once the body has been written.
+     * @throws InterruptedException When interrupted while waiting for space.
+     */
+    public void enqueue(Exchange exchange, AsyncCallback callback) throws InterruptedException
+    {
+        PendingWrite pending = new PendingWrite(exchange, callback);
+        // Wait in slices, so a full queue never holds the route thread once the writer has stopped
+        do
+        {
+            if (!running)
+            {
+                reject(pending);
+                return;
+            }
+        } while (!queue.offer(pending, OFFER_WAIT_MS, TimeUnit.MILLISECONDS));
+        // Stop may have drained the queue just before the offer landed, then nothing else would take it
+        if (!running && queue.remove(pending))
+        {
+            reject(pending);
+        }
+    }
+
+    /**
+     * @return Number of exchanges waiting for the writer.
+     */
+    public int getQueueDepth()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Writer loop, writes queued exchanges in batches until stopped or interrupted.
+     */
+    private void work()
+    {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running)
+        {
+            try
+            {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < batchSize)
+                {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null)
+                    {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Write exchanges in one pass, then notify their callbacks.
+     *
+     * @param writes Exchanges to write.
+     */
+    private void write(List<PendingWrite> writes)
+    {
+        synchronized (writeLock)
+        {
+            for (PendingWrite write : writes)
+            {
+                try
+                {
+                    metrics.addSamplesOut(DdsProducer.writeBody(publisher, write.exchange.getIn().getBody()));
+                } catch (Exception ex)
+                {
+                    write.exchange.setException(ex);
+                }
+            }
+        }
+        // Callbacks continue routing, so only run them once the publisher is free again
+        for (PendingWrite write : writes)
+        {
+            write.callback.done(false);
+        }
+    }
+
+    /**
+     * Fail an exchange the writer will never write.
+     *
+     * @param pending Exchange to fail.
+     */
+    private void reject(PendingWrite pending)
+    {
+        pending.exchange.setException(new IllegalStateException("Writer for '" + name + "' is not running"));
+        pending.callback.done(false);
+    }
+
+    /**
+     * Exchange waiting to be written.
+     */
+    private static class PendingWrite
+    {
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+
+        private PendingWrite(Exchange exchange, AsyncCallback callback)
+        {
+            this.exchange = exchange;
+            this.callback = callback;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.chesapeaketechnology.dds.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall clock time with nanosecond resolution on Java 8, by offsetting {@link System#nanoTime()} from the epoch once at startup.
+ * Suitable for comparing against DDS source timestamps, not for long term timekeeping since the two clocks may drift apart.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public final class EpochClock
+{
+    private static final long OFFSET_NANOS = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+
+    // Deny constructor access
+    private EpochClock()
+    {
+    }
+
+    /**
+     * @return Current time in nanoseconds since the epoch.
+     */
+    public static long nanos()
+    {
+        return System.nanoTime() + OFFSET_NANOS;
+    }
+}
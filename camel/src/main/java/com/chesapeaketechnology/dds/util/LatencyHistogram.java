@@ -0,0 +1,122 @@
+package com.chesapeaketechnology.dds.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative durations, in nanoseconds. Values are counted in log-linear buckets,
+ * 16 per power of two, so reported percentiles are within roughly 6% of the recorded values.
+ * Recording never allocates, and may happen concurrently with reads.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos Duration to record. Negative values, such as from clock skew between hosts, are recorded as {@code 0}.
+     */
+    public void record(long nanos)
+    {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value))
+        {
+            // Retry until the max is at least this value
+        }
+    }
+
+    /**
+     * @return Number of recorded values.
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * @return Largest recorded value, or {@code 0} if none have been recorded.
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * @param percentile Percentile between {@code 0} and {@code 100}, such as {@code 99.9}.
+     * @return Upper bound of the bucket holding the value at the percentile, or {@code 0} if no values have been recorded.
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("Percentile must be within 0-100: " + percentile);
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += snapshot[i];
+            if (seen >= rank)
+            {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Clear all recorded values. Values recorded while resetting may or may not be kept.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        max.set(0);
+    }
+
+    /**
+     * @param value Non-negative value.
+     * @return Index of the bucket counting the value.
+     */
+    private static int indexOf(long value)
+    {
+        if (value < SUB_BUCKETS * 2)
+        {
+            return (int) value;
+        }
+        // Keep the leading bit and the next SUB_BUCKET_BITS bits, dropping the rest
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * @param index Bucket index.
+     * @return Largest value counted by the bucket.
+     */
+    private static long upperBoundOf(int index)
+    {
+        if (index < SUB_BUCKETS * 2)
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long top = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,75 @@
+package com.chesapeaketechnology.dds.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A fixed capacity pool of reusable objects, whose idle objects are held in a ring buffer allocated once up front.
+ * Acquiring and releasing take constant time however large the pool is. When the pool is empty new objects are created,
+ * and objects released to a full pool are left for the garbage collector.
+ *
+ * @param <T> Type of pooled object.
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class ObjectPool<T>
+{
+    private final BlockingQueue<T> idle;
+    private final int capacity;
+    private final Supplier<T> factory;
+    private final LongAdder created = new LongAdder();
+
+    /**
+     * Create the pool. Objects are created on demand, not up front.
+     *
+     * @param capacity Maximum number of idle objects held by the pool.
+     * @param factory  Creates new objects when the pool is empty.
+     */
+    public ObjectPool(int capacity, Supplier<T> factory)
+    {
+        if (capacity < 1) throw new IllegalArgumentException("Pool capacity must be positive: " + capacity);
+        this.idle = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.factory = factory;
+    }
+
+    /**
+     * @return An idle pooled object, or a newly created one if the pool is empty.
+     */
+    public T acquire()
+    {
+        T value = idle.poll();
+        if (value != null)
+        {
+            return value;
+        }
+        created.increment();
+        return factory.get();
+    }
+
+    /**
+     * @param value Object to return to the pool. Must no longer be used by the caller.
+     * @return {@code true} if the object was pooled, {@code false} if the pool was full.
+     */
+    public boolean release(T value)
+    {
+        return idle.offer(value);
+    }
+
+    /**
+     * @return Maximum number of idle objects held by the pool.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * @return Number of objects the pool has created. Stays constant once the pool reaches a steady state.
+     */
+    public long getCreatedCount()
+    {
+        return created.sum();
+    }
+}
@@ -2,8 +2,6 @@ package com.chesapeaketechnology.dds.util;
 
 import us.ihmc.pubsub.TopicDataType;
 
-import java.lang.reflect.Constructor;
-
 /**
  * Reflection utilities pertaining to generated idl types.
  *
@@ -21,14 +19,9 @@ public class ReflectionUtil
     {
         try
         {
-            // Find and invoke the default constructor
-            for (Constructor<?> constructor : Class.forName(idlTypeName).getConstructors())
-            {
-                if (constructor.getParameterCount() == 0)
-                {
-                    return constructor.newInstance();
-                }
-            }
+            return Class.forName(idlTypeName).getConstructor().newInstance();
+        } catch (NoSuchMethodException ex)
+        {
             throw new IllegalStateException("No default constructor in idl type '" + idlTypeName + "'");
         } catch (ReflectiveOperationException ex)
         {
@@ -37,6 +30,8 @@ public class ReflectionUtil
     }
 
     /**
+     * Prefer {@link com.chesapeaketechnology.dds.DdsTypeRegistry}, which only resolves each type once.
+     *
      * @param idlTypeName Fully {@link Class#getName() qualified name} of the an idl type class.
      * @return Instance of the type's pub-sub class.
      */
@@ -45,7 +40,10 @@ public class ReflectionUtil
         String idlPubSubTypeName = idlTypeName + PUB_SUB_EXT;
         try
         {
-            return (TopicDataType<?>) Class.forName(idlPubSubTypeName).getConstructors()[0].newInstance();
+            return (TopicDataType<?>) Class.forName(idlPubSubTypeName).getConstructor().newInstance();
+        } catch (NoSuchMethodException ex)
+        {
+            throw new IllegalStateException("No default constructor in serializer '" + idlPubSubTypeName + "'");
         } catch (ReflectiveOperationException ex)
         {
             throw new IllegalStateException("Failed to fetch serializer for '" + idlTypeName + "', please check your classpath");
@@ -0,0 +1,95 @@
+package com.chesapeaketechnology.dds.util;
+
+import us.ihmc.pubsub.TopicDataType;
+import us.ihmc.pubsub.common.SerializedPayload;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Copies samples of a generated idl type. Uses the pub-sub type's generated {@code copy(src, dest)} method when present,
+ * otherwise falls back to serializing and deserializing the sample.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SampleCopier
+{
+    private final TopicDataType topicDataType;
+    private final MethodHandle copy;
+    private final SerializedPayload payload;
+
+    /**
+     * Create the copier.
+     *
+     * @param topicDataType Serializer/deserializer of the idl type.
+     */
+    public SampleCopier(TopicDataType<?> topicDataType)
+    {
+        this.topicDataType = topicDataType;
+        this.copy = findCopy(topicDataType);
+        this.payload = copy == null ? new SerializedPayload(topicDataType.getTypeSize()) : null;
+    }
+
+    /**
+     * @param src Sample to copy.
+     * @return New instance holding the same values as the sample.
+     */
+    public Object copy(Object src)
+    {
+        Object dest = topicDataType.createData();
+        copy(src, dest);
+        return dest;
+    }
+
+    /**
+     * @param src  Sample to copy.
+     * @param dest Instance to copy the sample's values into.
+     */
+    public void copy(Object src, Object dest)
+    {
+        if (copy != null)
+        {
+            try
+            {
+                copy.invoke(src, dest);
+            } catch (Throwable ex)
+            {
+                throw new IllegalStateException("Failed to copy sample of '" + topicDataType.getName() + "'", ex);
+            }
+            return;
+        }
+        synchronized (payload)
+        {
+            try
+            {
+                topicDataType.serialize(src, payload);
+                topicDataType.deserialize(payload, dest);
+            } catch (IOException ex)
+            {
+                throw new IllegalStateException("Failed to copy sample of '" + topicDataType.getName() + "'", ex);
+            }
+        }
+    }
+
+    /**
+     * @param topicDataType Serializer/deserializer of the idl type.
+     * @return Generated copy method bound to the pub-sub type, or {@code null} if there is none.
+     */
+    private static MethodHandle findCopy(TopicDataType<?> topicDataType)
+    {
+        Class<?> dataType = topicDataType.createData().getClass();
+        try
+        {
+            return MethodHandles.publicLookup()
+                    .findVirtual(topicDataType.getClass(), "copy", MethodType.methodType(void.class, dataType, dataType))
+                    .bindTo(topicDataType)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (ReflectiveOperationException ex)
+        {
+            return null;
+        }
+    }
+}
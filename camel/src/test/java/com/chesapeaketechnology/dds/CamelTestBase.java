@@ -12,6 +12,8 @@ public class CamelTestBase extends CamelTestSupport
 {
     protected static final int MESSAGE_COUNT = 20;
     protected static final int REPEAT_COUNT = 5;
+    protected static final int BATCH_SIZE = 8;
+    protected static final long BATCH_LINGER_MS = 2;
     protected static final String URI_OUT_HIGH = DdsUriBuilder.create()
             .content(TestIDL.class)
             .domain(0)
@@ -33,6 +35,30 @@ public class CamelTestBase extends CamelTestSupport
             .quality(DdsQoSConfigManager.CONFIG_HIGH)
             .reuseMessageStructures()
             .getUri();
+    protected static final String URI_IN_HIGH_REUSE_POOL = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .poolMessageStructures(0)
+            .getUri();
+    protected static final String URI_IN_HIGH_BATCH = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .batch(BATCH_SIZE, BATCH_LINGER_MS)
+            .getUri();
+    protected static final String URI_IN_HIGH_ASYNC = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .async(MESSAGE_COUNT, 2, DdsOverflowPolicy.BLOCK)
+            .getUri();
+    protected static final String URI_IN_HIGH_POOLED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .pooledExchanges()
+            .getUri();
     protected static final String URI_MOCK = "mock:result";
     protected static final String URI_DIRECT = "direct:test";
     protected static final int MOCK_TIMEOUT_MS = 250;
@@ -0,0 +1,154 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import com.sun.management.ThreadMXBean;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import us.ihmc.pubsub.common.SampleInfo;
+import us.ihmc.pubsub.subscriber.Subscriber;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate that the steady state send and receive paths do not allocate per sample
+ * when message structures and exchanges are reused.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsAllocationTests extends CamelTestBase
+{
+    private static final String URI_HIGH_REUSE_POOLED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .reuseMessageStructures()
+            .pooledExchanges()
+            .getUri();
+    private static final String URI_LOW_REUSE_POOLED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_LOW)
+            .reuseMessageStructures()
+            .pooledExchanges()
+            .getUri();
+    private static final String ROUTE_RECEIVE = "receive";
+    private static final int WARMUP_COUNT = 20_000;
+    private static final int SAMPLE_COUNT = 10_000;
+    // Less than the smallest object, so a single allocation per sample fails the test
+    private static final long MAX_BYTES_PER_SAMPLE = 8;
+
+    /**
+     * Receiving a sample into a reused instance and pooled exchange through a started route should not allocate,
+     * beyond what camel itself allocates to route an exchange and the stub subscriber allocates to answer.
+     * The baseline routes one exchange created up front, so anything the consumer, its message or the exchange pool
+     * allocate per sample is measured.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReceiveAllocationFree() throws Exception
+    {
+        DdsConsumer consumer = (DdsConsumer) context.getRoute(ROUTE_RECEIVE).getConsumer();
+        assertTrue(consumer instanceof DdsReusingConsumer, consumer.getClass().getName());
+        DdsEndpoint endpoint = context.getEndpoint(URI_LOW_REUSE_POOLED, DdsEndpoint.class);
+        // Stand in for the DDS subscriber, filling the instance it is given with the next sample
+        int[] nextId = new int[1];
+        Subscriber<Object> subscriber = Mockito.mock(Subscriber.class, Mockito.withSettings().stubOnly());
+        Mockito.when(subscriber.takeNextData(Mockito.any(), Mockito.any())).thenAnswer(invocation ->
+        {
+            ((TestIDL) invocation.getArgument(0)).setId(nextId[0]++);
+            return true;
+        });
+        Runnable receive = () -> consumer.onNewDataMessage(subscriber);
+        // The same subscriber call and routing, of an exchange that is neither pooled nor built by the endpoint
+        TestIDL sample = new TestIDL();
+        SampleInfo info = new SampleInfo();
+        Exchange exchange = endpoint.createExchange();
+        exchange.getIn().setBody(sample);
+        Runnable route = () ->
+        {
+            subscriber.takeNextData(sample, info);
+            try
+            {
+                consumer.getProcessor().process(exchange);
+            } catch (Exception ex)
+            {
+                throw new RuntimeCamelException(ex);
+            }
+        };
+        long perSample = allocatedPerSample(receive) - allocatedPerSample(route);
+        assertTrue(perSample < MAX_BYTES_PER_SAMPLE, "Consumer allocated " + perSample + " bytes per sample");
+        assertTrue(nextId[0] > WARMUP_COUNT + SAMPLE_COUNT, "Subscriber was not taken from");
+    }
+
+    /**
+     * Writing a reused exchange should not allocate.
+     */
+    @Test
+    void testSendAllocationFree() throws Exception
+    {
+        DdsEndpoint endpoint = context.getEndpoint(URI_HIGH_REUSE_POOLED, DdsEndpoint.class);
+        DdsProducer producer = (DdsProducer) endpoint.createProducer();
+        producer.start();
+        Exchange exchange = endpoint.createExchange();
+        exchange.getIn().setBody(new TestIDL(1));
+        AsyncCallback callback = doneSync -> { };
+        Runnable send = () -> producer.process(exchange, callback);
+        try
+        {
+            assertAllocationFree(send);
+        } finally
+        {
+            producer.stop();
+        }
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_LOW_REUSE_POOLED).routeId(ROUTE_RECEIVE).process(exchange -> { });
+            }
+        };
+    }
+
+    /**
+     * @param action Action handling a single sample.
+     */
+    private static void assertAllocationFree(Runnable action)
+    {
+        long perSample = allocatedPerSample(action);
+        assertTrue(perSample < MAX_BYTES_PER_SAMPLE, "Allocated " + perSample + " bytes per sample");
+    }
+
+    /**
+     * @param action Action handling a single sample.
+     * @return Bytes the action allocates on average, once warmed up.
+     */
+    private static long allocatedPerSample(Runnable action)
+    {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        // Let pools fill and the JIT settle before measuring
+        for (int i = 0; i < WARMUP_COUNT; i++)
+        {
+            action.run();
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < SAMPLE_COUNT; i++)
+        {
+            action.run();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - before) / SAMPLE_COUNT;
+    }
+}
@@ -0,0 +1,47 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DDS camel component tests to validate asynchronous consumers.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsAsyncConsumerTests extends CamelTestBase
+{
+    private static final String HEADER_THREAD = "thread";
+
+    /**
+     * Every sent message should arrive, and be processed on one of the consumer's worker threads.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testProcessedOnWorkers() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        result.allMessages().header(HEADER_THREAD).contains("DdsConsumer");
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH_ASYNC)
+                        .process(exchange -> exchange.getIn().setHeader(HEADER_THREAD, Thread.currentThread().getName()))
+                        .to(URI_MOCK);
+            }
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate the overflow policies of asynchronous consumers' hand-off queues.
+ * A single worker is held on the first exchange while the queue behind it fills up.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsAsyncDispatcherTests extends CamelTestBase
+{
+    private static final int QUEUE_SIZE = 2;
+    private static final long WAIT_TIMEOUT_MS = 2000;
+    private static final long BLOCKED_MS = 100;
+    private final List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> discarded = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch holding = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private DdsAsyncDispatcher dispatcher;
+
+    /**
+     * Stop the worker, even when a test failed while it was held.
+     */
+    @AfterEach
+    void stopWorker()
+    {
+        release.countDown();
+        if (dispatcher != null)
+        {
+            dispatcher.stop();
+        }
+        worker.shutdownNow();
+    }
+
+    /**
+     * Blocking should hold the listener until the worker makes room, then process every exchange.
+     */
+    @Test
+    void testBlock() throws Exception
+    {
+        fill(DdsOverflowPolicy.BLOCK);
+        Thread listener = new Thread(() -> dispatch(3), "DdsListenerTest");
+        listener.start();
+        listener.join(BLOCKED_MS);
+        assertTrue(listener.isAlive(), "Dispatch did not block on a full queue");
+        release.countDown();
+        listener.join(WAIT_TIMEOUT_MS);
+        awaitProcessed(4);
+        assertEquals(Arrays.asList(0, 1, 2, 3), processed);
+        assertEquals(Collections.emptyList(), discarded);
+        assertEquals(0, dispatcher.getDroppedCount());
+        assertEquals(0, dispatcher.getRejectedCount());
+    }
+
+    /**
+     * Stopping should release a listener blocked on the full queue, discarding its exchange along with the queued ones.
+     */
+    @Test
+    void testStopWhileBlocked() throws Exception
+    {
+        fill(DdsOverflowPolicy.BLOCK);
+        Thread listener = new Thread(() -> dispatch(3), "DdsListenerTest");
+        listener.start();
+        listener.join(BLOCKED_MS);
+        assertTrue(listener.isAlive(), "Dispatch did not block on a full queue");
+        dispatcher.stop();
+        listener.join(WAIT_TIMEOUT_MS);
+        assertFalse(listener.isAlive(), "Dispatch stayed blocked after stop");
+        release.countDown();
+        awaitProcessed(1);
+        assertEquals(Collections.singletonList(0), processed);
+        // The listener may discard its exchange while stop is still draining the queue
+        assertEquals(new TreeSet<>(Arrays.asList(1, 2, 3)), new TreeSet<>(discarded));
+        assertEquals(0, dispatcher.getQueueDepth());
+        dispatch(4);
+        assertEquals(new TreeSet<>(Arrays.asList(1, 2, 3, 4)), new TreeSet<>(discarded));
+    }
+
+    /**
+     * Dropping the oldest should discard the exchange at the head of the queue to make room for the new one.
+     */
+    @Test
+    void testDropOldest() throws Exception
+    {
+        fill(DdsOverflowPolicy.DROP_OLDEST);
+        dispatch(3);
+        release.countDown();
+        awaitProcessed(3);
+        assertEquals(Arrays.asList(0, 2, 3), processed);
+        assertEquals(Collections.singletonList(1), discarded);
+        assertEquals(1, dispatcher.getDroppedCount());
+        assertEquals(0, dispatcher.getRejectedCount());
+    }
+
+    /**
+     * Dropping the newest should discard the new exchange and keep the queue as it was.
+     */
+    @Test
+    void testDropNewest() throws Exception
+    {
+        fill(DdsOverflowPolicy.DROP_NEWEST);
+        dispatch(3);
+        release.countDown();
+        awaitProcessed(3);
+        assertEquals(Arrays.asList(0, 1, 2), processed);
+        assertEquals(Collections.singletonList(3), discarded);
+        assertEquals(1, dispatcher.getDroppedCount());
+        assertEquals(0, dispatcher.getRejectedCount());
+    }
+
+    /**
+     * Rejecting should discard the new exchange, counting it as rejected rather than dropped.
+     */
+    @Test
+    void testReject() throws Exception
+    {
+        fill(DdsOverflowPolicy.REJECT);
+        dispatch(3);
+        dispatch(4);
+        release.countDown();
+        awaitProcessed(3);
+        assertEquals(Arrays.asList(0, 1, 2), processed);
+        assertEquals(Arrays.asList(3, 4), discarded);
+        assertEquals(0, dispatcher.getDroppedCount());
+        assertEquals(2, dispatcher.getRejectedCount());
+    }
+
+    /**
+     * Start a dispatcher with a single worker, hold the worker on exchange {@code 0} and fill the queue with exchanges {@code 1}
+     * and {@code 2}.
+     *
+     * @param overflowPolicy Policy of the dispatcher.
+     * @throws InterruptedException When interrupted waiting for the worker.
+     */
+    private void fill(DdsOverflowPolicy overflowPolicy) throws InterruptedException
+    {
+        dispatcher = new DdsAsyncDispatcher("test", QUEUE_SIZE, overflowPolicy, exchange ->
+        {
+            int id = exchange.getIn().getBody(Integer.class);
+            if (id == 0)
+            {
+                holding.countDown();
+                try
+                {
+                    release.await();
+                } catch (InterruptedException ex)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            processed.add(id);
+        }, exchange -> discarded.add(exchange.getIn().getBody(Integer.class)));
+        dispatcher.start(worker, 1);
+        dispatch(0);
+        assertTrue(holding.await(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS), "Worker did not take the first exchange");
+        dispatch(1);
+        dispatch(2);
+        assertEquals(QUEUE_SIZE, dispatcher.getQueueDepth());
+    }
+
+    /**
+     * @param id Body of the exchange to dispatch.
+     */
+    private void dispatch(int id)
+    {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(id);
+        dispatcher.dispatch(exchange);
+    }
+
+    /**
+     * @param count Number of exchanges to wait for the worker to process.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    private void awaitProcessed(int count) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+        while (processed.size() < count && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        assertEquals(count, processed.size(), processed.toString());
+    }
+}
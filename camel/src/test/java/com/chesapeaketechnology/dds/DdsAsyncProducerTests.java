@@ -0,0 +1,58 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DDS camel component tests to validate asynchronous producers.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsAsyncProducerTests extends CamelTestBase
+{
+    private static final String URI_OUT_HIGH_ASYNC = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .asyncWrite()
+            .getUri();
+    private static final String URI_MOCK_SENT = "mock:sent";
+    private static final String HEADER_THREAD = "thread";
+
+    /**
+     * Every sent message should arrive, and each exchange should continue routing on the writer thread once written.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testCompletedOnWriter() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        MockEndpoint sent = getMockEndpoint(URI_MOCK_SENT);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sent.expectedMessageCount(MESSAGE_COUNT);
+        sent.allMessages().header(HEADER_THREAD).contains("DdsProducer");
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT)
+                        .to(URI_OUT_HIGH_ASYNC)
+                        .process(exchange -> exchange.getIn().setHeader(HEADER_THREAD, Thread.currentThread().getName()))
+                        .to(URI_MOCK_SENT);
+                from(URI_IN_HIGH).to(URI_MOCK);
+            }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.Exchange;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate batch delivery.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsBatchingTests extends CamelTestBase
+{
+    private static final String URI_MOCK_BATCHES = "mock:batches";
+    private static final long HOLD_TIMEOUT_MS = 2000;
+    private static final long QUEUE_MS = 100;
+    private final AtomicBoolean first = new AtomicBoolean(true);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Every sent message should arrive exactly once, inside a batch no larger than the configured batch size.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testAllMessagesDeliveredInBatches() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        result.allMessages().body().isInstanceOf(TestIDL.class);
+        result.allMessages().header(Exchange.BATCH_SIZE).isLessThanOrEqualTo(BATCH_SIZE);
+        release.countDown();
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Samples arriving while the route is busy with the first batch should be delivered together in later batches.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testBurstBatched() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        // Let the burst queue up behind the held first batch
+        Thread.sleep(QUEUE_MS);
+        release.countDown();
+        assertMockEndpointsSatisfied(HOLD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        List<Exchange> batches = getMockEndpoint(URI_MOCK_BATCHES).getReceivedExchanges();
+        assertTrue(batches.stream().anyMatch(batch -> batch.getIn().getBody() instanceof List
+                && batch.getIn().getHeader(Exchange.BATCH_SIZE, Integer.class) > 1), "No batch held more than one sample");
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH_BATCH)
+                        .process(exchange ->
+                        {
+                            // Hold the first batch, so that later samples wait in the reader
+                            if (first.getAndSet(false))
+                            {
+                                release.await(HOLD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                            }
+                        })
+                        .to(URI_MOCK_BATCHES)
+                        .filter(body().isInstanceOf(List.class))
+                        .split(body())
+                        .to(URI_MOCK);
+            }
+        };
+    }
+}
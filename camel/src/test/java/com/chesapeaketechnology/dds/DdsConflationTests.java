@@ -0,0 +1,123 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.Exchange;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate conflating consumers.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsConflationTests extends CamelTestBase
+{
+    private static final String URI_IN_HIGH_NO_KEY = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .conflate(null)
+            .getUri();
+    private static final String URI_IN_HIGH_BY_ID = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .conflate("id")
+            .getUri();
+    private static final String ROUTE_BY_ID = "byId";
+    private static final int SHARED_ID = 7;
+    private static final long PROCESS_DELAY_MS = 10;
+    private static final long WAIT_TIMEOUT_MS = 2000;
+
+    /**
+     * With distinct keys nothing should be conflated.
+     */
+    @Test
+    void testDistinctKeysKept() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertEquals(0, ((DdsConsumer) context.getRoute(ROUTE_BY_ID).getConsumer()).getConflatedCount());
+    }
+
+    /**
+     * Samples of the same instance should be conflated while a slow route is busy, keeping only the latest waiting one.
+     */
+    @Test
+    void testLatestValueKept() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        for (int i = 0; i < MESSAGE_COUNT; i++)
+        {
+            sendBody(URI_DIRECT, new TestIDL(SHARED_ID));
+        }
+        // Every sample is either delivered or replaced by a newer one
+        DdsConsumer consumer = (DdsConsumer) context.getRoute(ROUTE_BY_ID).getConsumer();
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+        while (result.getReceivedCounter() + consumer.getConflatedCount() < MESSAGE_COUNT && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(PROCESS_DELAY_MS);
+        }
+        assertEquals(MESSAGE_COUNT, result.getReceivedCounter() + consumer.getConflatedCount());
+        assertTrue(consumer.getConflatedCount() > 0, "Nothing was conflated");
+        // The latest sample is never replaced, so it is always the last one delivered
+        List<Exchange> received = result.getReceivedExchanges();
+        long previous = -1;
+        for (Exchange exchange : received)
+        {
+            long sequence = exchange.getIn().getHeader(DdsMessage.HEADER_SEQUENCE_NUMBER, Long.class);
+            assertTrue(sequence > previous, "Delivered out of order: " + sequence + " after " + previous);
+            previous = sequence;
+        }
+    }
+
+    /**
+     * Conflating without key fields would treat every sample as the same instance, so the route should fail to start.
+     */
+    @Test
+    void testConflateNeedsKey()
+    {
+        Exception ex = assertThrows(Exception.class, () -> context.addRoutes(new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_IN_HIGH_NO_KEY).to(URI_MOCK);
+            }
+        }));
+        Throwable cause = ex;
+        while (cause.getCause() != null && !(cause instanceof IllegalStateException))
+        {
+            cause = cause.getCause();
+        }
+        assertTrue(cause instanceof IllegalStateException, ex.toString());
+        assertTrue(cause.getMessage().contains("key fields"), cause.getMessage());
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH_BY_ID).routeId(ROUTE_BY_ID)
+                        .delay(PROCESS_DELAY_MS)
+                        .to(URI_MOCK);
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * DDS camel component tests to validate exchange pooling.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsExchangePoolingTests extends CamelTestBase
+{
+    /**
+     * A set using a "IdentityHashMap" backing is so that we use "==" instead of "equals".
+     */
+    private final Set<Exchange> receivedExchanges = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final Set<Long> createdTimes = Collections.synchronizedSet(new HashSet<>());
+
+    /**
+     * A synchronous consumer only ever has one exchange in flight, so the pool should only ever create one exchange.
+     */
+    @Test
+    void testExchangesRecycled() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        DdsEndpoint endpoint = context.getEndpoint(URI_IN_HIGH_POOLED, DdsEndpoint.class);
+        assertEquals(1, endpoint.getExchangePool().getCreatedCount());
+        assertEquals(1, receivedExchanges.size());
+        // The creation time is that of the pooled exchange, not of each sample, as documented on the pool
+        assertEquals(1, createdTimes.size(), createdTimes.toString());
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH_POOLED)
+                        .process(exchange ->
+                        {
+                            receivedExchanges.add(exchange);
+                            createdTimes.add(exchange.getCreated());
+                        })
+                        .to(URI_MOCK);
+            }
+        };
+    }
+}
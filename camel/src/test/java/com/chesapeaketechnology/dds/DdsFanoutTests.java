@@ -0,0 +1,108 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * DDS camel component tests to validate delivery to several consumers of a shared subscriber.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsFanoutTests extends CamelTestBase
+{
+    private static final String URI_IN_HIGH_SHARED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .fanout(DdsFanoutMode.SHARED)
+            .getUri();
+    private static final String URI_IN_HIGH_COPY = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .fanout(DdsFanoutMode.COPY)
+            .getUri();
+    private static final String URI_MOCK_COPY = "mock:copy";
+    private static final String URI_MOCK_DEFAULT = "mock:default";
+    private static final int MODIFIED_ID = -1;
+    private final List<TestIDL> sharedBodies = new CopyOnWriteArrayList<>();
+    private final List<TestIDL> copiedBodies = new CopyOnWriteArrayList<>();
+    private final List<TestIDL> defaultBodies = new CopyOnWriteArrayList<>();
+
+    /**
+     * Every consumer should receive every sample. The copying consumer modifies its bodies,
+     * which must not be visible to the consumer using the shared instances.
+     */
+    @Test
+    void testCopiesIsolated() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        MockEndpoint copy = getMockEndpoint(URI_MOCK_COPY);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        copy.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < MESSAGE_COUNT; i++)
+        {
+            assertEquals(i, sharedBodies.get(i).getId());
+            assertEquals(MODIFIED_ID, copiedBodies.get(i).getId());
+            assertNotSame(sharedBodies.get(i), copiedBodies.get(i));
+        }
+    }
+
+    /**
+     * Consumers should get their own copies unless they opt in to sharing, so existing routes keep independent instances.
+     */
+    @Test
+    void testCopyByDefault() throws Exception
+    {
+        assertEquals(DdsFanoutMode.COPY, new DdsConsumerConfiguration().getFanoutMode());
+        MockEndpoint result = getMockEndpoint(URI_MOCK_DEFAULT);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < MESSAGE_COUNT; i++)
+        {
+            assertEquals(i, defaultBodies.get(i).getId());
+            assertNotSame(sharedBodies.get(i), defaultBodies.get(i));
+            assertNotSame(copiedBodies.get(i), defaultBodies.get(i));
+        }
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH_SHARED)
+                        .process(exchange -> sharedBodies.add(exchange.getIn().getBody(TestIDL.class)))
+                        .to(URI_MOCK);
+                from(URI_IN_HIGH)
+                        .process(exchange -> defaultBodies.add(exchange.getIn().getBody(TestIDL.class)))
+                        .to(URI_MOCK_DEFAULT);
+                from(URI_IN_HIGH_COPY)
+                        .process(exchange ->
+                        {
+                            TestIDL body = exchange.getIn().getBody(TestIDL.class);
+                            body.setId(MODIFIED_ID);
+                            copiedBodies.add(body);
+                        })
+                        .to(URI_MOCK_COPY);
+            }
+        };
+    }
+}
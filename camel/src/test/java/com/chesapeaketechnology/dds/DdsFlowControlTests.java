@@ -0,0 +1,154 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import com.chesapeaketechnology.dds.idl.TestIDLPubSubType;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import us.ihmc.pubsub.common.SerializedPayload;
+import us.ihmc.rtps.impl.fastRTPS.FastRTPSPublisherAttributes;
+import us.ihmc.rtps.impl.fastRTPS.ThroughputControllerDescriptor;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate asynchronous publishing and writer flow control.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsFlowControlTests extends CamelTestBase
+{
+    private static final int FLOW_BYTES_PER_PERIOD = 64 * 1024;
+    private static final long FLOW_PERIOD_MS = 10;
+    private static final String URI_OUT_HIGH_ASYNC_PUBLISH = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .asyncPublish()
+            .getUri();
+    private static final String URI_OUT_HIGH_FLOW = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .flowControl(FLOW_BYTES_PER_PERIOD, FLOW_PERIOD_MS)
+            .getUri();
+    private static final String URI_DIRECT_FLOW = "direct:flow";
+    // Room for a handful of the small test samples per period, so a burst takes several periods
+    private static final int SLOW_BYTES_PER_PERIOD = 128;
+    private static final long SLOW_PERIOD_MS = 50;
+    private static final int BURST_COUNT = 64;
+    private static final long BURST_TIMEOUT_MS = 10_000;
+    private static final String URI_OUT_HIGH_SLOW_FLOW = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .flowControl(SLOW_BYTES_PER_PERIOD, SLOW_PERIOD_MS)
+            .getUri();
+    private static final String URI_DIRECT_SLOW_FLOW = "direct:slowFlow";
+
+    /**
+     * Uri options should apply to a copy of the named QoS, leaving the named QoS itself synchronous.
+     */
+    @Test
+    void testPublishModeApplied()
+    {
+        DdsQosConfig high = DdsQoSConfigManager.getConfig(DdsQoSConfigManager.CONFIG_HIGH);
+        DdsQosConfig async = ((DdsEndpoint) context.getEndpoint(URI_OUT_HIGH_ASYNC_PUBLISH)).getQosConfig();
+        DdsQosConfig flow = ((DdsEndpoint) context.getEndpoint(URI_OUT_HIGH_FLOW)).getQosConfig();
+        assertFalse(high.isAsynchronous());
+        assertTrue(async.isAsynchronous());
+        assertEquals(high.getReliability(), async.getReliability());
+        assertTrue(flow.isAsynchronous());
+        assertEquals(FLOW_BYTES_PER_PERIOD, (int) flow.getFlowBytesPerPeriod());
+        assertEquals(FLOW_PERIOD_MS, (long) flow.getFlowPeriodMs());
+        assertNotEquals(high.getName(), async.getName());
+        assertNotEquals(async.getName(), flow.getName());
+    }
+
+    /**
+     * The flow controller should be handed to the FastRTPS publisher with the configured bytes and period.
+     */
+    @Test
+    void testThroughputControllerConfigured()
+    {
+        DdsQosConfig flow = ((DdsEndpoint) context.getEndpoint(URI_OUT_HIGH_FLOW)).getQosConfig();
+        FastRTPSPublisherAttributes attributes = Mockito.mock(FastRTPSPublisherAttributes.class, Mockito.RETURNS_DEEP_STUBS);
+        new DdsQosConfigurator(flow).configurePublisher(attributes);
+        ArgumentCaptor<ThroughputControllerDescriptor> descriptor = ArgumentCaptor.forClass(ThroughputControllerDescriptor.class);
+        Mockito.verify(attributes).setThroughputController(descriptor.capture());
+        assertEquals(FLOW_BYTES_PER_PERIOD, descriptor.getValue().getBytesPerPeriod());
+        assertEquals(FLOW_PERIOD_MS, descriptor.getValue().getPeriodMillis());
+    }
+
+    /**
+     * A burst larger than the flow controller lets through in one period should be spread over several periods.
+     */
+    @Test
+    void testBurstThrottled() throws Exception
+    {
+        SerializedPayload payload = new SerializedPayload(TestIDLPubSubType.getMaxCdrSerializedSize());
+        new TestIDLPubSubType().serialize(new TestIDL(1), payload);
+        // The first period's bytes go out immediately, every further period's bytes wait for the period to pass
+        long periods = (long) BURST_COUNT * payload.getLength() / SLOW_BYTES_PER_PERIOD;
+        assertTrue(periods > 1, "Burst fits in a single period");
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(BURST_COUNT);
+        long start = System.nanoTime();
+        for (int i = 0; i < BURST_COUNT; i++)
+        {
+            sendBody(URI_DIRECT_SLOW_FLOW, new TestIDL(i));
+        }
+        result.assertIsSatisfied(BURST_TIMEOUT_MS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs >= (periods - 1) * SLOW_PERIOD_MS, "Burst of " + BURST_COUNT + " took only " + elapsedMs + " ms");
+    }
+
+    /**
+     * Every sample written asynchronously should arrive.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testAsyncPublishDelivered() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Every sample written through a flow controller should arrive.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testFlowControlledDelivered() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT_FLOW);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH_ASYNC_PUBLISH);
+                from(URI_DIRECT_FLOW).to(URI_OUT_HIGH_FLOW);
+                from(URI_DIRECT_SLOW_FLOW).to(URI_OUT_HIGH_SLOW_FLOW);
+                from(URI_IN_HIGH).to(URI_MOCK);
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import com.chesapeaketechnology.dds.idl.TestIDLPubSubType;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+import us.ihmc.pubsub.attributes.DurabilityKind;
+import us.ihmc.pubsub.attributes.HistoryQosPolicy;
+import us.ihmc.pubsub.attributes.MemoryManagementPolicy;
+import us.ihmc.pubsub.attributes.ReliabilityKind;
+import us.ihmc.pubsub.common.SerializedPayload;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate bounded histories and their memory estimates.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsHistoryLimitsTests extends CamelTestBase
+{
+    private static final int DEPTH = 10;
+    private static final int MAX_INSTANCES = 4;
+    private static final int MAX_SAMPLES = 200;
+    private static final DdsQosConfig CONFIG_BOUNDED = DdsQosConfigBuilder.create("bounded")
+            .reliability(ReliabilityKind.RELIABLE)
+            .durability(DurabilityKind.TRANSIENT_LOCAL_DURABILITY_QOS)
+            .history(HistoryQosPolicy.HistoryQosPolicyKind.KEEP_ALL_HISTORY_QOS)
+            .resourceLimits(MAX_SAMPLES, 1, MAX_SAMPLES)
+            .historyMemoryPolicy(MemoryManagementPolicy.DYNAMIC_RESERVE_MEMORY_MODE)
+            .build();
+    private static final String URI_OUT_BOUNDED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(CONFIG_BOUNDED)
+            .getUri();
+    private static final String URI_IN_BOUNDED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(CONFIG_BOUNDED)
+            .getUri();
+    private static final DdsQosConfig CONFIG_PREALLOCATED = DdsQosConfigBuilder.create("preallocated")
+            .history(HistoryQosPolicy.HistoryQosPolicyKind.KEEP_LAST_HISTORY_QOS, DEPTH)
+            .maxInstances(MAX_INSTANCES)
+            .historyMemoryPolicy(MemoryManagementPolicy.PREALLOCATED_MEMORY_MODE)
+            .build();
+    private static final String URI_PREALLOCATED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(CONFIG_PREALLOCATED)
+            .getUri();
+
+    /**
+     * History capacity should follow the history kind and the tightest resource limit, taking the middleware's defaults
+     * for limits that are not configured.
+     */
+    @Test
+    void testHistoryCapacity()
+    {
+        assertEquals(DEPTH * MAX_INSTANCES, CONFIG_PREALLOCATED.getHistoryCapacity());
+        assertEquals(MAX_SAMPLES, CONFIG_BOUNDED.getHistoryCapacity());
+        // The default number of instances may each keep their depth
+        DdsQosConfig anyInstances = DdsQosConfigBuilder.create("anyInstances")
+                .history(HistoryQosPolicy.HistoryQosPolicyKind.KEEP_LAST_HISTORY_QOS, DEPTH)
+                .build();
+        assertEquals(DEPTH * DdsQosConfig.DEFAULT_MAX_INSTANCES, anyInstances.getHistoryCapacity());
+        DdsQosConfig limitedSamples = DdsQosConfigBuilder.create("limitedSamples", anyInstances)
+                .maxSamples(DEPTH * MAX_INSTANCES)
+                .build();
+        assertEquals(DEPTH * MAX_INSTANCES, limitedSamples.getHistoryCapacity());
+        // Keep-all histories are bounded by the default limits
+        long keepAll = Math.min(DdsQosConfig.DEFAULT_MAX_SAMPLES,
+                (long) DdsQosConfig.DEFAULT_MAX_SAMPLES_PER_INSTANCE * DdsQosConfig.DEFAULT_MAX_INSTANCES);
+        assertEquals(keepAll, DdsQoSConfigManager.getConfig(DdsQoSConfigManager.CONFIG_HIGH).getHistoryCapacity());
+        assertEquals(DdsQosConfig.DEFAULT_MAX_INSTANCES, DdsQoSConfigManager.getConfig(DdsQoSConfigManager.CONFIG_LOW).getHistoryCapacity());
+    }
+
+    /**
+     * Limits that DDS would reject should be rejected when building the config or loading it from a file.
+     */
+    @Test
+    void testInconsistentLimitsRejected()
+    {
+        assertThrows(IllegalArgumentException.class, () -> DdsQosConfigBuilder.create("bad").resourceLimits(10, 1, 20).build());
+        assertThrows(IllegalArgumentException.class, () -> DdsQosConfigBuilder.create("bad")
+                .history(HistoryQosPolicy.HistoryQosPolicyKind.KEEP_LAST_HISTORY_QOS, 20)
+                .maxSamplesPerInstance(10)
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> DdsQosConfigLoader.loadProperties(
+                new ByteArrayInputStream("bad.maxSamples=10\nbad.maxSamplesPerInstance=20".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * A bounded dynamic history should still deliver every sample, and report its memory from the samples seen so far.
+     * Every test sample serializes to the same size, so that is the average.
+     */
+    @Test
+    void testEstimatedHistoryMemory() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        SerializedPayload payload = new SerializedPayload(TestIDLPubSubType.getMaxCdrSerializedSize());
+        new TestIDLPubSubType().serialize(new TestIDL(1), payload);
+        assertTrue(payload.getLength() > 0);
+        DdsEndpoint endpoint = (DdsEndpoint) context.getEndpoint(URI_OUT_BOUNDED);
+        assertEquals((long) MAX_SAMPLES * payload.getLength(), endpoint.getEstimatedHistoryBytes());
+        assertEquals((long) MAX_SAMPLES * payload.getLength(), endpoint.getMetrics().getEstimatedHistoryBytes());
+    }
+
+    /**
+     * A preallocated history should report its memory from the type's largest serialized sample, whatever has been sent.
+     */
+    @Test
+    void testEstimatedPreallocatedMemory()
+    {
+        DdsEndpoint endpoint = (DdsEndpoint) context.getEndpoint(URI_PREALLOCATED);
+        long expected = (long) DEPTH * MAX_INSTANCES * new TestIDLPubSubType().getTypeSize();
+        assertEquals(expected, endpoint.getEstimatedHistoryBytes());
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_BOUNDED);
+                from(URI_IN_BOUNDED).to(URI_MOCK);
+            }
+        };
+    }
+}
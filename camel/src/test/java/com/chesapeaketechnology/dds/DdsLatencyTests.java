@@ -0,0 +1,70 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.util.LatencyHistogram;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate latency measurement and sample information headers.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsLatencyTests extends CamelTestBase
+{
+    /**
+     * Every received sample should be recorded, and carry its writer and sequence number.
+     */
+    @Test
+    void testLatencyRecorded() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        result.allMessages().header(DdsMessage.HEADER_WRITER_GUID).isNotNull();
+        result.allMessages().header(DdsMessage.HEADER_SEQUENCE_NUMBER).isNotNull();
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        LatencyHistogram histogram = context.getEndpoint(URI_IN_HIGH, DdsEndpoint.class).getLatencyHistogram();
+        assertEquals(MESSAGE_COUNT, histogram.getCount());
+        assertTrue(histogram.getValueAtPercentile(50) <= histogram.getValueAtPercentile(99.9));
+        assertTrue(histogram.getValueAtPercentile(99.9) <= histogram.getMax());
+    }
+
+    /**
+     * Percentiles should be within the histogram's precision of the recorded values.
+     */
+    @Test
+    void testPercentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++)
+        {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), histogram.getMax());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(500), histogram.getValueAtPercentile(50), TimeUnit.MICROSECONDS.toNanos(500) * 0.07);
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(990), histogram.getValueAtPercentile(99), TimeUnit.MICROSECONDS.toNanos(990) * 0.07);
+        assertEquals(histogram.getMax(), histogram.getValueAtPercentile(100));
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH).to(URI_MOCK);
+            }
+        };
+    }
+}
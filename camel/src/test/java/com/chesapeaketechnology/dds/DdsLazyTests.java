@@ -0,0 +1,64 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.Message;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DDS camel component tests to validate endpoints deserializing samples on demand.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsLazyTests extends CamelTestBase
+{
+    private static final String URI_IN_HIGH_LAZY = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .lazy()
+            .getUri();
+    private static final String HEADER_RAW = "raw";
+
+    /**
+     * Samples should arrive as serialized bytes, and decode into the sent samples once the body is read.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testDecodedOnRead() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        result.allMessages().header(HEADER_RAW).isEqualTo(true);
+        result.allMessages().body().isInstanceOf(TestIDL.class);
+        for (int i = 0; i < MESSAGE_COUNT; i++)
+        {
+            result.message(i).simple("${body.id}").isEqualTo(i);
+        }
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH_LAZY)
+                        .process(exchange ->
+                        {
+                            Message in = exchange.getIn();
+                            in.setHeader(HEADER_RAW, ((DdsMessage) in).getSample() instanceof DdsRawData);
+                        })
+                        .to(URI_MOCK);
+            }
+        };
+    }
+}
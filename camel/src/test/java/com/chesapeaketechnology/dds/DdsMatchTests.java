@@ -0,0 +1,81 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate producers waiting for readers to match.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsMatchTests extends CamelTestBase
+{
+    private static final long MATCH_TIMEOUT_MS = 200;
+    private static final long WAIT_TIMEOUT_MS = 5000;
+    // Best effort and volatile, so samples written before the reader matches are lost rather than delivered late
+    private static final String URI_OUT_LOW_AWAIT = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_LOW)
+            .awaitReaders(1, WAIT_TIMEOUT_MS)
+            .getUri();
+    private static final String URI_IN_LOW = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_LOW)
+            .getUri();
+    private static final String URI_OUT_UNREAD = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(2)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .awaitReaders(1, MATCH_TIMEOUT_MS)
+            .getUri();
+    private static final String URI_DIRECT_UNREAD = "direct:unread";
+
+    /**
+     * The first message is only written once the consumer has matched, so on a volatile best effort topic,
+     * where nothing written before matching is kept for the reader, every message should still arrive.
+     */
+    @Test
+    void testFirstMessagesDelivered() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertTrue(context.getEndpoint(URI_OUT_LOW_AWAIT, DdsEndpoint.class).getTopicMetrics().getMatchedSubscribers() >= 1);
+    }
+
+    /**
+     * Without any readers the first message should wait for the timeout, then be written anyway.
+     */
+    @Test
+    void testStartsAfterTimeout()
+    {
+        long start = System.nanoTime();
+        sendBody(URI_DIRECT_UNREAD, new TestIDL(0));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= MATCH_TIMEOUT_MS);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_LOW_AWAIT);
+                from(URI_DIRECT_UNREAD).to(URI_OUT_UNREAD);
+                from(URI_IN_LOW).to(URI_MOCK);
+            }
+        };
+    }
+}
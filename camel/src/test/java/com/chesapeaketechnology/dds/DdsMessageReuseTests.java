@@ -7,12 +7,17 @@ import org.apache.camel.component.mock.MockEndpoint;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * DDS camel component tests to validate QoS filtering.
@@ -103,4 +108,168 @@ public class DdsMessageReuseTests
             };
         }
     }
+
+    /**
+     * Run test with processes message instances <i>being pooled</i>.
+     * <br>
+     * Each instance is given back to the pool once its exchange completes. A synchronous consumer only has one exchange
+     * in flight, so the set's size will be 1 just like with reuse.
+     */
+    @Nested
+    class WithPool extends CamelTestBase
+    {
+        @Test
+        void testWithPool() throws Exception
+        {
+            sendTestMessages(URI_DIRECT);
+        }
+
+        @Override
+        public void tearDown() throws Exception
+        {
+            super.tearDown();
+            assertEquals(1, receivedInstances.size());
+        }
+
+        @Override
+        protected RoutesBuilder createRouteBuilder()
+        {
+            return new RouteBuilder()
+            {
+                @Override
+                public void configure()
+                {
+                    from(URI_DIRECT)
+                            .to(URI_OUT_HIGH);
+                    from(URI_IN_HIGH_REUSE_POOL)
+                            .process(exchange -> receivedInstances.add((TestIDL) exchange.getIn().getBody()));
+                }
+            };
+        }
+    }
+
+    /**
+     * Run test with pooled message instances processed <i>asynchronously</i> by several workers.
+     * <br>
+     * Exchanges in flight at the same time must each hold their own instance, and each instance must keep the sample
+     * it was given until its exchange completes, when it goes back to the pool.
+     */
+    @Nested
+    class WithPoolAsync extends CamelTestBase
+    {
+        private static final int WORKERS = 4;
+        private static final long HOLD_MS = 10;
+        private final String uriInPoolAsync = DdsUriBuilder.create()
+                .content(TestIDL.class)
+                .domain(0)
+                .quality(DdsQoSConfigManager.CONFIG_HIGH)
+                .poolMessageStructures(0)
+                .async(MESSAGE_COUNT, WORKERS, DdsOverflowPolicy.BLOCK)
+                .getUri();
+        private final Set<TestIDL> inFlight = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        @Test
+        void testWithPoolAsync() throws Exception
+        {
+            MockEndpoint mock = getMockEndpoint(URI_MOCK);
+            mock.expectedMessageCount(MESSAGE_COUNT);
+            sendTestMessages(URI_DIRECT);
+            assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS + MESSAGE_COUNT * HOLD_MS, TimeUnit.MILLISECONDS);
+            assertTrue(errors.isEmpty(), errors.toString());
+            assertTrue(maxInFlight.get() > 1, "Exchanges were not processed concurrently");
+        }
+
+        @Override
+        protected RoutesBuilder createRouteBuilder()
+        {
+            return new RouteBuilder()
+            {
+                @Override
+                public void configure()
+                {
+                    from(URI_DIRECT)
+                            .to(URI_OUT_HIGH);
+                    from(uriInPoolAsync)
+                            .process(exchange ->
+                            {
+                                TestIDL body = exchange.getIn().getBody(TestIDL.class);
+                                int id = body.getId();
+                                if (!inFlight.add(body))
+                                {
+                                    errors.add("Instance of sample " + id + " is already in flight");
+                                }
+                                maxInFlight.accumulateAndGet(inFlight.size(), Math::max);
+                                // Hold on to the instance while other workers receive samples
+                                Thread.sleep(HOLD_MS);
+                                if (body.getId() != id)
+                                {
+                                    errors.add("Instance of sample " + id + " was overwritten with " + body.getId());
+                                }
+                                inFlight.remove(body);
+                            })
+                            .to(URI_MOCK);
+                }
+            };
+        }
+    }
+
+    /**
+     * Run test with pooled message instances handed on <i>through a {@code seda} endpoint</i>.
+     * <br>
+     * The consumer's route returns as soon as the exchange is queued, so each instance must stay out of the pool
+     * until the handed on exchange completes, rather than being overwritten by the next sample.
+     */
+    @Nested
+    class WithPoolSeda extends CamelTestBase
+    {
+        private static final long HOLD_MS = 10;
+        private static final String URI_SEDA = "seda:pooled";
+        private final Set<Integer> ids = Collections.synchronizedSet(new HashSet<>());
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        @Test
+        void testWithPoolSeda() throws Exception
+        {
+            MockEndpoint mock = getMockEndpoint(URI_MOCK);
+            mock.expectedMessageCount(MESSAGE_COUNT);
+            sendTestMessages(URI_DIRECT);
+            assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS + MESSAGE_COUNT * HOLD_MS, TimeUnit.MILLISECONDS);
+            assertTrue(errors.isEmpty(), errors.toString());
+            assertEquals(MESSAGE_COUNT, ids.size());
+            assertTrue(receivedInstances.size() > 1, "Instances were given back before the handed on exchanges completed");
+        }
+
+        @Override
+        protected RoutesBuilder createRouteBuilder()
+        {
+            return new RouteBuilder()
+            {
+                @Override
+                public void configure()
+                {
+                    from(URI_DIRECT)
+                            .to(URI_OUT_HIGH);
+                    from(URI_IN_HIGH_REUSE_POOL)
+                            .to(URI_SEDA);
+                    from(URI_SEDA)
+                            .process(exchange ->
+                            {
+                                TestIDL body = exchange.getIn().getBody(TestIDL.class);
+                                int id = body.getId();
+                                receivedInstances.add(body);
+                                // Hold on to the instance while the consumer receives more samples
+                                Thread.sleep(HOLD_MS);
+                                if (body.getId() != id)
+                                {
+                                    errors.add("Instance of sample " + id + " was overwritten with " + body.getId());
+                                }
+                                ids.add(id);
+                            })
+                            .to(URI_MOCK);
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate endpoint and component metrics.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsMetricsTests extends CamelTestBase
+{
+    private static final String URI_MOCK_ASYNC = "mock:async";
+
+    /**
+     * Samples and bytes should be counted both ways, and published over JMX.
+     */
+    @Test
+    void testCountedAndPublished() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        // The producer and consumer uris are the same endpoint
+        DdsEndpointMetrics metrics = context.getEndpoint(URI_IN_HIGH, DdsEndpoint.class).getMetrics();
+        assertEquals(MESSAGE_COUNT, metrics.getSamplesOut());
+        assertEquals(MESSAGE_COUNT, metrics.getSamplesIn());
+        assertEquals(MESSAGE_COUNT, metrics.getProcessedExchanges());
+        assertEquals(0, metrics.getFailedExchanges());
+        assertTrue(metrics.getBytesWritten() > 0);
+        assertEquals(metrics.getBytesWritten(), metrics.getBytesRead());
+        // Published over JMX, with the component totalling its endpoints
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertNotNull(metrics.getObjectName());
+        assertEquals((long) MESSAGE_COUNT, server.getAttribute(metrics.getObjectName(), "SamplesIn"));
+        DdsComponentMetrics totals = context.getComponent(DdsCamelComponent.SCHEME, DdsCamelComponent.class).getMetrics();
+        assertNotNull(totals.getObjectName());
+        assertEquals((long) MESSAGE_COUNT, server.getAttribute(totals.getObjectName(), "SamplesOut"));
+    }
+
+    /**
+     * Endpoints on the same topic that only differ in their parameters should each publish their own metrics.
+     */
+    @Test
+    void testSameTopicEndpointsPublished() throws Exception
+    {
+        DdsEndpointMetrics plain = context.getEndpoint(URI_IN_HIGH, DdsEndpoint.class).getMetrics();
+        DdsEndpointMetrics async = context.getEndpoint(URI_IN_HIGH_ASYNC, DdsEndpoint.class).getMetrics();
+        assertNotSame(plain, async);
+        assertNotNull(plain.getObjectName());
+        assertNotNull(async.getObjectName());
+        assertNotEquals(plain.getObjectName(), async.getObjectName());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(server.isRegistered(plain.getObjectName()));
+        assertTrue(server.isRegistered(async.getObjectName()));
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH).to(URI_MOCK);
+                from(URI_IN_HIGH_ASYNC).to(URI_MOCK_ASYNC);
+            }
+        };
+    }
+}
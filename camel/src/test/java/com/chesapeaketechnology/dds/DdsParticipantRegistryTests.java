@@ -0,0 +1,92 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+import us.ihmc.pubsub.participant.Participant;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * DDS camel component tests to validate participants are shared between endpoints.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsParticipantRegistryTests extends CamelTestBase
+{
+    private static final String URI_OUT_PROFILE = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .participant("other")
+            .getUri();
+
+    /**
+     * The publishing and subscribing endpoints are separate endpoints on the same domain, so they should share a single participant.
+     * The endpoint with its own profile should get a separate participant.
+     */
+    @Test
+    void testParticipantShared() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        DdsParticipantRegistry registry = context.getComponent(DdsCamelComponent.SCHEME, DdsCamelComponent.class).getParticipantRegistry();
+        assertEquals(2, registry.getParticipantCount());
+        assertEquals(2, registry.getReferenceCount(0, null));
+        assertEquals(1, registry.getReferenceCount(0, "other"));
+        // Stopping an endpoint releases its reference, without removing a participant still in use
+        context.getEndpoint(URI_IN_HIGH_ASYNC).stop();
+        assertEquals(1, registry.getReferenceCount(0, null));
+        context.getEndpoint(URI_OUT_PROFILE).stop();
+        assertEquals(1, registry.getParticipantCount());
+    }
+
+    /**
+     * Configs that differ in participant QoS should not share a participant, while configs that only differ in publisher and
+     * subscriber QoS should.
+     */
+    @Test
+    void testParticipantQosSeparated() throws Exception
+    {
+        DdsQosConfig small = DdsQosConfigBuilder.create("small").sendSocketBufferSize(65536).build();
+        DdsQosConfig smallReliable = DdsQosConfigBuilder.create("smallReliable", small).historyDepth(10).build();
+        DdsQosConfig large = DdsQosConfigBuilder.create("large", small).sendSocketBufferSize(1048576).build();
+        DdsParticipantRegistry registry = context.getComponent(DdsCamelComponent.SCHEME, DdsCamelComponent.class).getParticipantRegistry();
+        int before = registry.getParticipantCount();
+        Participant first = registry.acquire(1, "buffers", small);
+        assertSame(first, registry.acquire(1, "buffers", smallReliable));
+        assertNotSame(first, registry.acquire(1, "buffers", large));
+        assertEquals(before + 2, registry.getParticipantCount());
+        assertEquals(2, registry.getReferenceCount(1, "buffers", small));
+        assertEquals(1, registry.getReferenceCount(1, "buffers", large));
+        assertEquals(0, registry.getReferenceCount(1, "buffers"));
+        registry.release(1, "buffers", small);
+        registry.release(1, "buffers", smallReliable);
+        registry.release(1, "buffers", large);
+        assertEquals(before, registry.getParticipantCount());
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT)
+                        .to(URI_OUT_HIGH)
+                        .to(URI_OUT_PROFILE);
+                from(URI_IN_HIGH_ASYNC).to(URI_MOCK);
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate consumers partitioning samples by instance key.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsPartitionTests extends CamelTestBase
+{
+    private static final int PARTITIONS = 4;
+    private static final String URI_IN_HIGH_PARTITIONED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .partition(PARTITIONS, "id")
+            .getUri();
+    private final Map<String, List<Integer>> idsByThread = new ConcurrentHashMap<>();
+
+    /**
+     * Every sample should be delivered. Each worker thread should only see the keys of one lane, in the order they were sent.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testKeysStayOnLane() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        DdsPartitionedDispatcher lanes = new DdsPartitionedDispatcher("test", PARTITIONS, 1, DdsOverflowPolicy.BLOCK,
+                Function.identity(), exchange -> { }, exchange -> { });
+        assertTrue(idsByThread.size() <= PARTITIONS);
+        int total = 0;
+        for (List<Integer> ids : idsByThread.values())
+        {
+            int partition = lanes.getPartition(ids.get(0));
+            for (int i = 1; i < ids.size(); i++)
+            {
+                assertEquals(partition, lanes.getPartition(ids.get(i)));
+                assertTrue(ids.get(i - 1) < ids.get(i));
+            }
+            total += ids.size();
+        }
+        assertEquals(MESSAGE_COUNT, total);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH_PARTITIONED)
+                        .process(exchange -> idsByThread
+                                .computeIfAbsent(Thread.currentThread().getName(), name -> new CopyOnWriteArrayList<>())
+                                .add(exchange.getIn().getBody(TestIDL.class).getId()))
+                        .to(URI_MOCK);
+            }
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.Exchange;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.support.DefaultExchange;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import us.ihmc.pubsub.publisher.Publisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate producers writing many samples at once.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsProducerBatchingTests extends CamelTestBase
+{
+    private static final String URI_OUT_HIGH_COALESCE = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .coalesceWrites(BATCH_SIZE, BATCH_LINGER_MS)
+            .getUri();
+    private static final String URI_DIRECT_COALESCE = "direct:coalesce";
+    private static final int PRODUCERS = 4;
+    private static final int WRITES_BEFORE_STOP = 200;
+    private static final int ENQUEUES_AFTER_STOP = 100;
+    private static final long WAIT_TIMEOUT_MS = 5000;
+
+    /**
+     * A list body should be written as one sample per element.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testCollectionBodyWritten() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        result.allMessages().body().isInstanceOf(TestIDL.class);
+        List<TestIDL> bodies = new ArrayList<>();
+        for (int i = 0; i < MESSAGE_COUNT; i++)
+        {
+            bodies.add(new TestIDL(i));
+        }
+        sendBody(URI_DIRECT, bodies);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Samples queued for the writer thread should all be written.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testCoalescedWritesDelivered() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT_COALESCE);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stopping the writer while route threads are still enqueueing should complete every exchange, writing those it picked
+     * up and failing the rest, without leaving any route thread blocked on the queue.
+     */
+    @Test
+    void testStopWhileEnqueueing() throws Exception
+    {
+        Publisher publisher = Mockito.mock(Publisher.class);
+        DdsMetrics metrics = context.getEndpoint(URI_OUT_HIGH_COALESCE, DdsEndpoint.class).getMetrics();
+        DdsWriteCoalescer coalescer = new DdsWriteCoalescer("test", publisher, metrics, BATCH_SIZE, BATCH_LINGER_MS);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        AtomicInteger enqueued = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+        AtomicInteger afterStop = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        coalescer.start(writer);
+        for (int i = 0; i < PRODUCERS; i++)
+        {
+            producers.execute(() ->
+            {
+                // Keep enqueueing while the writer stops, and for a while after
+                while (afterStop.get() < ENQUEUES_AFTER_STOP)
+                {
+                    Exchange exchange = new DefaultExchange(context);
+                    exchange.getIn().setBody(new TestIDL(enqueued.incrementAndGet()));
+                    try
+                    {
+                        coalescer.enqueue(exchange, doneSync ->
+                        {
+                            if (exchange.getException() == null)
+                            {
+                                written.incrementAndGet();
+                            } else if (exchange.getException() instanceof IllegalStateException)
+                            {
+                                failed.incrementAndGet();
+                            } else
+                            {
+                                unexpected.incrementAndGet();
+                            }
+                        });
+                    } catch (InterruptedException ex)
+                    {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (stopped.get())
+                    {
+                        afterStop.incrementAndGet();
+                    }
+                }
+            });
+        }
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+        while (written.get() < WRITES_BEFORE_STOP && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(1);
+        }
+        writer.shutdownNow();
+        coalescer.stop();
+        stopped.set(true);
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS), "Route threads blocked after stop");
+        assertEquals(enqueued.get(), written.get() + failed.get(), "Exchanges left without a callback");
+        assertEquals(0, unexpected.get());
+        assertTrue(written.get() >= WRITES_BEFORE_STOP);
+        assertTrue(failed.get() > 0);
+        assertEquals(0, coalescer.getQueueDepth());
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_DIRECT_COALESCE).to(URI_OUT_HIGH_COALESCE);
+                from(URI_IN_HIGH).to(URI_MOCK);
+            }
+        };
+    }
+}
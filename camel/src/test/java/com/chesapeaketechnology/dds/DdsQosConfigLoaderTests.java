@@ -0,0 +1,216 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.CamelContext;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+import us.ihmc.pubsub.attributes.DurabilityKind;
+import us.ihmc.pubsub.attributes.HistoryQosPolicy;
+import us.ihmc.pubsub.attributes.ReliabilityKind;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate QoS configs loaded from files.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsQosConfigLoaderTests extends CamelTestBase
+{
+    private static final String PROFILE_TUNED = "tuned";
+    private static final String PROFILE_BULK = "bulk";
+    private static final String PROFILE_RELOAD = "reload";
+    private static final long RELOAD_TIMEOUT_MS = 15_000;
+    private static final long POLL_MS = 50;
+    private static final String URI_OUT_TUNED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(PROFILE_TUNED)
+            .getUri();
+    private static final String URI_IN_TUNED = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(PROFILE_TUNED)
+            .getUri();
+
+    /**
+     * Every supported format should describe the same profiles.
+     */
+    @Test
+    void testFormatsLoaded() throws Exception
+    {
+        assertTuned(DdsQosConfigLoader.load(getResourcePath("tuned.properties")));
+        assertTuned(DdsQosConfigLoader.load(getResourcePath("tuned.yml")));
+        assertTuned(DdsQosConfigLoader.load(getResourcePath("tuned.xml")));
+    }
+
+    /**
+     * Unknown settings and out of range values should be rejected rather than ignored.
+     */
+    @Test
+    void testInvalidSettingsRejected()
+    {
+        assertThrows(IllegalArgumentException.class, () -> loadProperties("bad.historyDepth=0"));
+        assertThrows(IllegalArgumentException.class, () -> loadProperties("bad.reliability=SOMETIMES"));
+        assertThrows(IllegalArgumentException.class, () -> loadProperties("bad.unknown=1"));
+    }
+
+    /**
+     * Changing the watched file should replace the registered profile.
+     */
+    @Test
+    void testReloadedOnChange() throws Exception
+    {
+        Path file = Files.createTempDirectory("qos").resolve("reload.properties");
+        Files.write(file, (PROFILE_RELOAD + ".historyDepth=1").getBytes(StandardCharsets.UTF_8));
+        DdsQoSConfigManager.load(file);
+        assertEquals(1, (int) DdsQoSConfigManager.getConfig(PROFILE_RELOAD).getHistoryDepth());
+        try (DdsQosConfigWatcher watcher = new DdsQosConfigWatcher(file))
+        {
+            Thread thread = new Thread(watcher, "DdsQosWatcherTest");
+            thread.start();
+            Files.write(file, (PROFILE_RELOAD + ".historyDepth=2").getBytes(StandardCharsets.UTF_8));
+            long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT_MS;
+            while (watcher.getReloadCount() == 0 && System.currentTimeMillis() < deadline)
+            {
+                Thread.sleep(POLL_MS);
+            }
+            assertTrue(watcher.getReloadCount() > 0);
+            assertEquals(2, (int) DdsQoSConfigManager.getConfig(PROFILE_RELOAD).getHistoryDepth());
+        }
+    }
+
+    /**
+     * Reloading a file should unregister the profiles it no longer holds, restoring built-in profiles it had replaced.
+     */
+    @Test
+    void testRemovedProfilesUnregistered() throws Exception
+    {
+        String removed = PROFILE_RELOAD + "Removed";
+        Path file = Files.createTempDirectory("qos").resolve("removed.properties");
+        DdsQosConfig high = DdsQoSConfigManager.getConfig(DdsQoSConfigManager.CONFIG_HIGH);
+        Files.write(file, (removed + ".historyDepth=1\n" + DdsQoSConfigManager.CONFIG_HIGH + ".historyDepth=3")
+                .getBytes(StandardCharsets.UTF_8));
+        DdsQoSConfigManager.load(file);
+        assertEquals(1, (int) DdsQoSConfigManager.getConfig(removed).getHistoryDepth());
+        assertEquals(3, (int) DdsQoSConfigManager.getConfig(DdsQoSConfigManager.CONFIG_HIGH).getHistoryDepth());
+        Files.write(file, (PROFILE_RELOAD + ".historyDepth=1").getBytes(StandardCharsets.UTF_8));
+        DdsQoSConfigManager.load(file);
+        assertNull(DdsQoSConfigManager.getConfig(removed));
+        assertSame(high, DdsQoSConfigManager.getConfig(DdsQoSConfigManager.CONFIG_HIGH));
+    }
+
+    /**
+     * Endpoints created after a profile changes should not share the DDS entities of endpoints created before.
+     */
+    @Test
+    void testReloadedProfileNotShared() throws Exception
+    {
+        String profile = PROFILE_RELOAD + "Shared";
+        String uri = DdsUriBuilder.create().content(TestIDL.class).domain(0).quality(profile).getUri();
+        Path file = Files.createTempDirectory("qos").resolve("shared.properties");
+        Files.write(file, (profile + ".historyDepth=1").getBytes(StandardCharsets.UTF_8));
+        DdsQoSConfigManager.load(file);
+        DdsCamelComponent component = context.getComponent(DdsCamelComponent.SCHEME, DdsCamelComponent.class);
+        DdsTopicKey before = ((DdsEndpoint) component.createEndpoint(uri)).getTopicKey();
+        // Reloading the same options keeps sharing
+        DdsQoSConfigManager.load(file);
+        assertEquals(before, ((DdsEndpoint) component.createEndpoint(uri)).getTopicKey());
+        Files.write(file, (profile + ".historyDepth=2").getBytes(StandardCharsets.UTF_8));
+        DdsQoSConfigManager.load(file);
+        DdsTopicKey after = ((DdsEndpoint) component.createEndpoint(uri)).getTopicKey();
+        assertNotEquals(before, after);
+        assertEquals(2, (int) after.getQosConfig().getHistoryDepth());
+    }
+
+    /**
+     * Endpoints should be able to use a profile from the component's QoS config file.
+     */
+    @Test
+    void testLoadedProfileRoute() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception
+    {
+        CamelContext camelContext = super.createCamelContext();
+        DdsCamelComponent component = new DdsCamelComponent();
+        component.setQosConfigFile(getResourcePath("tuned.properties").toString());
+        component.setWatchQosConfig(false);
+        camelContext.addComponent(DdsCamelComponent.SCHEME, component);
+        return camelContext;
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_TUNED);
+                from(URI_IN_TUNED).to(URI_MOCK);
+            }
+        };
+    }
+
+    /**
+     * @param configs Configs loaded from one of the test files.
+     */
+    private static void assertTuned(List<DdsQosConfig> configs)
+    {
+        assertEquals(2, configs.size());
+        DdsQosConfig tuned = configs.stream().filter(config -> PROFILE_TUNED.equals(config.getName())).findFirst().orElseThrow(AssertionError::new);
+        assertEquals(ReliabilityKind.RELIABLE, tuned.getReliability());
+        assertEquals(DurabilityKind.VOLATILE_DURABILITY_QOS, tuned.getDurability());
+        assertEquals(HistoryQosPolicy.HistoryQosPolicyKind.KEEP_LAST_HISTORY_QOS, tuned.getHistoryQosPolicyKind());
+        assertEquals(50, (int) tuned.getHistoryDepth());
+        assertTrue(tuned.isAsynchronous());
+        assertEquals(100L, (long) tuned.getHeartbeatPeriodMs());
+        assertEquals(5L, (long) tuned.getNackResponseDelayMs());
+        assertEquals(1048576, (int) tuned.getSendSocketBufferSize());
+        assertEquals(4194304, (int) tuned.getReceiveSocketBufferSize());
+        DdsQosConfig bulk = configs.stream().filter(config -> PROFILE_BULK.equals(config.getName())).findFirst().orElseThrow(AssertionError::new);
+        assertEquals(ReliabilityKind.BEST_EFFORT, bulk.getReliability());
+        assertNull(bulk.getHistoryDepth());
+    }
+
+    /**
+     * @param name Name of a file in the test {@code qos} resource directory.
+     * @return Path of the file.
+     */
+    private static Path getResourcePath(String name) throws Exception
+    {
+        return Paths.get(DdsQosConfigLoaderTests.class.getResource("/qos/" + name).toURI());
+    }
+
+    /**
+     * @param properties Properties file content.
+     * @return Loaded configs.
+     */
+    private static List<DdsQosConfig> loadProperties(String properties) throws Exception
+    {
+        return DdsQosConfigLoader.loadProperties(new ByteArrayInputStream(properties.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DDS camel component tests to validate endpoints passing samples through as serialized bytes.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsRawTests extends CamelTestBase
+{
+    private static final String URI_IN_HIGH_RAW = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .raw()
+            .getUri();
+    private static final String URI_OUT_RELAY_RAW = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(1)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .raw()
+            .getUri();
+    private static final String URI_IN_RELAY = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(1)
+            .quality(DdsQoSConfigManager.CONFIG_HIGH)
+            .getUri();
+    private static final String URI_MOCK_RAW = "mock:raw";
+
+    /**
+     * Raw consumers should receive read-only bytes, which a raw producer relays to another domain
+     * where typed consumers receive the original samples.
+     */
+    @RepeatedTest(REPEAT_COUNT)
+    void testRelayedWithoutDecoding() throws Exception
+    {
+        MockEndpoint raw = getMockEndpoint(URI_MOCK_RAW);
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        raw.expectedMessageCount(MESSAGE_COUNT);
+        raw.allMessages().body().isInstanceOf(ByteBuffer.class);
+        raw.allMessages().simple("${body.isReadOnly()}").isEqualTo(true);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        for (int i = 0; i < MESSAGE_COUNT; i++)
+        {
+            result.message(i).simple("${body.id}").isEqualTo(i);
+        }
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_HIGH_RAW)
+                        .to(URI_MOCK_RAW)
+                        .to(URI_OUT_RELAY_RAW);
+                from(URI_IN_RELAY).to(URI_MOCK);
+            }
+        };
+    }
+}
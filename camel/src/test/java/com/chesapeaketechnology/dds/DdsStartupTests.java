@@ -0,0 +1,87 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate endpoint entities created in parallel while the context starts.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsStartupTests extends CamelTestBase
+{
+    private static final String URI_DIRECT_LOW = "direct:low";
+    private static final String URI_MOCK_LOW = "mock:low";
+    private static final String URI_IN_LOW = DdsUriBuilder.create()
+            .content(TestIDL.class)
+            .domain(0)
+            .quality(DdsQoSConfigManager.CONFIG_LOW)
+            .getUri();
+
+    /**
+     * Every producer and consumer should be started and timed by the entity starter, and deliver messages once the context has started.
+     */
+    @Test
+    void testEntitiesStartedInParallel() throws Exception
+    {
+        DdsEntityStarter starter = context.getComponent(DdsCamelComponent.SCHEME, DdsCamelComponent.class).getEntityStarter();
+        Map<String, Long> times = starter.getStartupTimes();
+        assertTrue(times.containsKey("producer " + context.getEndpoint(URI_OUT_HIGH).getEndpointUri()), times.toString());
+        assertTrue(times.containsKey("producer " + context.getEndpoint(URI_OUT_LOW).getEndpointUri()), times.toString());
+        assertTrue(times.containsKey("consumer " + context.getEndpoint(URI_IN_HIGH).getEndpointUri()), times.toString());
+        assertTrue(times.containsKey("consumer " + context.getEndpoint(URI_IN_LOW).getEndpointUri()), times.toString());
+        // Created on the startup pool rather than the thread starting the context, by more than one of its threads
+        Set<String> threads = starter.getStartupThreadNames();
+        assertTrue(threads.stream().allMatch(name -> name.contains("DdsStartup")), threads.toString());
+        assertTrue(threads.size() > 1, threads.toString());
+        MockEndpoint high = getMockEndpoint(URI_MOCK);
+        MockEndpoint low = getMockEndpoint(URI_MOCK_LOW);
+        high.expectedMessageCount(MESSAGE_COUNT);
+        low.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        sendTestMessages(URI_DIRECT_LOW);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Restarting the context should create the entities again, without stale starters waiting on previous starts.
+     */
+    @Test
+    void testRestart() throws Exception
+    {
+        DdsEntityStarter starter = context.getComponent(DdsCamelComponent.SCHEME, DdsCamelComponent.class).getEntityStarter();
+        context.stop();
+        context.start();
+        assertSame(starter, context.getComponent(DdsCamelComponent.SCHEME, DdsCamelComponent.class).getEntityStarter());
+        MockEndpoint high = getMockEndpoint(URI_MOCK);
+        high.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_DIRECT_LOW).to(URI_OUT_LOW);
+                from(URI_IN_HIGH).to(URI_MOCK);
+                from(URI_IN_LOW).to(URI_MOCK_LOW);
+            }
+        };
+    }
+}
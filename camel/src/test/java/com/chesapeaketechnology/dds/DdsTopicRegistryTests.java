@@ -0,0 +1,58 @@
+package com.chesapeaketechnology.dds;
+
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * DDS camel component tests to validate publishers and subscribers are shared between endpoints on the same topic.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsTopicRegistryTests extends CamelTestBase
+{
+    private static final String URI_MOCK_OTHER = "mock:other";
+    private static final String URI_DIRECT_OTHER = "direct:other";
+
+    /**
+     * Endpoints whose uris only differ in consumer options resolve to the same topic key,
+     * so there should be one publisher and one subscriber, with every sample delivered to both consumers.
+     */
+    @Test
+    void testEntitiesShared() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        MockEndpoint other = getMockEndpoint(URI_MOCK_OTHER);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        other.expectedMessageCount(MESSAGE_COUNT);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        DdsTopicRegistry registry = context.getComponent(DdsCamelComponent.SCHEME, DdsCamelComponent.class).getTopicRegistry();
+        DdsTopicKey key = context.getEndpoint(URI_IN_HIGH, DdsEndpoint.class).getTopicKey();
+        assertEquals(key, context.getEndpoint(URI_IN_HIGH_REUSE_POOL, DdsEndpoint.class).getTopicKey());
+        assertEquals(1, registry.getPublisherCount());
+        assertEquals(1, registry.getSubscriberCount());
+        assertEquals(2, registry.getConsumerCount(key));
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_DIRECT_OTHER).to(URI_IN_HIGH_POOLED);
+                from(URI_IN_HIGH).to(URI_MOCK);
+                from(URI_IN_HIGH_REUSE_POOL).to(URI_MOCK_OTHER);
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.chesapeaketechnology.dds;
+
+import com.chesapeaketechnology.dds.idl.TestIDL;
+import com.chesapeaketechnology.dds.idl.TestIDLPubSubType;
+import org.apache.camel.RoutesBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.jupiter.api.Test;
+import us.ihmc.pubsub.TopicDataType;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DDS camel component tests to validate idl types are resolved through the type registry.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class DdsTypeRegistryTests extends CamelTestBase
+{
+    private static final String ALIAS_TYPE = "alias.TestIDL";
+    private static final String URI_IN_ALIAS = DdsCamelComponent.SCHEME + ":TestIDL:0/" + ALIAS_TYPE + "?qos=" + DdsQoSConfigManager.CONFIG_HIGH;
+
+    /**
+     * Types resolved by naming convention are cached, but each lookup gets its own instance.
+     * The registry has not loaded any indexes, so the type can only be found by its name.
+     */
+    @Test
+    void testResolvedOnce()
+    {
+        DdsTypeRegistry registry = new DdsTypeRegistry();
+        assertFalse(registry.contains(TestIDL.class.getName()));
+        TopicDataType<?> first = registry.getTopicDataType(TestIDL.class.getName());
+        assertTrue(registry.contains(TestIDL.class.getName()));
+        TopicDataType<?> second = registry.getTopicDataType(TestIDL.class.getName());
+        assertTrue(first instanceof TestIDLPubSubType);
+        assertNotSame(first, second);
+        assertThrows(IllegalStateException.class, () -> registry.getTopicDataType("missing.Type"));
+    }
+
+    /**
+     * Types listed in the test classpath's type index should be registered without looking up classes by name.
+     */
+    @Test
+    void testIndexedTypesLoaded()
+    {
+        DdsTypeRegistry registry = new DdsTypeRegistry();
+        assertEquals(1, registry.loadIndexedTypes(getClass().getClassLoader()));
+        assertTrue(registry.contains(TestIDL.class.getName()));
+        assertTrue(registry.getTopicDataType(TestIDL.class.getName()) instanceof TestIDLPubSubType);
+    }
+
+    /**
+     * An explicitly registered type should be usable by endpoints even though its name does not match a class.
+     */
+    @Test
+    void testRegisteredTypeReceives() throws Exception
+    {
+        MockEndpoint result = getMockEndpoint(URI_MOCK);
+        result.expectedMessageCount(MESSAGE_COUNT);
+        result.allMessages().body().isInstanceOf(TestIDL.class);
+        sendTestMessages(URI_DIRECT);
+        assertMockEndpointsSatisfied(MOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected RoutesBuilder createRouteBuilder()
+    {
+        // Registered before the routes create their endpoints
+        getTypeRegistry().register(ALIAS_TYPE, new TestIDLPubSubType());
+        return new RouteBuilder()
+        {
+            @Override
+            public void configure()
+            {
+                from(URI_DIRECT).to(URI_OUT_HIGH);
+                from(URI_IN_ALIAS).to(URI_MOCK);
+            }
+        };
+    }
+
+    private DdsTypeRegistry getTypeRegistry()
+    {
+        return context.getComponent(DdsCamelComponent.SCHEME, DdsCamelComponent.class).getTypeRegistry();
+    }
+}
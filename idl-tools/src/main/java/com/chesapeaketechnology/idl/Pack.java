@@ -11,14 +11,16 @@ import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 /**
- * Task to pack classes into a jar.
+ * Task to pack classes into a jar. The jar also gets a {@link java.util.ServiceLoader} index of its pub-sub types,
+ * which the camel component loads when it starts.
  *
  * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
  */
 @Command(name = "pack", mixinStandardHelpOptions = true,
-        description = "Package a directory into a jar file.")
+        description = "Package a directory into a jar file, indexing its pub-sub types.")
 public class Pack implements Callable<Collection<Path>>
 {
     private static final Logger logger = LoggerFactory.getLogger(Pack.class);
@@ -36,7 +38,10 @@ public class Pack implements Callable<Collection<Path>>
         FileUtil.packageToJar(inputDirectory, outputJar);
         // Collect classes that were put into the jar
         List<Path> paths = FileUtil.getPathsWithExtension(inputDirectory.toPath(), "class");
-        logger.info("Done!\n - Packaged {} files", paths.size());
+        List<String> types = FileUtil.getPubSubTypeNames(paths.stream()
+                .map(p -> inputDirectory.toPath().relativize(p).toString().replace(File.separator, "/"))
+                .collect(Collectors.toList()));
+        logger.info("Done!\n - Packaged {} files\n - Indexed {} pub-sub types", paths.size(), types.size());
         return paths;
     }
 }
@@ -6,9 +6,11 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -29,6 +31,13 @@ import java.util.zip.ZipEntry;
  */
 public class FileUtil
 {
+    /**
+     * Location of the {@link java.util.ServiceLoader} index listing the pub-sub types of a packaged jar.
+     */
+    public static final String TYPE_INDEX = "META-INF/services/us.ihmc.pubsub.TopicDataType";
+    private static final String PUB_SUB_CLASS_EXT = "PubSubType.class";
+    private static final String CLASS_EXT = ".class";
+
     /**
      * Collect the paths to files in the given directory that have the given extension.
      *
@@ -165,7 +174,31 @@ public class FileUtil
                 .collect(Collectors.toMap(
                         p -> inputDirectory.toPath().relativize(p).toString().replace(File.separator, "/"),
                         FileUtil::readSilent));
+        // Index the pub-sub types, so they can be found without looking up classes by name
+        List<String> types = getPubSubTypeNames(classes.keySet());
+        if (!types.isEmpty())
+        {
+            classes.put(TYPE_INDEX, String.join("\n", types).concat("\n").getBytes(StandardCharsets.UTF_8));
+        }
         // Save map to jar
         writeMapToJar(outputJar, classes);
     }
+
+    /**
+     * Find the generated pub-sub types among class entries. A pub-sub type is a top-level class named
+     * {@code <type>PubSubType} packaged alongside its {@code <type>} class.
+     *
+     * @param entries Jar entry names of classes, such as {@code com/example/MessagePubSubType.class}.
+     * @return Sorted, fully qualified names of the pub-sub type classes.
+     */
+    public static List<String> getPubSubTypeNames(Collection<String> entries)
+    {
+        Set<String> names = new HashSet<>(entries);
+        return names.stream()
+                .filter(entry -> entry.endsWith(PUB_SUB_CLASS_EXT) && !entry.contains("$"))
+                .filter(entry -> names.contains(entry.substring(0, entry.length() - PUB_SUB_CLASS_EXT.length()) + CLASS_EXT))
+                .map(entry -> entry.substring(0, entry.length() - CLASS_EXT.length()).replace('/', '.'))
+                .sorted()
+                .collect(Collectors.toList());
+    }
 }
@@ -18,14 +18,39 @@ import static com.chesapeaketechnology.dds.DdsUriBuilder.create;
 @Component
 public class ClientRoutes extends RouteBuilder
 {
+    // The client's own reader, plus the server's
+    private static final int MATCHED_READERS = 2;
+    private static final long MATCH_TIMEOUT_MS = 10_000;
     public static final String CHANNEL_OUT = create().domain(0)
-            .content(Channel.class).quality(DdsQoSConfigManager.CONFIG_HIGH).toString();
+            .content(Channel.class).quality(DdsQoSConfigManager.CONFIG_HIGH).awaitReaders(MATCHED_READERS, MATCH_TIMEOUT_MS).toString();
     public static final String USER_OUT = create().domain(0)
-            .content(User.class).quality(DdsQoSConfigManager.CONFIG_HIGH).toString();
+            .content(User.class).quality(DdsQoSConfigManager.CONFIG_HIGH).awaitReaders(MATCHED_READERS, MATCH_TIMEOUT_MS).toString();
     public static final String MESSAGE_OUT = create().domain(0)
             .content(Message.class).quality(DdsQoSConfigManager.CONFIG_HIGH).reuseMessageStructures().toString();
     public static final String MESSAGE_IN = create().domain(1)
             .content(Message.class).quality(DdsQoSConfigManager.CONFIG_HIGH).reuseMessageStructures().toString();
+    private final Processor messageListener;
+    private final boolean logMessages;
+
+    /**
+     * Routes logging every message.
+     */
+    public ClientRoutes()
+    {
+        this(exchange ->
+        {
+        }, true);
+    }
+
+    /**
+     * @param messageListener Processor for messages relayed back by the server.
+     * @param logMessages     Whether every chat message is logged.
+     */
+    public ClientRoutes(Processor messageListener, boolean logMessages)
+    {
+        this.messageListener = messageListener;
+        this.logMessages = logMessages;
+    }
 
     @Override
     public void configure() throws Exception
@@ -33,7 +58,13 @@ public class ClientRoutes extends RouteBuilder
         Processor clientProcessor = new ClientProcessor();
         from(CHANNEL_OUT).process(clientProcessor);
         from(USER_OUT).process(clientProcessor);
-        from(MESSAGE_OUT).process(clientProcessor);
-        from(MESSAGE_IN).process(clientProcessor);
+        if (logMessages)
+        {
+            from(MESSAGE_OUT).process(clientProcessor);
+            from(MESSAGE_IN).process(clientProcessor).process(messageListener);
+        } else
+        {
+            from(MESSAGE_IN).process(messageListener);
+        }
     }
 }
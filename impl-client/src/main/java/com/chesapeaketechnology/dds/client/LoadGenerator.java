@@ -0,0 +1,434 @@
+package com.chesapeaketechnology.dds.client;
+
+import com.chesapeaketechnology.dds.util.LatencyHistogram;
+import com.example.idl.messaging.Channel;
+import com.example.idl.messaging.Message;
+import com.example.idl.messaging.User;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.ProducerTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulates many chat users sending messages, and measures how long each takes to come back through the server.
+ * Users are not threads, a small scheduler pool sends on behalf of all of them,
+ * so tens of thousands of users can be simulated by a single client.
+ * Messages come back to {@link #process(Exchange)}, which must be attached to the route consuming relayed messages.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class LoadGenerator implements Processor
+{
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final String[] names = { "Alex", "Bob", "Carson", "Dylan", "Eric", "Daniel"};
+    private static final String PAYLOAD_PATTERN = "abcdefghijklmnopqrstuvwxyz";
+    // Send times are indexed by message sequence, so this many messages may be in flight before they are overwritten
+    private static final int SEQUENCE_BITS = 20;
+    private static final int SEND_TIME_SLOTS = 1 << SEQUENCE_BITS;
+    private static final int SEND_TIME_MASK = SEND_TIME_SLOTS - 1;
+    // The server relays every client's messages to every client, so ids carry a random tag of the client above the sequence
+    private static final int CLIENT_TAG_BITS = Integer.SIZE - 1 - SEQUENCE_BITS;
+    private static final int NONE = -1;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private final LoadSettings settings;
+    private final CamelContext context;
+    private final String text;
+    private final ThreadLocal<Message> messages;
+    private final AtomicLongArray sendNanos = new AtomicLongArray(SEND_TIME_SLOTS);
+    private final int clientTag = ThreadLocalRandom.current().nextInt(1 << CLIENT_TAG_BITS);
+    private final AtomicInteger nextSequence = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    // Closed loop only, the message each user is waiting on and when it was sent
+    private final AtomicIntegerArray outstanding;
+    private final AtomicLongArray outstandingSince;
+    private ProducerTemplate template;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    private long startNanos;
+    private long stopNanos;
+
+    /**
+     * @param settings Load to generate.
+     * @param context  Camel context with the client routes.
+     * @throws IllegalArgumentException When the settings are out of range.
+     */
+    public LoadGenerator(LoadSettings settings, CamelContext context)
+    {
+        settings.validate();
+        this.settings = settings;
+        this.context = context;
+        StringBuilder payload = new StringBuilder(settings.getPayloadSize());
+        for (int i = 0; i < settings.getPayloadSize(); i++)
+        {
+            payload.append(PAYLOAD_PATTERN.charAt(i % PAYLOAD_PATTERN.length()));
+        }
+        text = payload.toString();
+        // Messages are reused per sending thread, users only differ by their ids
+        messages = ThreadLocal.withInitial(() ->
+        {
+            Message message = new Message();
+            message.setText(text);
+            return message;
+        });
+        int closedUsers = settings.getMode() == LoadMode.CLOSED ? settings.getUsers() : 0;
+        outstanding = new AtomicIntegerArray(closedUsers);
+        outstandingSince = new AtomicLongArray(closedUsers);
+    }
+
+    /**
+     * Announce the channels and users, then start sending messages.
+     */
+    public void start()
+    {
+        template = context.createProducerTemplate();
+        setupChannels();
+        setupUsers();
+        AtomicInteger threadCount = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(settings.getThreads(), runnable ->
+        {
+            Thread thread = new Thread(runnable, "LoadGenerator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        startNanos = System.nanoTime();
+        if (settings.getMode() == LoadMode.OPEN)
+        {
+            startOpenLoop();
+        } else
+        {
+            startClosedLoop();
+        }
+        logger.info("Generating load as client " + clientTag + ": " + settings);
+    }
+
+    /**
+     * Generate load for the configured duration, then wait for messages in flight and log a summary.
+     *
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    public void awaitCompletion() throws InterruptedException
+    {
+        Thread.sleep(TimeUnit.SECONDS.toMillis(settings.getDurationSeconds()));
+        stop();
+        Thread.sleep(settings.getDrainMs());
+        logSummary();
+    }
+
+    /**
+     * Stop sending messages. Messages in flight are still measured as they come back.
+     */
+    public void stop()
+    {
+        running = false;
+        stopNanos = System.nanoTime();
+        scheduler.shutdown();
+    }
+
+    @Override
+    public void process(Exchange exchange)
+    {
+        Object body = exchange.getMessage().getBody();
+        if (!(body instanceof Message))
+        {
+            return;
+        }
+        Message message = (Message) body;
+        if (!isOwnMessage(clientTag, message.getMessageId()))
+        {
+            // Sent by another client
+            return;
+        }
+        long sentAt = sendNanos.getAndSet(message.getMessageId() & SEND_TIME_MASK, 0);
+        if (sentAt == 0)
+        {
+            // Already counted, or given up on
+            return;
+        }
+        latency.record(System.nanoTime() - sentAt);
+        received.increment();
+        if (settings.getMode() == LoadMode.CLOSED)
+        {
+            int user = message.getUserId();
+            if (user >= 0 && user < settings.getUsers() && outstanding.compareAndSet(user, message.getMessageId(), NONE))
+            {
+                scheduleNext(user, settings.getThinkTimeMs());
+            }
+        }
+    }
+
+    /**
+     * Log throughput and latency since the load generator was started.
+     */
+    public void logSummary()
+    {
+        double sendSeconds = (stopNanos - startNanos) / 1e9;
+        double totalSeconds = (System.nanoTime() - startNanos) / 1e9;
+        long sentCount = sent.sum();
+        long receivedCount = received.sum();
+        StringBuilder summary = new StringBuilder("Load summary: ").append(settings).append(System.lineSeparator());
+        summary.append(String.format("  Sent %d (%.1f/s), received %d (%.1f/s), lost %d, timed out %d, failed %d",
+                sentCount, sentCount / sendSeconds, receivedCount, receivedCount / totalSeconds,
+                sentCount - receivedCount, timedOut.sum(), failed.sum()));
+        summary.append(System.lineSeparator()).append("  Latency ms:");
+        for (double percentile : PERCENTILES)
+        {
+            summary.append(String.format(" p%s=%.3f", percentile, latency.getValueAtPercentile(percentile) / 1e6));
+        }
+        summary.append(String.format(" max=%.3f", latency.getMax() / 1e6));
+        logger.info(summary.toString());
+    }
+
+    /**
+     * Each scheduler thread is given a share of the users and of the rate. Sends are due on a fixed schedule
+     * so latency includes any time a send was held up behind earlier ones.
+     */
+    private void startOpenLoop()
+    {
+        int lanes = openLoopLanes(settings);
+        long periodNanos = openLoopPeriodNanos(settings, lanes);
+        for (int lane = 0; lane < lanes; lane++)
+        {
+            long delayNanos = periodNanos * lane / lanes;
+            scheduler.scheduleAtFixedRate(new OpenLoopLane(lane, lanes, periodNanos, startNanos + delayNanos),
+                    delayNanos, periodNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @param settings Load to generate.
+     * @return Number of open loop lanes, one per scheduler thread, without more lanes than users.
+     */
+    static int openLoopLanes(LoadSettings settings)
+    {
+        return Math.min(settings.getThreads(), settings.getUsers());
+    }
+
+    /**
+     * Every lane sends a burst per period, so all lanes together send {@link LoadSettings#getRate()} messages per second.
+     *
+     * @param settings Load to generate.
+     * @param lanes    Number of lanes sharing the rate.
+     * @return Nanoseconds between the bursts of each lane, at least {@code 1}.
+     */
+    static long openLoopPeriodNanos(LoadSettings settings, int lanes)
+    {
+        return Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) * settings.getBurstSize() * lanes / settings.getRate()));
+    }
+
+    /**
+     * @return Id for the next message this client sends.
+     */
+    private int nextMessageId()
+    {
+        return messageId(clientTag, nextSequence.getAndIncrement());
+    }
+
+    /**
+     * @param clientTag Tag of the sending client.
+     * @param sequence  Sequence number of the message within the client, wrapping once it exceeds the send time slots.
+     * @return Id of the message, never negative.
+     */
+    static int messageId(int clientTag, int sequence)
+    {
+        return clientTag << SEQUENCE_BITS | sequence & SEND_TIME_MASK;
+    }
+
+    /**
+     * @param clientTag Tag of this client.
+     * @param messageId Id of a relayed message.
+     * @return {@code true} when the message was sent by this client.
+     */
+    static boolean isOwnMessage(int clientTag, int messageId)
+    {
+        return messageId >>> SEQUENCE_BITS == clientTag;
+    }
+
+    /**
+     * Users start over a ramp of at least a second, so they do not all send at once.
+     */
+    private void startClosedLoop()
+    {
+        int users = settings.getUsers();
+        long rampNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1_000, settings.getThinkTimeMs()));
+        for (int user = 0; user < users; user++)
+        {
+            outstanding.set(user, NONE);
+            int id = user;
+            scheduler.schedule(() -> sendClosedLoop(id), rampNanos * user / users, TimeUnit.NANOSECONDS);
+        }
+        long sweepMs = Math.max(1, settings.getTimeoutMs() / 2);
+        scheduler.scheduleWithFixedDelay(this::expireOutstanding, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param user User to send the next message as.
+     */
+    private void sendClosedLoop(int user)
+    {
+        if (!running)
+        {
+            return;
+        }
+        int id = nextMessageId();
+        long now = System.nanoTime();
+        outstandingSince.set(user, now);
+        outstanding.set(user, id);
+        if (!send(id, user, now))
+        {
+            outstanding.set(user, NONE);
+            scheduleNext(user, settings.getTimeoutMs());
+        }
+    }
+
+    /**
+     * @param user    User to send the next message as.
+     * @param delayMs Milliseconds to wait first.
+     */
+    private void scheduleNext(int user, long delayMs)
+    {
+        if (!running)
+        {
+            return;
+        }
+        try
+        {
+            scheduler.schedule(() -> sendClosedLoop(user), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex)
+        {
+            // Stopped in the meantime
+        }
+    }
+
+    /**
+     * Give up on messages that have not come back within the timeout, letting their users send again.
+     */
+    private void expireOutstanding()
+    {
+        long expiredBefore = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(settings.getTimeoutMs());
+        for (int user = 0; user < outstanding.length(); user++)
+        {
+            int id = outstanding.get(user);
+            if (id != NONE && outstandingSince.get(user) - expiredBefore < 0 && outstanding.compareAndSet(user, id, NONE))
+            {
+                // Forget the send time, so a late arrival is not counted as received
+                sendNanos.set(id & SEND_TIME_MASK, 0);
+                timedOut.increment();
+                scheduleNext(user, settings.getThinkTimeMs());
+            }
+        }
+    }
+
+    /**
+     * @param id        Message id.
+     * @param user      User sending the message.
+     * @param dueNanos  Time latency is measured from.
+     * @return {@code true} when the message was sent.
+     */
+    private boolean send(int id, int user, long dueNanos)
+    {
+        Message message = messages.get();
+        message.setMessageId(id);
+        message.setUserId(user);
+        message.setChannelId(user % settings.getChannels());
+        sendNanos.set(id & SEND_TIME_MASK, dueNanos);
+        try
+        {
+            template.sendBody(ClientRoutes.MESSAGE_OUT, message);
+            sent.increment();
+            return true;
+        } catch (RuntimeException ex)
+        {
+            sendNanos.set(id & SEND_TIME_MASK, 0);
+            failed.increment();
+            logger.debug("Failed to send message: " + id, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Announce the channels users send to.
+     */
+    private void setupChannels()
+    {
+        for (int i = 0; i < settings.getChannels(); i++)
+        {
+            String name = i < 26 ? "C" + (char) ('A' + i) : "C" + i;
+            Channel channel = new Channel(i, name, "This is channel " + name);
+            template.sendBody(ClientRoutes.CHANNEL_OUT, channel);
+            if (settings.isLogMessages())
+            {
+                logger.info("Setup channel: " + i + " (" + channel.getNameAsString() + ")");
+            }
+        }
+    }
+
+    /**
+     * Announce the simulated users.
+     */
+    private void setupUsers()
+    {
+        for (int i = 0; i < settings.getUsers(); i++)
+        {
+            User user = new User(i, i < names.length ? names[i] : "User" + i);
+            template.sendBody(ClientRoutes.USER_OUT, user);
+            if (settings.isLogMessages())
+            {
+                logger.info("Setup user '{}'", user.getName());
+            }
+        }
+    }
+
+    /**
+     * Sends the bursts of one scheduler thread, cycling through its share of the users.
+     */
+    private class OpenLoopLane implements Runnable
+    {
+        private final int firstUser;
+        private final int userStep;
+        private final long periodNanos;
+        private final long firstDueNanos;
+        private int nextUser;
+        private long burst;
+
+        OpenLoopLane(int firstUser, int userStep, long periodNanos, long firstDueNanos)
+        {
+            this.firstUser = firstUser;
+            this.userStep = userStep;
+            this.periodNanos = periodNanos;
+            this.firstDueNanos = firstDueNanos;
+            nextUser = firstUser;
+        }
+
+        @Override
+        public void run()
+        {
+            long dueNanos = firstDueNanos + burst++ * periodNanos;
+            for (int i = 0; i < settings.getBurstSize() && running; i++)
+            {
+                send(nextMessageId(), nextUser, dueNanos);
+                nextUser += userStep;
+                if (nextUser >= settings.getUsers())
+                {
+                    nextUser = firstUser;
+                }
+            }
+        }
+    }
+}
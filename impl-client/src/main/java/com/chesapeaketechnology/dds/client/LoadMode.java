@@ -0,0 +1,19 @@
+package com.chesapeaketechnology.dds.client;
+
+/**
+ * How the load generator decides when to send messages.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public enum LoadMode
+{
+    /**
+     * Send at the target rate regardless of how quickly messages come back,
+     * measuring latency from when each message was due to be sent.
+     */
+    OPEN,
+    /**
+     * Each user waits for its previous message to come back, then for the think time, before sending the next.
+     */
+    CLOSED
+}
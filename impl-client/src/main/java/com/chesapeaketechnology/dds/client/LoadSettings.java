@@ -0,0 +1,255 @@
+package com.chesapeaketechnology.dds.client;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the client's load generator, bound from {@code load.*} application properties.
+ * The defaults match the original chat demo, a handful of users sending roughly one message per second between them.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+@Component
+@ConfigurationProperties(prefix = "load")
+public class LoadSettings
+{
+    /**
+     * Longest message text, as unbounded IDL strings hold at most 255 characters.
+     */
+    public static final int MAX_PAYLOAD_SIZE = 255;
+    private LoadMode mode = LoadMode.OPEN;
+    private double rate = 1;
+    private int users = 6;
+    private int channels = 2;
+    private int payloadSize = 36;
+    private int burstSize = 1;
+    private long durationSeconds;
+    private long thinkTimeMs;
+    private long timeoutMs = 5_000;
+    private long drainMs = 2_000;
+    private int threads = 2;
+    private boolean logMessages = true;
+
+    /**
+     * @throws IllegalArgumentException When any setting is out of range.
+     */
+    public void validate()
+    {
+        if (rate <= 0) throw new IllegalArgumentException("Rate must be positive: " + rate);
+        if (users < 1) throw new IllegalArgumentException("Users must be at least 1: " + users);
+        if (channels < 1) throw new IllegalArgumentException("Channels must be at least 1: " + channels);
+        if (payloadSize < 0) throw new IllegalArgumentException("Payload size must not be negative: " + payloadSize);
+        if (payloadSize > MAX_PAYLOAD_SIZE)
+        {
+            throw new IllegalArgumentException("Payload size must be at most " + MAX_PAYLOAD_SIZE + ": " + payloadSize);
+        }
+        if (burstSize < 1) throw new IllegalArgumentException("Burst size must be at least 1: " + burstSize);
+        if (durationSeconds < 0) throw new IllegalArgumentException("Duration must not be negative: " + durationSeconds);
+        if (thinkTimeMs < 0) throw new IllegalArgumentException("Think time must not be negative: " + thinkTimeMs);
+        if (timeoutMs < 1) throw new IllegalArgumentException("Timeout must be positive: " + timeoutMs);
+        if (drainMs < 0) throw new IllegalArgumentException("Drain time must not be negative: " + drainMs);
+        if (threads < 1) throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+    }
+
+    /**
+     * @return Open or closed loop.
+     */
+    public LoadMode getMode()
+    {
+        return mode;
+    }
+
+    /**
+     * @param mode Open or closed loop.
+     */
+    public void setMode(LoadMode mode)
+    {
+        this.mode = mode;
+    }
+
+    /**
+     * @return Target messages per second across all users. Open loop only.
+     */
+    public double getRate()
+    {
+        return rate;
+    }
+
+    /**
+     * @param rate Target messages per second across all users. Open loop only.
+     */
+    public void setRate(double rate)
+    {
+        this.rate = rate;
+    }
+
+    /**
+     * @return Number of simulated users.
+     */
+    public int getUsers()
+    {
+        return users;
+    }
+
+    /**
+     * @param users Number of simulated users.
+     */
+    public void setUsers(int users)
+    {
+        this.users = users;
+    }
+
+    /**
+     * @return Number of channels users send to.
+     */
+    public int getChannels()
+    {
+        return channels;
+    }
+
+    /**
+     * @param channels Number of channels users send to.
+     */
+    public void setChannels(int channels)
+    {
+        this.channels = channels;
+    }
+
+    /**
+     * @return Number of characters of text in each message.
+     */
+    public int getPayloadSize()
+    {
+        return payloadSize;
+    }
+
+    /**
+     * @param payloadSize Number of characters of text in each message, at most {@link #MAX_PAYLOAD_SIZE}.
+     */
+    public void setPayloadSize(int payloadSize)
+    {
+        this.payloadSize = payloadSize;
+    }
+
+    /**
+     * @return Number of messages sent back-to-back at a time. Open loop only.
+     */
+    public int getBurstSize()
+    {
+        return burstSize;
+    }
+
+    /**
+     * Bursts are spaced out so the average rate still matches {@link #getRate()}.
+     *
+     * @param burstSize Number of messages sent back-to-back at a time. Open loop only.
+     */
+    public void setBurstSize(int burstSize)
+    {
+        this.burstSize = burstSize;
+    }
+
+    /**
+     * @return Seconds to generate load for, or {@code 0} to run until the application is stopped.
+     */
+    public long getDurationSeconds()
+    {
+        return durationSeconds;
+    }
+
+    /**
+     * @param durationSeconds Seconds to generate load for, or {@code 0} to run until the application is stopped.
+     */
+    public void setDurationSeconds(long durationSeconds)
+    {
+        this.durationSeconds = durationSeconds;
+    }
+
+    /**
+     * @return Milliseconds a user waits after its message comes back before sending the next. Closed loop only.
+     */
+    public long getThinkTimeMs()
+    {
+        return thinkTimeMs;
+    }
+
+    /**
+     * @param thinkTimeMs Milliseconds a user waits after its message comes back before sending the next. Closed loop only.
+     */
+    public void setThinkTimeMs(long thinkTimeMs)
+    {
+        this.thinkTimeMs = thinkTimeMs;
+    }
+
+    /**
+     * @return Milliseconds a user waits for its message to come back before giving up on it. Closed loop only.
+     */
+    public long getTimeoutMs()
+    {
+        return timeoutMs;
+    }
+
+    /**
+     * @param timeoutMs Milliseconds a user waits for its message to come back before giving up on it. Closed loop only.
+     */
+    public void setTimeoutMs(long timeoutMs)
+    {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * @return Milliseconds to wait for messages still in flight once sending stops, before printing the summary.
+     */
+    public long getDrainMs()
+    {
+        return drainMs;
+    }
+
+    /**
+     * @param drainMs Milliseconds to wait for messages still in flight once sending stops, before printing the summary.
+     */
+    public void setDrainMs(long drainMs)
+    {
+        this.drainMs = drainMs;
+    }
+
+    /**
+     * @return Number of scheduler threads sending messages for all users.
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    /**
+     * @param threads Number of scheduler threads sending messages for all users.
+     */
+    public void setThreads(int threads)
+    {
+        this.threads = threads;
+    }
+
+    /**
+     * @return Whether every sent and received message is logged, as the chat demo does.
+     */
+    public boolean isLogMessages()
+    {
+        return logMessages;
+    }
+
+    /**
+     * @param logMessages Whether every sent and received message is logged, as the chat demo does.
+     */
+    public void setLogMessages(boolean logMessages)
+    {
+        this.logMessages = logMessages;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LoadSettings[mode=" + mode + ", rate=" + rate + ", users=" + users + ", channels=" + channels
+                + ", payloadSize=" + payloadSize + ", burstSize=" + burstSize + ", durationSeconds=" + durationSeconds
+                + ", thinkTimeMs=" + thinkTimeMs + ", threads=" + threads + "]";
+    }
+}
@@ -0,0 +1,112 @@
+package com.chesapeaketechnology.dds.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Client tests to validate how the open loop load generator spreads its rate over scheduler lanes.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class LoadGeneratorTests
+{
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * There should be a lane per scheduler thread, but never more lanes than users.
+     */
+    @Test
+    void testLanes()
+    {
+        LoadSettings settings = settings(10, 1, 2, 6);
+        assertEquals(2, LoadGenerator.openLoopLanes(settings));
+        settings.setThreads(8);
+        assertEquals(6, LoadGenerator.openLoopLanes(settings));
+    }
+
+    /**
+     * Each lane should send a message every {@code lanes / rate} seconds, so all lanes together send at the rate.
+     */
+    @Test
+    void testPeriod()
+    {
+        assertEquals(SECOND_NANOS, period(settings(1, 1, 1, 6)));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), period(settings(100, 1, 2, 6)));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(400), period(settings(2.5, 1, 1, 6)));
+    }
+
+    /**
+     * Bursts should stretch the period, keeping the average rate.
+     */
+    @Test
+    void testBurstPeriod()
+    {
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), period(settings(100, 10, 2, 6)));
+        LoadSettings settings = settings(1000, 5, 4, 6);
+        double rate = (double) SECOND_NANOS * settings.getBurstSize() * LoadGenerator.openLoopLanes(settings) / period(settings);
+        assertEquals(settings.getRate(), rate, 1e-9);
+    }
+
+    /**
+     * Rates beyond a message per nanosecond should still schedule with a positive period.
+     */
+    @Test
+    void testMinimumPeriod()
+    {
+        assertEquals(1, period(settings(1e12, 1, 1, 1)));
+    }
+
+    /**
+     * Every client starts its sequence at zero, so ids should only match the client that sent them.
+     */
+    @Test
+    void testMessageIdsTagged()
+    {
+        int first = 3;
+        int second = 1234;
+        for (int sequence : new int[]{0, 1, 42, (1 << 20) - 1, 1 << 20, Integer.MAX_VALUE})
+        {
+            int id = LoadGenerator.messageId(first, sequence);
+            assertTrue(id >= 0, "Negative id for sequence " + sequence);
+            assertTrue(LoadGenerator.isOwnMessage(first, id));
+            assertFalse(LoadGenerator.isOwnMessage(second, id));
+            assertNotEquals(id, LoadGenerator.messageId(second, sequence));
+        }
+        int largest = (1 << (Integer.SIZE - 1 - 20)) - 1;
+        assertTrue(LoadGenerator.messageId(largest, Integer.MAX_VALUE) >= 0);
+        assertTrue(LoadGenerator.isOwnMessage(largest, LoadGenerator.messageId(largest, 7)));
+    }
+
+    /**
+     * @param rate      Messages per second across all users.
+     * @param burstSize Messages per burst.
+     * @param threads   Scheduler threads.
+     * @param users     Simulated users.
+     * @return Valid open loop settings.
+     */
+    private static LoadSettings settings(double rate, int burstSize, int threads, int users)
+    {
+        LoadSettings settings = new LoadSettings();
+        settings.setRate(rate);
+        settings.setBurstSize(burstSize);
+        settings.setThreads(threads);
+        settings.setUsers(users);
+        settings.validate();
+        return settings;
+    }
+
+    /**
+     * @param settings Load to generate.
+     * @return Nanoseconds between the bursts of each lane.
+     */
+    private static long period(LoadSettings settings)
+    {
+        return LoadGenerator.openLoopPeriodNanos(settings, LoadGenerator.openLoopLanes(settings));
+    }
+}
@@ -0,0 +1,69 @@
+package com.chesapeaketechnology.dds.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Client tests to validate the ranges accepted by the load generator's settings.
+ *
+ * @author Copyright &#169; 2020 Chesapeake Technology International Corp.
+ */
+public class LoadSettingsTests
+{
+    /**
+     * The defaults should describe a valid load.
+     */
+    @Test
+    void testDefaultsValid()
+    {
+        assertDoesNotThrow(new LoadSettings()::validate);
+    }
+
+    /**
+     * Payloads should fit in an unbounded IDL string, and never be negative.
+     */
+    @Test
+    void testPayloadSize()
+    {
+        LoadSettings settings = new LoadSettings();
+        settings.setPayloadSize(0);
+        assertDoesNotThrow(settings::validate);
+        settings.setPayloadSize(LoadSettings.MAX_PAYLOAD_SIZE);
+        assertDoesNotThrow(settings::validate);
+        settings.setPayloadSize(LoadSettings.MAX_PAYLOAD_SIZE + 1);
+        assertThrows(IllegalArgumentException.class, settings::validate);
+        settings.setPayloadSize(-1);
+        assertThrows(IllegalArgumentException.class, settings::validate);
+    }
+
+    /**
+     * Rates, counts and durations out of range should be rejected.
+     */
+    @Test
+    void testOutOfRange()
+    {
+        assertInvalid(settings -> settings.setRate(0));
+        assertInvalid(settings -> settings.setUsers(0));
+        assertInvalid(settings -> settings.setChannels(0));
+        assertInvalid(settings -> settings.setBurstSize(0));
+        assertInvalid(settings -> settings.setDurationSeconds(-1));
+        assertInvalid(settings -> settings.setThinkTimeMs(-1));
+        assertInvalid(settings -> settings.setTimeoutMs(0));
+        assertInvalid(settings -> settings.setDrainMs(-1));
+        assertInvalid(settings -> settings.setThreads(0));
+    }
+
+    /**
+     * @param change Change to the default settings that should make them invalid.
+     */
+    private static void assertInvalid(Consumer<LoadSettings> change)
+    {
+        LoadSettings settings = new LoadSettings();
+        change.accept(settings);
+        assertThrows(IllegalArgumentException.class, settings::validate);
+    }
+}